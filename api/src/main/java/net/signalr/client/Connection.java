@@ -90,6 +90,31 @@ public interface Connection {
      */
     void removeConnectionListener(ConnectionListener listener);
 
+    /**
+     * Sets the bounded buffer between the transport and the connection
+     * listeners, or <code>null</code> to dispatch received messages on the
+     * receiving thread.
+     * 
+     * @param inboundBuffer The inbound buffer or <code>null</code>.
+     */
+    void setInboundBuffer(InboundBuffer inboundBuffer);
+
+    /**
+     * Sets the scheduler which interleaves outbound messages by priority, or
+     * <code>null</code> to hand messages to the transport in send order.
+     * 
+     * @param outboundScheduler The outbound scheduler or <code>null</code>.
+     */
+    void setOutboundScheduler(OutboundScheduler outboundScheduler);
+
+    /**
+     * Sets the outbound rate limiter, or <code>null</code> to send messages
+     * without limit.
+     * 
+     * @param rateLimiter The rate limiter or <code>null</code>.
+     */
+    void setRateLimiter(RateLimiter rateLimiter);
+
     /**
      * Sets the connection data.
      * 
@@ -119,4 +144,13 @@ public interface Connection {
      */
     Promise<Void> send(String message);
 
+    /**
+     * Sends a message with the specified priority.
+     * 
+     * @param message The message.
+     * @param priority The priority.
+     * @return The send result.
+     */
+    Promise<Void> send(String message, SendPriority priority);
+
 }
\ No newline at end of file
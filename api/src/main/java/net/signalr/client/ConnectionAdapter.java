@@ -16,6 +16,8 @@
 
 package net.signalr.client;
 
+import net.signalr.client.json.JsonElement;
+
 /**
  * Represents a connection adapter.
  */
@@ -60,4 +62,9 @@ public class ConnectionAdapter implements ConnectionListener {
     @Override
     public void onReceived(final String message) {
     }
+
+    @Override
+    public void onReceived(final String message, final JsonElement element) {
+        onReceived(message);
+    }
 }
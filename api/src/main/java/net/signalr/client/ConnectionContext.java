@@ -63,6 +63,41 @@ interface ConnectionContext extends TransportContext, TransportListener {
      */
     void removeConnectionListener(ConnectionListener listener);
 
+    /**
+     * Sets the inbound buffer.
+     * 
+     * @param inboundBuffer The inbound buffer or <code>null</code>.
+     */
+    void setInboundBuffer(InboundBuffer inboundBuffer);
+
+    /**
+     * Returns the outbound scheduler.
+     * 
+     * @return The outbound scheduler or <code>null</code>.
+     */
+    OutboundScheduler getOutboundScheduler();
+
+    /**
+     * Sets the outbound scheduler.
+     * 
+     * @param outboundScheduler The outbound scheduler or <code>null</code>.
+     */
+    void setOutboundScheduler(OutboundScheduler outboundScheduler);
+
+    /**
+     * Returns the rate limiter.
+     * 
+     * @return The rate limiter or <code>null</code>.
+     */
+    RateLimiter getRateLimiter();
+
+    /**
+     * Sets the rate limiter.
+     * 
+     * @param rateLimiter The rate limiter or <code>null</code>.
+     */
+    void setRateLimiter(RateLimiter rateLimiter);
+
     /**
      * Sets the connection data.
      * 
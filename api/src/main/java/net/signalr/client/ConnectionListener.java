@@ -18,6 +18,8 @@ package net.signalr.client;
 
 import java.util.EventListener;
 
+import net.signalr.client.json.JsonElement;
+
 /**
  * Defines a connection listener.
  */
@@ -78,4 +80,14 @@ public interface ConnectionListener extends EventListener {
      * @param message The message.
      */
     void onReceived(String message);
+
+    /**
+     * Invoked when a message has been received which the connection already
+     * parsed, e.g. to classify it for the inbound buffer. Listeners which parse
+     * received messages use the element instead of parsing the message again.
+     * 
+     * @param message The message.
+     * @param element The parsed message.
+     */
+    void onReceived(String message, JsonElement element);
 }
@@ -0,0 +1,372 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import net.signalr.client.json.JsonElement;
+
+/**
+ * Represents a bounded buffer of received messages between the transport and
+ * the connection listeners. Only frames carrying messages are dropped or
+ * conflated, all other frames, e.g. hub responses, are always delivered.
+ */
+public final class InboundBuffer {
+
+    /**
+     * The capacity.
+     */
+    private final int _capacity;
+
+    /**
+     * The overflow policy.
+     */
+    private final InboundPolicy _policy;
+
+    /**
+     * The key or <code>null</code> if messages are not conflated.
+     */
+    private final InboundKey _key;
+
+    /**
+     * The lock which guards the buffered entries.
+     */
+    private final ReentrantLock _lock;
+
+    /**
+     * The condition which is signaled when the buffer has room.
+     */
+    private final Condition _notFull;
+
+    /**
+     * The buffered entries.
+     */
+    private final Deque<Entry> _entries;
+
+    /**
+     * The buffered entries by key.
+     */
+    private final Map<Object, Entry> _entriesByKey;
+
+    /**
+     * The number of dropped messages.
+     */
+    private final AtomicLong _dropCount;
+
+    /**
+     * The number of conflated messages.
+     */
+    private final AtomicLong _conflationCount;
+
+    /**
+     * Initializes a new instance of the {@link InboundBuffer} class.
+     * 
+     * @param capacity The capacity.
+     * @param policy The overflow policy.
+     */
+    public InboundBuffer(final int capacity, final InboundPolicy policy) {
+        this(capacity, policy, null);
+    }
+
+    /**
+     * Initializes a new instance of the {@link InboundBuffer} class which
+     * conflates messages by the specified key.
+     * 
+     * @param capacity The capacity.
+     * @param key The key.
+     */
+    public InboundBuffer(final int capacity, final InboundKey key) {
+        this(capacity, InboundPolicy.CONFLATE, key);
+
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+    }
+
+    /**
+     * Initializes a new instance of the {@link InboundBuffer} class.
+     * 
+     * @param capacity The capacity.
+     * @param policy The overflow policy.
+     * @param key The key.
+     */
+    private InboundBuffer(final int capacity, final InboundPolicy policy, final InboundKey key) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Policy must not be null");
+        }
+        if ((policy == InboundPolicy.CONFLATE) && (key == null)) {
+            throw new IllegalArgumentException("Conflation requires a key");
+        }
+
+        _capacity = capacity;
+        _policy = policy;
+        _key = key;
+
+        _lock = new ReentrantLock();
+        _notFull = _lock.newCondition();
+        _entries = new ArrayDeque<>();
+        _entriesByKey = new HashMap<>();
+        _dropCount = new AtomicLong(0);
+        _conflationCount = new AtomicLong(0);
+    }
+
+    /**
+     * Returns the capacity.
+     * 
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return _capacity;
+    }
+
+    /**
+     * Returns the overflow policy.
+     * 
+     * @return The overflow policy.
+     */
+    public InboundPolicy getPolicy() {
+        return _policy;
+    }
+
+    /**
+     * Returns the number of buffered messages.
+     * 
+     * @return The number of buffered messages.
+     */
+    public int getDepth() {
+        _lock.lock();
+        try {
+            return _entries.size();
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of messages which have been dropped.
+     * 
+     * @return The number of dropped messages.
+     */
+    public long getDropCount() {
+        return _dropCount.get();
+    }
+
+    /**
+     * Returns the number of messages which have been replaced by newer ones.
+     * 
+     * @return The number of conflated messages.
+     */
+    public long getConflationCount() {
+        return _conflationCount.get();
+    }
+
+    /**
+     * Returns a value indicating whether the buffer requires keys.
+     * 
+     * @return A value indicating whether the buffer requires keys.
+     */
+    boolean isKeyed() {
+        return (_key != null);
+    }
+
+    /**
+     * Returns the key of the specified message.
+     * 
+     * @param message The message.
+     * @return The key or <code>null</code>.
+     */
+    Object getKey(final JsonElement message) {
+        return _key.getKey(message);
+    }
+
+    /**
+     * Returns a value indicating whether the specified message may be dropped.
+     * 
+     * @param message The message.
+     * @return A value indicating whether the message may be dropped.
+     */
+    static boolean isDroppable(final JsonElement message) {
+        final JsonElement messages = message.get("M");
+
+        return messages.isArray() && (messages.size() > 0);
+    }
+
+    /**
+     * Adds the specified droppable message to the buffer.
+     * 
+     * @param message The message.
+     * @param key The key or <code>null</code>.
+     * @throws InterruptedException
+     */
+    void offer(final String message, final Object key) throws InterruptedException {
+        offer(message, null, key, true);
+    }
+
+    /**
+     * Adds the specified message to the buffer.
+     * 
+     * @param message The message.
+     * @param element The parsed message or <code>null</code> if it has not been parsed.
+     * @param key The key or <code>null</code>.
+     * @param droppable A value indicating whether the message may be dropped.
+     * @throws InterruptedException
+     */
+    void offer(final String message, final JsonElement element, final Object key, final boolean droppable) throws InterruptedException {
+        _lock.lock();
+        try {
+            if (key != null) {
+                final Entry entry = _entriesByKey.get(key);
+
+                if (entry != null) {
+                    entry._message = message;
+                    entry._element = element;
+                    _conflationCount.incrementAndGet();
+                    return;
+                }
+            }
+            if (_policy == InboundPolicy.BLOCK) {
+                while (_entries.size() >= _capacity) {
+                    _notFull.await();
+                }
+            } else if (_entries.size() >= _capacity) {
+                dropOldest();
+            }
+            final Entry entry = new Entry(key, message, element, droppable);
+
+            _entries.offerLast(entry);
+            if (key != null) {
+                _entriesByKey.put(key, entry);
+            }
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the oldest droppable message. The buffer temporarily exceeds its
+     * capacity if it only holds messages which must not be dropped.
+     */
+    private void dropOldest() {
+        final Iterator<Entry> entries = _entries.iterator();
+
+        while (entries.hasNext()) {
+            final Entry entry = entries.next();
+
+            if (entry._droppable) {
+                entries.remove();
+                if (entry._key != null) {
+                    _entriesByKey.remove(entry._key);
+                }
+                _dropCount.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest entry from the buffer.
+     * 
+     * @return The entry or <code>null</code> if the buffer is empty.
+     */
+    Entry poll() {
+        _lock.lock();
+        try {
+            final Entry entry = _entries.pollFirst();
+
+            if (entry == null) {
+                return null;
+            }
+            if (entry._key != null) {
+                _entriesByKey.remove(entry._key);
+            }
+            _notFull.signal();
+
+            return entry;
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    /**
+     * Represents a buffered entry.
+     */
+    static final class Entry {
+
+        /**
+         * The key.
+         */
+        private final Object _key;
+
+        /**
+         * A value indicating whether the message may be dropped.
+         */
+        private final boolean _droppable;
+
+        /**
+         * The message.
+         */
+        private String _message;
+
+        /**
+         * The parsed message or <code>null</code> if it has not been parsed.
+         */
+        private JsonElement _element;
+
+        /**
+         * Initializes a new instance of the {@link Entry} class.
+         * 
+         * @param key The key.
+         * @param message The message.
+         * @param element The parsed message or <code>null</code>.
+         * @param droppable A value indicating whether the message may be dropped.
+         */
+        public Entry(final Object key, final String message, final JsonElement element, final boolean droppable) {
+            _key = key;
+            _message = message;
+            _element = element;
+            _droppable = droppable;
+        }
+
+        /**
+         * Returns the message.
+         * 
+         * @return The message.
+         */
+        public String getMessage() {
+            return _message;
+        }
+
+        /**
+         * Returns the parsed message.
+         * 
+         * @return The parsed message or <code>null</code> if it has not been parsed.
+         */
+        public JsonElement getElement() {
+            return _element;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client;
+
+import net.signalr.client.json.JsonElement;
+
+/**
+ * Defines an inbound key which identifies messages that supersede each other.
+ */
+public interface InboundKey {
+
+    /**
+     * Returns the key of the specified message.
+     * 
+     * @param message The message.
+     * @return The key or <code>null</code> if the message must not be conflated.
+     */
+    Object getKey(JsonElement message);
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client;
+
+/**
+ * Defines the overflow policies of an inbound buffer.
+ */
+public enum InboundPolicy {
+
+    /**
+     * Blocks the receiving thread until the buffer has room, which applies
+     * backpressure to the underlying transport.
+     */
+    BLOCK,
+
+    /**
+     * Drops the oldest buffered message to make room for the new message.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Replaces a buffered message having the same key with the new message
+     * and drops the oldest buffered message when the buffer is full.
+     */
+    CONFLATE
+}
@@ -0,0 +1,438 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import net.signalr.client.util.concurrent.Job;
+import net.signalr.client.util.concurrent.Schedulable;
+import net.signalr.client.util.concurrent.promise.Completable;
+import net.signalr.client.util.concurrent.promise.Deferred;
+import net.signalr.client.util.concurrent.promise.Promise;
+import net.signalr.client.util.concurrent.promise.Promises;
+
+/**
+ * Represents a scheduler which keeps a queue per send priority in front of
+ * the channel and interleaves the queues by smooth weighted round robin. Only
+ * one message is handed to the channel at a time, hence a message never waits
+ * behind more than one message of a lower priority. The rate limiter of the
+ * connection applies to the selected message, which holds back the queues
+ * while it is delayed. A scheduler serves the one connection it has first
+ * been used with.
+ */
+public final class OutboundScheduler {
+
+    /**
+     * The nanoseconds per millisecond.
+     */
+    private static final long MILLI_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * The lanes by priority ordinal.
+     */
+    private final Lane[] _lanes;
+
+    /**
+     * A value indicating whether a message is being sent.
+     */
+    private final AtomicBoolean _sending;
+
+    /**
+     * The connection context the scheduler is bound to or <code>null</code>.
+     */
+    private final AtomicReference<ConnectionContext> _context;
+
+    /**
+     * Initializes a new instance of the {@link OutboundScheduler} class.
+     * 
+     * @param highWeight The weight of high priority messages.
+     * @param normalWeight The weight of normal priority messages.
+     * @param bulkWeight The weight of bulk messages.
+     */
+    public OutboundScheduler(final int highWeight, final int normalWeight, final int bulkWeight) {
+        this(newWeights(highWeight, normalWeight, bulkWeight));
+    }
+
+    /**
+     * Initializes a new instance of the {@link OutboundScheduler} class.
+     * 
+     * @param weights The weights by priority, which must contain every priority.
+     */
+    public OutboundScheduler(final Map<SendPriority, Integer> weights) {
+        if (weights == null) {
+            throw new IllegalArgumentException("Weights must not be null");
+        }
+
+        final SendPriority[] priorities = SendPriority.values();
+
+        _lanes = new Lane[priorities.length];
+        for (final SendPriority priority : priorities) {
+            final Integer weight = weights.get(priority);
+
+            if (weight == null) {
+                throw new IllegalArgumentException("Weight of " + priority + " must not be null");
+            }
+            if (weight < 1) {
+                throw new IllegalArgumentException("Weights must be greater than zero");
+            }
+            _lanes[priority.ordinal()] = new Lane(weight);
+        }
+        _sending = new AtomicBoolean(false);
+        _context = new AtomicReference<>();
+    }
+
+    /**
+     * Returns the weights by priority.
+     * 
+     * @param highWeight The weight of high priority messages.
+     * @param normalWeight The weight of normal priority messages.
+     * @param bulkWeight The weight of bulk messages.
+     * @return The weights by priority.
+     */
+    private static Map<SendPriority, Integer> newWeights(final int highWeight, final int normalWeight, final int bulkWeight) {
+        final Map<SendPriority, Integer> weights = new EnumMap<>(SendPriority.class);
+
+        weights.put(SendPriority.HIGH, highWeight);
+        weights.put(SendPriority.NORMAL, normalWeight);
+        weights.put(SendPriority.BULK, bulkWeight);
+
+        return weights;
+    }
+
+    /**
+     * Returns the number of queued messages of the specified priority.
+     * 
+     * @param priority The priority.
+     * @return The number of queued messages.
+     */
+    public int getQueuedCount(final SendPriority priority) {
+        if (priority == null) {
+            throw new IllegalArgumentException("Priority must not be null");
+        }
+
+        return _lanes[priority.ordinal()]._queue.size();
+    }
+
+    /**
+     * Binds the scheduler to the specified connection context, since queued
+     * messages are sent over the connection of the context.
+     * 
+     * @param context The connection context.
+     */
+    void bind(final ConnectionContext context) {
+        if (context == null) {
+            throw new IllegalArgumentException("Context must not be null");
+        }
+
+        if (!_context.compareAndSet(null, context) && (_context.get() != context)) {
+            throw new IllegalStateException("Outbound scheduler is already bound to another connection");
+        }
+    }
+
+    /**
+     * Queues the specified message for sending.
+     * 
+     * @param context The connection context.
+     * @param message The message.
+     * @param priority The priority.
+     * @return The send result.
+     */
+    Promise<Void> send(final ConnectionContext context, final String message, final SendPriority priority) {
+        bind(context);
+        final Deferred<Void> deferred = new Deferred<>();
+
+        _lanes[priority.ordinal()]._queue.offer(new Outbound(message, deferred));
+        drain(context);
+
+        return deferred;
+    }
+
+    /**
+     * Returns a value indicating whether all queues are empty.
+     * 
+     * @return A value indicating whether all queues are empty.
+     */
+    private boolean isEmpty() {
+        for (final Lane lane : _lanes) {
+            if (!lane._queue.isEmpty()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes the next message by smooth weighted round robin.
+     * 
+     * @return The next message or <code>null</code>.
+     */
+    private Outbound poll() {
+        Lane selected = null;
+        int totalWeight = 0;
+
+        for (final Lane lane : _lanes) {
+            if (lane._queue.isEmpty()) {
+                continue;
+            }
+            lane._currentWeight += lane._weight;
+            totalWeight += lane._weight;
+            if ((selected == null) || (lane._currentWeight > selected._currentWeight)) {
+                selected = lane;
+            }
+        }
+        if (selected == null) {
+            return null;
+        }
+        selected._currentWeight -= totalWeight;
+
+        return selected._queue.poll();
+    }
+
+    /**
+     * Sends queued messages one at a time.
+     * 
+     * @param context The connection context.
+     */
+    private void drain(final ConnectionContext context) {
+        while (_sending.compareAndSet(false, true)) {
+            final Outbound outbound = poll();
+
+            if (outbound == null) {
+                _sending.set(false);
+                if (isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            final long delay = reserve(context, outbound);
+
+            if (delay < 0) {
+                _sending.set(false);
+                continue;
+            }
+            if (delay > 0) {
+                // Holds the sending slot, hence later messages keep waiting behind the delayed one.
+                if (sendDelayed(context, outbound, delay)) {
+                    return;
+                }
+                _sending.set(false);
+                continue;
+            }
+            if (send(context, outbound)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reserves the permission to send the specified message from the rate
+     * limiter of the connection, which applies after the priority selection.
+     * 
+     * @param context The connection context.
+     * @param outbound The message.
+     * @return The delay in nanoseconds or <code>-1</code> if the message has been rejected.
+     */
+    private static long reserve(final ConnectionContext context, final Outbound outbound) {
+        final RateLimiter rateLimiter = context.getRateLimiter();
+
+        if (rateLimiter == null) {
+            return 0;
+        }
+        final long delay = rateLimiter.reserve(outbound._message);
+
+        if (delay < 0) {
+            outbound._deferred.setFailure(new IllegalStateException("Outbound rate limit exceeded"));
+        }
+
+        return delay;
+    }
+
+    /**
+     * Sends the specified message after the specified delay. The delay is
+     * rounded up to whole milliseconds, since schedulers like the
+     * {@link net.signalr.client.util.concurrent.TimerScheduler} truncate it to
+     * milliseconds and reject a period of zero.
+     * 
+     * @param context The connection context.
+     * @param outbound The message.
+     * @param delay The delay in nanoseconds.
+     * @return A value indicating whether the send has been scheduled.
+     */
+    private boolean sendDelayed(final ConnectionContext context, final Outbound outbound, final long delay) {
+        final long delayMillis = Math.max(1, (delay + MILLI_NANOS - 1) / MILLI_NANOS);
+        final AtomicBoolean fired = new AtomicBoolean(false);
+        final AtomicReference<Job> job = new AtomicReference<>();
+        final Job scheduledJob;
+
+        try {
+            // The scheduler only supports periodic jobs, hence the job cancels itself after the first run.
+            scheduledJob = context.getScheduler().scheduleJob(new Schedulable() {
+                @Override
+                public void onScheduled() {
+                }
+
+                @Override
+                public void onCancelled() {
+                }
+
+                @Override
+                public void run() {
+                    if (!fired.compareAndSet(false, true)) {
+                        return;
+                    }
+                    final Job scheduledJob = job.getAndSet(null);
+
+                    if (scheduledJob != null) {
+                        scheduledJob.cancel();
+                    }
+                    if (!send(context, outbound)) {
+                        drain(context);
+                    }
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (final RuntimeException e) {
+            final RateLimiter rateLimiter = context.getRateLimiter();
+
+            // The message is never sent, hence the reserved permission is returned.
+            if (rateLimiter != null) {
+                rateLimiter.refund(outbound._message);
+            }
+            outbound._deferred.setFailure(e);
+
+            return false;
+        }
+        job.set(scheduledJob);
+        if (fired.get() && job.compareAndSet(scheduledJob, null)) {
+            scheduledJob.cancel();
+        }
+
+        return true;
+    }
+
+    /**
+     * Hands the specified message to the connection state.
+     * 
+     * @param context The connection context.
+     * @param outbound The message.
+     * @return A value indicating whether the completion of the send continues draining.
+     */
+    private boolean send(final ConnectionContext context, final Outbound outbound) {
+        Promise<Void> send;
+
+        try {
+            send = context.getConnectionState().send(context, outbound._message);
+        } catch (final Throwable t) {
+            send = Promises.newFailure(t);
+        }
+        send.then(new Completable<Void>() {
+            @Override
+            public void setSuccess(final Void value) {
+                outbound._deferred.setSuccess(value);
+                complete();
+            }
+
+            @Override
+            public void setFailure(final Throwable cause) {
+                outbound._deferred.setFailure(cause);
+                complete();
+            }
+
+            private void complete() {
+                _sending.set(false);
+                // Continue draining unless the send completed synchronously within the loop.
+                if (!outbound._handedOff.compareAndSet(false, true)) {
+                    drain(context);
+                }
+            }
+        });
+
+        return outbound._handedOff.compareAndSet(false, true);
+    }
+
+    /**
+     * Represents the queue of a priority.
+     */
+    private static final class Lane {
+
+        /**
+         * The weight.
+         */
+        private final int _weight;
+
+        /**
+         * The queued messages.
+         */
+        private final Queue<Outbound> _queue;
+
+        /**
+         * The current weight, only accessed by the sending thread.
+         */
+        private int _currentWeight;
+
+        /**
+         * Initializes a new instance of the {@link Lane} class.
+         * 
+         * @param weight The weight.
+         */
+        public Lane(final int weight) {
+            _weight = weight;
+
+            _queue = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Represents a queued message.
+     */
+    private static final class Outbound {
+
+        /**
+         * The message.
+         */
+        private final String _message;
+
+        /**
+         * The deferred send result.
+         */
+        private final Deferred<Void> _deferred;
+
+        /**
+         * A value indicating whether the completion or the draining loop continues draining.
+         */
+        private final AtomicBoolean _handedOff;
+
+        /**
+         * Initializes a new instance of the {@link Outbound} class.
+         * 
+         * @param message The message.
+         * @param deferred The deferred send result.
+         */
+        public Outbound(final String message, final Deferred<Void> deferred) {
+            _message = message;
+            _deferred = deferred;
+
+            _handedOff = new AtomicBoolean(false);
+        }
+    }
+}
@@ -41,6 +41,12 @@ public final class PersistentConnection implements Connection {
      */
     private final ConnectionContext _context;
 
+    /**
+     * The scheduler which queues rate limited messages in send order if no
+     * outbound scheduler has been set.
+     */
+    private final OutboundScheduler _sendOrderScheduler;
+
     /**
      * Initializes a new instance of the {@link PersistentConnection} class.
      * 
@@ -88,6 +94,7 @@ public final class PersistentConnection implements Connection {
         }
 
         _context = context;
+        _sendOrderScheduler = new OutboundScheduler(1, 1, 1);
     }
 
     @Override
@@ -137,6 +144,21 @@ public final class PersistentConnection implements Connection {
         _context.removeConnectionListener(listener);
     }
 
+    @Override
+    public void setInboundBuffer(final InboundBuffer inboundBuffer) {
+        _context.setInboundBuffer(inboundBuffer);
+    }
+
+    @Override
+    public void setOutboundScheduler(final OutboundScheduler outboundScheduler) {
+        _context.setOutboundScheduler(outboundScheduler);
+    }
+
+    @Override
+    public void setRateLimiter(final RateLimiter rateLimiter) {
+        _context.setRateLimiter(rateLimiter);
+    }
+
     @Override
     public void setConnectionData(final String connectionData) {
         _context.getConnectionState().setConnectionData(_context, connectionData);
@@ -154,6 +176,25 @@ public final class PersistentConnection implements Connection {
 
     @Override
     public Promise<Void> send(final String message) {
+        return send(message, SendPriority.NORMAL);
+    }
+
+    @Override
+    public Promise<Void> send(final String message, final SendPriority priority) {
+        if (priority == null) {
+            throw new IllegalArgumentException("Priority must not be null");
+        }
+
+        final OutboundScheduler outboundScheduler = _context.getOutboundScheduler();
+
+        if (outboundScheduler != null) {
+            return outboundScheduler.send(_context, message, priority);
+        }
+        if (_context.getRateLimiter() != null) {
+            // Rate limited messages are queued in send order and released by the rate limiter.
+            return _sendOrderScheduler.send(_context, message, SendPriority.NORMAL);
+        }
+
         return _context.getConnectionState().send(_context, message);
     }
 }
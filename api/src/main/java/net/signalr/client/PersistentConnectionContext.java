@@ -24,11 +24,13 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.signalr.client.json.JsonElement;
 import net.signalr.client.json.JsonMapper;
 import net.signalr.client.transport.TransportManager;
 import net.signalr.client.transport.TransportOptions;
@@ -94,6 +96,31 @@ final class PersistentConnectionContext implements ConnectionContext {
      */
     private final Set<ConnectionListener> _listeners;
 
+    /**
+     * The inbound buffer or <code>null</code> if received messages are dispatched on the receiving thread.
+     */
+    private volatile InboundBuffer _inboundBuffer;
+
+    /**
+     * A value indicating whether the inbound buffer is being drained.
+     */
+    private final AtomicBoolean _draining;
+
+    /**
+     * The task which drains the inbound buffer.
+     */
+    private final Runnable _drainer;
+
+    /**
+     * The outbound scheduler or <code>null</code> if messages are sent in send order.
+     */
+    private volatile OutboundScheduler _outboundScheduler;
+
+    /**
+     * The rate limiter or <code>null</code> if messages are sent without limit.
+     */
+    private volatile RateLimiter _rateLimiter;
+
     /**
      * The connection data.
      */
@@ -142,6 +169,13 @@ final class PersistentConnectionContext implements ConnectionContext {
         _headers = new HashMap<>();
         _parameters = new HashMap<>();
         _listeners = new CopyOnWriteArraySet<>();
+        _draining = new AtomicBoolean(false);
+        _drainer = new Runnable() {
+            @Override
+            public void run() {
+                drainInboundBuffer();
+            }
+        };
 
         _connectionData = null;
         _transportOptions = null;
@@ -208,6 +242,34 @@ final class PersistentConnectionContext implements ConnectionContext {
         _listeners.add(listener);
     }
 
+    @Override
+    public void setInboundBuffer(final InboundBuffer inboundBuffer) {
+        _inboundBuffer = inboundBuffer;
+    }
+
+    @Override
+    public OutboundScheduler getOutboundScheduler() {
+        return _outboundScheduler;
+    }
+
+    @Override
+    public void setOutboundScheduler(final OutboundScheduler outboundScheduler) {
+        if (outboundScheduler != null) {
+            outboundScheduler.bind(this);
+        }
+        _outboundScheduler = outboundScheduler;
+    }
+
+    @Override
+    public RateLimiter getRateLimiter() {
+        return _rateLimiter;
+    }
+
+    @Override
+    public void setRateLimiter(final RateLimiter rateLimiter) {
+        _rateLimiter = rateLimiter;
+    }
+
     @Override
     public void setConnectionData(final String connectionData) {
         _connectionData = connectionData;
@@ -288,10 +350,83 @@ final class PersistentConnectionContext implements ConnectionContext {
         }
     }
 
+    /**
+     * Dispatches the specified received message to the connection listeners.
+     * 
+     * @param message The message.
+     * @param element The parsed message or <code>null</code> if it has not been parsed.
+     */
+    private void dispatchReceived(final String message, final JsonElement element) {
+        for (final ConnectionListener listener : _listeners) {
+            if (element == null) {
+                listener.onReceived(message);
+            } else {
+                listener.onReceived(message, element);
+            }
+        }
+    }
+
+    /**
+     * Dispatches the messages of the inbound buffer until it is empty.
+     */
+    private void drainInboundBuffer() {
+        final InboundBuffer inboundBuffer = _inboundBuffer;
+
+        if (inboundBuffer == null) {
+            _draining.set(false);
+            return;
+        }
+        do {
+            InboundBuffer.Entry entry;
+
+            while ((entry = inboundBuffer.poll()) != null) {
+                try {
+                    dispatchReceived(entry.getMessage(), entry.getElement());
+                } catch (final Throwable t) {
+                    LOGGER.warn("Failed to dispatch received message", t);
+                }
+            }
+            _draining.set(false);
+            // Continue when a message was buffered after the buffer has been drained.
+        } while ((inboundBuffer.getDepth() > 0) && _draining.compareAndSet(false, true));
+    }
+
     @Override
     public void onReceived(final String message) {
-        for (final ConnectionListener listener : _listeners) {
-            listener.onReceived(message);
+        final InboundBuffer inboundBuffer = _inboundBuffer;
+
+        if (inboundBuffer == null) {
+            dispatchReceived(message, null);
+            return;
+        }
+        JsonElement element = null;
+        Object key = null;
+        boolean droppable = false;
+
+        if (inboundBuffer.getPolicy() != InboundPolicy.BLOCK) {
+            // The listeners reuse the parsed message.
+            element = _mapper.toElement(message);
+            // Responses must reach their callbacks, so only message frames may be dropped.
+            droppable = InboundBuffer.isDroppable(element);
+            if (droppable && inboundBuffer.isKeyed()) {
+                key = inboundBuffer.getKey(element);
+            }
+        }
+        try {
+            inboundBuffer.offer(message, element, key, droppable);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while buffering received message");
+            return;
+        }
+        if (_draining.compareAndSet(false, true)) {
+            try {
+                _executor.execute(_drainer);
+            } catch (final RuntimeException e) {
+                // Allows the next received message to schedule the drainer again.
+                _draining.set(false);
+                throw e;
+            }
         }
     }
 
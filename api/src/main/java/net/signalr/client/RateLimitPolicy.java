@@ -0,0 +1,34 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client;
+
+/**
+ * Defines the policies which apply when the outbound rate limit is exceeded.
+ */
+public enum RateLimitPolicy {
+
+    /**
+     * Delays the send until the rate permits it, which holds back the
+     * messages queued behind it.
+     */
+    DELAY,
+
+    /**
+     * Fails the send immediately.
+     */
+    FAIL
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.signalr.client.util.Utf8;
+
+/**
+ * Represents an outbound rate limiter which limits the messages and bytes per
+ * second by two token buckets. Each bucket permits a burst of one second and
+ * refills without locks by advancing its theoretical arrival time atomically.
+ * The rates can be adjusted at runtime, e.g. from server hints. The limit
+ * applies to the messages in the order the outbound scheduler of the
+ * connection selects them, hence delayed messages keep their order.
+ */
+public final class RateLimiter {
+
+    /**
+     * The burst tolerance in nanoseconds.
+     */
+    private static final long BURST_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The message bucket.
+     */
+    private final Bucket _messages;
+
+    /**
+     * The byte bucket.
+     */
+    private final Bucket _bytes;
+
+    /**
+     * The policy.
+     */
+    private final RateLimitPolicy _policy;
+
+    /**
+     * The number of delayed sends.
+     */
+    private final AtomicLong _delayedCount;
+
+    /**
+     * The number of rejected sends.
+     */
+    private final AtomicLong _rejectedCount;
+
+    /**
+     * Initializes a new instance of the {@link RateLimiter} class.
+     * 
+     * @param messagesPerSecond The messages per second or <code>0</code> for no limit.
+     * @param bytesPerSecond The bytes per second or <code>0</code> for no limit.
+     * @param policy The policy.
+     */
+    public RateLimiter(final double messagesPerSecond, final long bytesPerSecond, final RateLimitPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Policy must not be null");
+        }
+
+        _messages = new Bucket();
+        _bytes = new Bucket();
+        _policy = policy;
+
+        _delayedCount = new AtomicLong(0);
+        _rejectedCount = new AtomicLong(0);
+
+        setRates(messagesPerSecond, bytesPerSecond);
+    }
+
+    /**
+     * Adjusts the rates.
+     * 
+     * @param messagesPerSecond The messages per second or <code>0</code> for no limit.
+     * @param bytesPerSecond The bytes per second or <code>0</code> for no limit.
+     */
+    public void setRates(final double messagesPerSecond, final long bytesPerSecond) {
+        if (messagesPerSecond < 0) {
+            throw new IllegalArgumentException("Messages per second must not be negative");
+        }
+        if (bytesPerSecond < 0) {
+            throw new IllegalArgumentException("Bytes per second must not be negative");
+        }
+
+        _messages.setRate(messagesPerSecond);
+        _bytes.setRate(bytesPerSecond);
+    }
+
+    /**
+     * Returns the messages per second.
+     * 
+     * @return The messages per second or <code>0</code> for no limit.
+     */
+    public double getMessagesPerSecond() {
+        return _messages.getRate();
+    }
+
+    /**
+     * Returns the bytes per second.
+     * 
+     * @return The bytes per second or <code>0</code> for no limit.
+     */
+    public long getBytesPerSecond() {
+        return (long) _bytes.getRate();
+    }
+
+    /**
+     * Returns the policy.
+     * 
+     * @return The policy.
+     */
+    public RateLimitPolicy getPolicy() {
+        return _policy;
+    }
+
+    /**
+     * Returns the number of delayed sends.
+     * 
+     * @return The number of delayed sends.
+     */
+    public long getDelayedCount() {
+        return _delayedCount.get();
+    }
+
+    /**
+     * Returns the number of rejected sends.
+     * 
+     * @return The number of rejected sends.
+     */
+    public long getRejectedCount() {
+        return _rejectedCount.get();
+    }
+
+    /**
+     * Reserves the permission to send the specified message.
+     * 
+     * @param message The message.
+     * @return The delay in nanoseconds after which the message may be sent or
+     *         <code>-1</code> if the send is rejected.
+     */
+    long reserve(final String message) {
+        final long delay = reserve(Utf8.length(message), System.nanoTime());
+
+        if (delay < 0) {
+            _rejectedCount.incrementAndGet();
+        } else if (delay > 0) {
+            _delayedCount.incrementAndGet();
+        }
+
+        return delay;
+    }
+
+    /**
+     * Returns the permission reserved for the specified delayed message which
+     * is never sent.
+     * 
+     * @param message The message.
+     */
+    void refund(final String message) {
+        _messages.refund(1);
+        _bytes.refund(Utf8.length(message));
+        _delayedCount.decrementAndGet();
+    }
+
+    /**
+     * Reserves one message and the specified number of bytes.
+     * 
+     * @param size The number of bytes.
+     * @param now The current time in nanoseconds.
+     * @return The delay in nanoseconds or <code>-1</code> if the send is rejected.
+     */
+    long reserve(final long size, final long now) {
+        final boolean failFast = (_policy == RateLimitPolicy.FAIL);
+        final long messageDelay = _messages.reserve(1, now, failFast);
+
+        if (messageDelay < 0) {
+            return -1;
+        }
+
+        final long byteDelay = _bytes.reserve(size, now, failFast);
+
+        if (byteDelay < 0) {
+            _messages.refund(1);
+
+            return -1;
+        }
+
+        return Math.max(messageDelay, byteDelay);
+    }
+
+    /**
+     * Represents a token bucket based on the theoretical arrival time of the next unit.
+     */
+    private static final class Bucket {
+
+        /**
+         * The theoretical arrival time in nanoseconds.
+         */
+        private final AtomicLong _arrivalTime;
+
+        /**
+         * The rate in units per second.
+         */
+        private volatile double _rate;
+
+        /**
+         * The emission interval in nanoseconds per unit or <code>0</code> for no limit.
+         */
+        private volatile double _interval;
+
+        /**
+         * Initializes a new instance of the {@link Bucket} class.
+         */
+        public Bucket() {
+            _arrivalTime = new AtomicLong(System.nanoTime());
+        }
+
+        /**
+         * Returns the rate.
+         * 
+         * @return The rate in units per second.
+         */
+        public double getRate() {
+            return _rate;
+        }
+
+        /**
+         * Sets the rate.
+         * 
+         * @param rate The rate in units per second or <code>0</code> for no limit.
+         */
+        public void setRate(final double rate) {
+            _rate = rate;
+            _interval = (rate > 0) ? (BURST_NANOS / rate) : 0;
+        }
+
+        /**
+         * Reserves the specified number of units.
+         * 
+         * @param units The number of units.
+         * @param now The current time in nanoseconds.
+         * @param failFast A value indicating whether the reservation fails instead of incurring a delay.
+         * @return The delay in nanoseconds or <code>-1</code> if the reservation failed.
+         */
+        public long reserve(final long units, final long now, final boolean failFast) {
+            final double interval = _interval;
+
+            if (interval == 0) {
+                return 0;
+            }
+
+            final long cost = (long) (units * interval);
+
+            while (true) {
+                final long arrivalTime = _arrivalTime.get();
+                final long base = (arrivalTime - now > 0) ? arrivalTime : now;
+                final long newArrivalTime = base + cost;
+                final long delay = newArrivalTime - now - BURST_NANOS;
+
+                // An idle bucket admits a single reservation which exceeds the burst.
+                if (failFast && (delay > 0) && (arrivalTime - now > 0)) {
+                    return -1;
+                }
+                if (_arrivalTime.compareAndSet(arrivalTime, newArrivalTime)) {
+                    return (failFast || (delay < 0)) ? 0 : delay;
+                }
+            }
+        }
+
+        /**
+         * Returns the specified number of units to the bucket.
+         * 
+         * @param units The number of units.
+         */
+        public void refund(final long units) {
+            _arrivalTime.addAndGet(-(long) (units * _interval));
+        }
+    }
+}
@@ -16,8 +16,12 @@
 
 package net.signalr.client.hub;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
@@ -25,10 +29,14 @@ import org.slf4j.LoggerFactory;
 
 import net.signalr.client.Connection;
 import net.signalr.client.ConnectionAdapter;
+import net.signalr.client.SendPriority;
 import net.signalr.client.json.JsonElement;
 import net.signalr.client.json.JsonMapper;
+import net.signalr.client.util.Utf8;
+import net.signalr.client.util.concurrent.StripedExecutor;
 import net.signalr.client.util.concurrent.promise.Compose;
 import net.signalr.client.util.concurrent.promise.Deferred;
+import net.signalr.client.util.concurrent.promise.OnComplete;
 import net.signalr.client.util.concurrent.promise.Promise;
 
 /**
@@ -41,6 +49,16 @@ final class DefaultHubDispatcher extends ConnectionAdapter implements HubDispatc
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultHubDispatcher.class);
 
+    /**
+     * The callback ID of hub requests whose responses are ignored.
+     */
+    private static final String IGNORED_CALLBACK_ID = "0";
+
+    /**
+     * The failure message of invocations whose connection has been lost.
+     */
+    private static final String CONNECTION_LOST = "Connection lost before the invocation completed";
+
     /**
      * The connection.
      */
@@ -51,16 +69,51 @@ final class DefaultHubDispatcher extends ConnectionAdapter implements HubDispatc
      */
     private final AtomicLong _nextCallbackId;
 
+    /**
+     * The lock which serializes the creation of hub proxies.
+     */
+    private final Object _lock;
+
     /**
      * The proxies.
      */
-    private final Map<String, DefaultHubProxy> _proxies;
+    private volatile HubNameTable<DefaultHubProxy> _proxies;
+
+    /**
+     * The serialized connection data or <code>null</code> if the proxies changed since it was serialized.
+     */
+    private String _connectionData;
+
+    /**
+     * A value indicating whether the connection data was applied to the connection.
+     */
+    private boolean _connectionDataApplied;
 
     /**
      * The deferred responses.
      */
     private final Map<String, Deferred<HubResponse>> _responses;
 
+    /**
+     * The progress callbacks by callback ID.
+     */
+    private final Map<String, HubCallback<JsonElement>> _progressCallbacks;
+
+    /**
+     * The dispatch lanes or <code>null</code> if hub messages are dispatched on the receiving thread.
+     */
+    private volatile StripedExecutor _lanes;
+
+    /**
+     * The hub lane key.
+     */
+    private volatile HubLaneKey _laneKey;
+
+    /**
+     * The invocation window or <code>null</code> if invocations are not limited.
+     */
+    private volatile HubInvocationWindow _invocationWindow;
+
     /**
      * Initializes a new instance of the {@link DefaultHubDispatcher} class.
      * 
@@ -74,24 +127,47 @@ final class DefaultHubDispatcher extends ConnectionAdapter implements HubDispatc
         _connection = connection;
 
         _nextCallbackId = new AtomicLong(0);
-        _proxies = new ConcurrentHashMap<>();
+        _lock = new Object();
+        _proxies = HubNameTable.empty();
+        _connectionData = null;
+        _connectionDataApplied = false;
         _responses = new ConcurrentHashMap<>();
+        _progressCallbacks = new ConcurrentHashMap<>();
     }
 
     /**
-     * Updates the connection data.
+     * Serializes the connection data of the specified proxies.
      * 
-     * @param newHubName The new hub name.
+     * @param proxies The proxies.
+     * @return The connection data.
      */
-    private void updateConnectionData(final String newHubName) {
+    private String toConnectionData(final HubNameTable<DefaultHubProxy> proxies) {
         final HubNames hubNames = new HubNames();
 
-        hubNames.addAll(_proxies.keySet());
-        hubNames.add(newHubName);
+        hubNames.addAll(proxies.names());
         final JsonMapper mapper = _connection.getMapper();
-        final String connectionData = mapper.toJson(hubNames);
 
-        _connection.setConnectionData(connectionData);
+        return mapper.toJson(hubNames);
+    }
+
+    /**
+     * Replaces the proxies. Must be called while holding the lock.
+     * 
+     * @param proxies The new proxies.
+     */
+    private void setProxies(final HubNameTable<DefaultHubProxy> proxies) {
+        if (_connectionDataApplied) {
+            final String connectionData = toConnectionData(proxies);
+
+            // Update the connection data before replacing the hub proxies
+            // since it could fail when the underlying connection is not disconnected.
+            _connection.setConnectionData(connectionData);
+            _connectionData = connectionData;
+        } else {
+            // Defer the serialization until the connection starts.
+            _connectionData = null;
+        }
+        _proxies = proxies;
     }
 
     /**
@@ -112,8 +188,12 @@ final class DefaultHubDispatcher extends ConnectionAdapter implements HubDispatc
      * @param response The hub response.
      */
     private void handleResponse(final String callbackId, final HubResponse response) {
+        if (IGNORED_CALLBACK_ID.equals(callbackId)) {
+            return;
+        }
         final Deferred<HubResponse> deferred = _responses.remove(callbackId);
 
+        _progressCallbacks.remove(callbackId);
         if (deferred == null) {
             LOGGER.warn("Received response for unknown callback ID {}", callbackId);
             return;
@@ -121,21 +201,77 @@ final class DefaultHubDispatcher extends ConnectionAdapter implements HubDispatc
         deferred.setSuccess(response);
     }
 
+    /**
+     * Fails all pending invocations, which also releases their room within the
+     * invocation window.
+     */
+    private void failInvocations() {
+        final List<Deferred<HubResponse>> deferreds = new ArrayList<>();
+
+        // Removes all invocations first, since every failure lets the window send queued invocations.
+        for (final String callbackId : _responses.keySet()) {
+            final Deferred<HubResponse> deferred = _responses.remove(callbackId);
+
+            _progressCallbacks.remove(callbackId);
+            if (deferred != null) {
+                deferreds.add(deferred);
+            }
+        }
+        for (final Deferred<HubResponse> deferred : deferreds) {
+            deferred.setFailure(new IllegalStateException(CONNECTION_LOST));
+        }
+    }
+
+    /**
+     * Handles a progress notification.
+     * 
+     * @param callbackId The callback ID.
+     * @param response The hub response.
+     */
+    private void handleProgress(final String callbackId, final HubResponse response) {
+        final HubCallback<JsonElement> progressCallback = _progressCallbacks.get(callbackId);
+
+        if (progressCallback == null) {
+            LOGGER.warn("Received progress for unknown callback ID {}", callbackId);
+            return;
+        }
+        try {
+            progressCallback.onInvoke(response.getProgressData());
+        } catch (final Throwable t) {
+            LOGGER.warn("Progress callback failed", t);
+        }
+    }
+
     /**
      * Handles hub messages.
      * 
      * @param messages The hub messages.
      */
     private void handleMessages(final HubMessage[] messages) {
+        final StripedExecutor lanes = _lanes;
+        final HubLaneKey laneKey = _laneKey;
+
         for (final HubMessage message : messages) {
             final String hubName = message.getHubName();
-            final String lowerCaseHubName = hubName.toLowerCase();
-            final DefaultHubProxy proxy = _proxies.get(lowerCaseHubName);
+            final DefaultHubProxy proxy = _proxies.get(hubName);
 
             if (proxy == null) {
                 continue;
             }
-            proxy.onInvoke(message);
+            if (lanes == null) {
+                proxy.onInvoke(message);
+                continue;
+            }
+            final String methodName = message.getMethodName();
+            final JsonElement arguments = message.getArguments();
+            final int hash = laneKey.hash(hubName, methodName, arguments);
+
+            lanes.execute(hash, new Runnable() {
+                @Override
+                public void run() {
+                    proxy.onInvoke(message);
+                }
+            });
         }
     }
 
@@ -143,7 +279,20 @@ final class DefaultHubDispatcher extends ConnectionAdapter implements HubDispatc
     public void onReceived(final String message) {
         final JsonMapper mapper = _connection.getMapper();
         final JsonElement element = mapper.toElement(message);
+
+        onReceived(message, element);
+    }
+
+    @Override
+    public void onReceived(final String message, final JsonElement element) {
         final HubResponse response = new HubResponse(element);
+        // Progress notifications carry the message ID "P|<callback ID>" in "I", hence they are handled first.
+        final String progressCallbackId = response.getProgressCallbackId();
+
+        if (progressCallbackId != null) {
+            handleProgress(progressCallbackId, response);
+            return;
+        }
         final String callbackId = response.getCallbackId();
 
         if (callbackId != null) {
@@ -155,28 +304,160 @@ final class DefaultHubDispatcher extends ConnectionAdapter implements HubDispatc
         }
     }
 
+    @Override
+    public void onReconnecting() {
+        // Responses of the lost connection never arrive.
+        failInvocations();
+    }
+
+    @Override
+    public void onDisconnected() {
+        failInvocations();
+    }
+
+    @Override
+    public JsonMapper getMapper() {
+        return _connection.getMapper();
+    }
+
     @Override
     public HubProxy newHubProxy(final String hubName) {
         if (hubName == null) {
             throw new IllegalArgumentException("Hub name must not be null");
         }
 
-        final String lowerCaseHubName = hubName.toLowerCase();
-        DefaultHubProxy proxy = _proxies.get(lowerCaseHubName);
+        DefaultHubProxy proxy = _proxies.get(hubName);
 
-        if (proxy == null) {
-            // Update the connection data before adding the new hub proxy
-            // since it could fail when the underlying connection is not disconnected.
-            updateConnectionData(hubName);
-            proxy = new DefaultHubProxy(hubName, this);
-            _proxies.put(lowerCaseHubName, proxy);
+        if (proxy != null) {
+            return proxy;
+        }
+        synchronized (_lock) {
+            proxy = _proxies.get(hubName);
+            if (proxy == null) {
+                proxy = new DefaultHubProxy(hubName, this);
+                setProxies(_proxies.with(hubName, proxy));
+            }
         }
 
         return proxy;
     }
 
+    @Override
+    public HubProxy[] newHubProxies(final String... hubNames) {
+        if (hubNames == null) {
+            throw new IllegalArgumentException("Hub names must not be null");
+        }
+        for (final String hubName : hubNames) {
+            if (hubName == null) {
+                throw new IllegalArgumentException("Hub name must not be null");
+            }
+        }
+
+        final HubProxy[] proxies = new HubProxy[hubNames.length];
+
+        synchronized (_lock) {
+            final HubNameTable<DefaultHubProxy> oldProxies = _proxies;
+            final String[] newHubNames = new String[hubNames.length];
+            final DefaultHubProxy[] newProxies = new DefaultHubProxy[hubNames.length];
+            int count = 0;
+
+            for (final String hubName : hubNames) {
+                if (oldProxies.get(hubName) == null) {
+                    newHubNames[count] = hubName;
+                    newProxies[count] = new DefaultHubProxy(hubName, this);
+                    count++;
+                }
+            }
+            HubNameTable<DefaultHubProxy> table = oldProxies;
+
+            if (count > 0) {
+                table = oldProxies.withAll(Arrays.copyOf(newHubNames, count), Arrays.copyOf(newProxies, count));
+                setProxies(table);
+            }
+            // Hub names which differ in case only share one hub proxy.
+            for (int i = 0; i < hubNames.length; i++) {
+                proxies[i] = table.get(hubNames[i]);
+            }
+        }
+
+        return proxies;
+    }
+
+    @Override
+    public void applyConnectionData() {
+        synchronized (_lock) {
+            final HubNameTable<DefaultHubProxy> proxies = _proxies;
+
+            // Proxies created after the connection started update the connection data themselves.
+            _connectionDataApplied = true;
+            if (proxies.size() == 0) {
+                return;
+            }
+            if (_connectionData == null) {
+                _connectionData = toConnectionData(proxies);
+            }
+            _connection.setConnectionData(_connectionData);
+        }
+    }
+
+    @Override
+    public void setDispatchLanes(final Executor executor, final int laneCount, final HubLaneKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+
+        final StripedExecutor lanes = new StripedExecutor(executor, laneCount);
+
+        synchronized (_lock) {
+            _laneKey = key;
+            _lanes = lanes;
+        }
+    }
+
+    @Override
+    public void setInvocationWindow(final HubInvocationWindow invocationWindow) {
+        _invocationWindow = invocationWindow;
+    }
+
+    /**
+     * Sends the specified message within the specified invocation window.
+     * 
+     * @param invocationWindow The invocation window.
+     * @param size The UTF-8 encoded size of the message.
+     * @param message The message.
+     * @param priority The send priority.
+     * @param callbackId The callback ID of the invocation.
+     * @return The send result.
+     */
+    private Promise<Void> send(final HubInvocationWindow invocationWindow, final long size, final String message, final SendPriority priority, final String callbackId) {
+        final Deferred<Void> deferred = new Deferred<>();
+
+        invocationWindow.execute(size, new Runnable() {
+            @Override
+            public void run() {
+                // Skips invocations which failed while waiting for the window.
+                if (!_responses.containsKey(callbackId)) {
+                    deferred.setFailure(new IllegalStateException(CONNECTION_LOST));
+                    return;
+                }
+                try {
+                    _connection.send(message, priority).then(deferred);
+                } catch (final Throwable t) {
+                    deferred.setFailure(t);
+                }
+            }
+        });
+
+        return deferred;
+    }
+
     @Override
     public Promise<HubResponse> invoke(final HubRequest request) {
+        return invoke(request, null);
+    }
+
+    @Override
+    public Promise<HubResponse> invoke(final HubRequest request, final HubCallback<JsonElement> progressCallback) {
         if (request == null) {
             throw new IllegalArgumentException("Request must not be null");
         }
@@ -185,12 +466,18 @@ final class DefaultHubDispatcher extends ConnectionAdapter implements HubDispatc
 
         request.setCallbackId(callbackId);
         final JsonMapper mapper = _connection.getMapper();
-        final String message = mapper.toJson(request);
+        final String message = request.toJson(mapper);
         final Deferred<HubResponse> deferred = new Deferred<>();
 
+        if (progressCallback != null) {
+            _progressCallbacks.put(callbackId, progressCallback);
+        }
         _responses.put(callbackId, deferred);
-
-        return _connection.send(message).then(new Compose<Void, HubResponse>() {
+        final HubInvocationWindow invocationWindow = _invocationWindow;
+        final long size = (invocationWindow == null) ? 0 : Utf8.length(message);
+        final SendPriority priority = request.getPriority();
+        final Promise<Void> send = (invocationWindow == null) ? _connection.send(message, priority) : send(invocationWindow, size, message, priority, callbackId);
+        final Promise<HubResponse> response = send.then(new Compose<Void, HubResponse>() {
             @Override
             protected Promise<HubResponse> doCompose(final Void value) throws Exception {
                 return deferred;
@@ -199,7 +486,33 @@ final class DefaultHubDispatcher extends ConnectionAdapter implements HubDispatc
             @Override
             protected void onFailure(final Throwable cause) throws Exception {
                 _responses.remove(callbackId);
+                _progressCallbacks.remove(callbackId);
             }
         });
+
+        if (invocationWindow == null) {
+            return response;
+        }
+
+        return response.then(new OnComplete<HubResponse>() {
+            @Override
+            protected void onComplete(final HubResponse value, final Throwable cause) throws Exception {
+                invocationWindow.release(size);
+            }
+        });
+    }
+
+    @Override
+    public Promise<Void> send(final HubRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Request must not be null");
+        }
+
+        // Callback IDs start at one, hence the response is never correlated.
+        request.setCallbackId(IGNORED_CALLBACK_ID);
+        final JsonMapper mapper = _connection.getMapper();
+        final String message = request.toJson(mapper);
+
+        return _connection.send(message, request.getPriority());
     }
 }
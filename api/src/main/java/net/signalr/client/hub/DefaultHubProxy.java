@@ -16,15 +16,25 @@
 
 package net.signalr.client.hub;
 
-import java.util.Map;
+import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.signalr.client.SendPriority;
+import net.signalr.client.hub.HubSubscribers.Subscriber;
+import net.signalr.client.json.JsonCodec;
 import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.JsonType;
 import net.signalr.client.util.concurrent.promise.Apply;
+import net.signalr.client.util.concurrent.promise.Completable;
+import net.signalr.client.util.concurrent.promise.Deferred;
 import net.signalr.client.util.concurrent.promise.Promise;
+import net.signalr.client.util.concurrent.promise.Promises;
 
 /**
  * Represents the default hub proxy.
@@ -46,10 +56,56 @@ final class DefaultHubProxy implements HubProxy, HubCallback<HubMessage> {
      */
     private final HubDispatcher _dispatcher;
 
+    /**
+     * The lock which serializes updates of the hub callbacks.
+     */
+    private final Object _lock;
+
     /**
      * The hub callbacks.
      */
-    private final Map<String, HubCallback<HubMessage>> _callbacks;
+    private volatile HubNameTable<HubSubscribers> _callbacks;
+
+    /**
+     * The registered subscribers by method name, which are replaced by
+     * registering and removed by unregistering.
+     */
+    private HubNameTable<Subscriber> _registrations;
+
+    /**
+     * The request templates by method name.
+     */
+    private final ConcurrentMap<String, HubRequestTemplate> _templates;
+
+    /**
+     * The in-flight invocations by method name and serialized arguments.
+     */
+    private final ConcurrentMap<String, Promise<HubResponse>> _invocations;
+
+    /**
+     * A value indicating whether identical concurrent invocations share one request.
+     */
+    private volatile boolean _singleFlight;
+
+    /**
+     * The result caches by method name.
+     */
+    private volatile HubNameTable<HubResultCache> _caches;
+
+    /**
+     * The result caches by the name of the hub event which invalidates them.
+     */
+    private volatile HubNameTable<HubResultCache[]> _invalidations;
+
+    /**
+     * The round tripped state.
+     */
+    private final HubState _state;
+
+    /**
+     * The continuation which merges the state of hub responses.
+     */
+    private final Apply<HubResponse, HubResponse> _mergeState;
 
     /**
      * Initializes a new instance of the {@link DefaultHubProxy} class.
@@ -68,16 +124,150 @@ final class DefaultHubProxy implements HubProxy, HubCallback<HubMessage> {
         _hubName = hubName;
         _dispatcher = dispatcher;
 
-        _callbacks = new ConcurrentHashMap<>();
+        _lock = new Object();
+        _callbacks = HubNameTable.empty();
+        _registrations = HubNameTable.empty();
+        _templates = new ConcurrentHashMap<>();
+        _invocations = new ConcurrentHashMap<>();
+        _singleFlight = false;
+        _caches = HubNameTable.empty();
+        _invalidations = HubNameTable.empty();
+        _state = new HubState();
+        _mergeState = new Apply<HubResponse, HubResponse>() {
+            @Override
+            protected HubResponse doApply(final HubResponse value) throws Exception {
+                _state.merge(value.getState());
+
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Registers the specified subscribers by method name, each replacing the
+     * subscriber registered before but none which has been subscribed.
+     * 
+     * @param subscribers The subscribers by method name.
+     */
+    private void setSubscribers(final HubNameTable<Subscriber> subscribers) {
+        synchronized (_lock) {
+            HubNameTable<HubSubscribers> callbacks = _callbacks;
+            HubNameTable<Subscriber> registrations = _registrations;
+
+            for (final String methodName : subscribers.names()) {
+                final Subscriber subscriber = subscribers.get(methodName);
+                final Subscriber registration = registrations.get(methodName);
+                HubSubscribers newSubscribers = callbacks.get(methodName);
+
+                if ((newSubscribers != null) && (registration != null)) {
+                    newSubscribers = newSubscribers.without(registration);
+                }
+                newSubscribers = (newSubscribers == null) ? HubSubscribers.of(subscriber) : newSubscribers.with(subscriber);
+                callbacks = callbacks.with(methodName, newSubscribers);
+                registrations = registrations.with(methodName, subscriber);
+            }
+            _callbacks = callbacks;
+            _registrations = registrations;
+        }
+    }
+
+    /**
+     * Registers the specified subscriber for the specified method name.
+     * 
+     * @param methodName The method name.
+     * @param subscriber The subscriber.
+     */
+    private void setSubscriber(final String methodName, final Subscriber subscriber) {
+        setSubscribers(HubNameTable.<Subscriber> empty().with(methodName, subscriber));
+    }
+
+    /**
+     * Registers the specified hub callback for the specified method name.
+     * 
+     * @param methodName The method name.
+     * @param callback The hub callback.
+     */
+    private void addCallback(final String methodName, final HubCallback<HubMessage> callback) {
+        setSubscriber(methodName, new Subscriber(null, callback));
+    }
+
+    /**
+     * Removes the registered hub callback for the specified method name.
+     * 
+     * @param methodName The method name.
+     */
+    private void removeCallback(final String methodName) {
+        synchronized (_lock) {
+            final Subscriber registration = _registrations.get(methodName);
+
+            if (registration == null) {
+                return;
+            }
+            _registrations = _registrations.without(methodName);
+            removeSubscriber(methodName, registration);
+        }
+    }
+
+    /**
+     * Adds the specified subscriber to the subscribers of the specified method name.
+     * 
+     * @param methodName The method name.
+     * @param subscriber The subscriber.
+     * @return The hub subscription.
+     */
+    private HubSubscription addSubscriber(final String methodName, final Subscriber subscriber) {
+        synchronized (_lock) {
+            final HubSubscribers subscribers = _callbacks.get(methodName);
+            final HubSubscribers newSubscribers = (subscribers == null) ? HubSubscribers.of(subscriber) : subscribers.with(subscriber);
+
+            _callbacks = _callbacks.with(methodName, newSubscribers);
+        }
+
+        return new HubSubscription() {
+            @Override
+            public void unsubscribe() {
+                removeSubscriber(methodName, subscriber);
+            }
+        };
+    }
+
+    /**
+     * Removes the specified subscriber from the subscribers of the specified method name.
+     * 
+     * @param methodName The method name.
+     * @param subscriber The subscriber.
+     */
+    private void removeSubscriber(final String methodName, final Subscriber subscriber) {
+        synchronized (_lock) {
+            final HubSubscribers subscribers = _callbacks.get(methodName);
+
+            if (subscribers == null) {
+                return;
+            }
+            final HubSubscribers newSubscribers = subscribers.without(subscriber);
+
+            if (newSubscribers == null) {
+                _callbacks = _callbacks.without(methodName);
+            } else if (newSubscribers != subscribers) {
+                _callbacks = _callbacks.with(methodName, newSubscribers);
+            }
+        }
     }
 
     @Override
     public void onInvoke(final HubMessage message) {
         final String methodName = message.getMethodName();
-        final HubCallback<HubMessage> callback = _callbacks.get(methodName);
+        final HubSubscribers subscribers = _callbacks.get(methodName);
+        final HubResultCache[] caches = _invalidations.get(methodName);
 
-        if (callback != null) {
-            callback.onInvoke(message);
+        _state.merge(message.getState());
+        if (caches != null) {
+            for (final HubResultCache cache : caches) {
+                cache.invalidateAll();
+            }
+        }
+        if (subscribers != null) {
+            subscribers.onInvoke(message);
         }
     }
 
@@ -93,30 +283,399 @@ final class DefaultHubProxy implements HubProxy, HubCallback<HubMessage> {
             throw new IllegalArgumentException("Arguments must not e null");
         }
 
+        final JsonMapper mapper = _dispatcher.getMapper();
+        final JsonCodec<R> returnCodec = mapper.getCodec(returnType);
+
+        return invoke(methodName, returnCodec, arguments);
+    }
+
+    @Override
+    public <R> Promise<R> invoke(final String methodName, final JsonType<R> returnType, final Object... arguments) {
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+        if (returnType == null) {
+            throw new IllegalArgumentException("Return type must not be null");
+        }
+        if (arguments == null) {
+            throw new IllegalArgumentException("Arguments must not be null");
+        }
+
+        final JsonMapper mapper = _dispatcher.getMapper();
+        final JsonCodec<R> returnCodec = mapper.getCodec(returnType);
+
+        return invoke(methodName, returnCodec, arguments);
+    }
+
+    @Override
+    public <R> Promise<R> invoke(final String methodName, final SendPriority priority, final Class<R> returnType, final Object... arguments) {
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+        if (priority == null) {
+            throw new IllegalArgumentException("Priority must not be null");
+        }
+        if (returnType == null) {
+            throw new IllegalArgumentException("Return type must not be null");
+        }
+        if (arguments == null) {
+            throw new IllegalArgumentException("Arguments must not be null");
+        }
+
+        final JsonMapper mapper = _dispatcher.getMapper();
+        final JsonCodec<R> returnCodec = mapper.getCodec(returnType);
+        final HubRequest request = newRequest(methodName, arguments);
+
+        request.setPriority(priority);
+
+        return invoke(methodName, request).then(new HubResult<>(returnCodec));
+    }
+
+    @Override
+    public <P, R> Promise<R> invoke(final String methodName, final Class<R> returnType, final Class<P> progressType, final HubCallback<P> progressCallback, final Object... arguments) {
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+        if (returnType == null) {
+            throw new IllegalArgumentException("Return type must not be null");
+        }
+        if (progressType == null) {
+            throw new IllegalArgumentException("Progress type must not be null");
+        }
+        if (progressCallback == null) {
+            throw new IllegalArgumentException("Progress callback must not be null");
+        }
+        if (arguments == null) {
+            throw new IllegalArgumentException("Arguments must not be null");
+        }
+
+        final JsonMapper mapper = _dispatcher.getMapper();
+        final JsonCodec<R> returnCodec = mapper.getCodec(returnType);
+        final JsonCodec<P> progressCodec = mapper.getCodec(progressType);
+        final HubRequest request = newRequest(methodName, arguments);
+
+        // Invocations with progress are neither cached nor shared, since every caller observes its own progress.
+        return _dispatcher.invoke(request, new HubCallback<JsonElement>() {
+            @Override
+            public void onInvoke(final JsonElement data) {
+                final P progress = data.toObject(progressCodec, null);
+
+                progressCallback.onInvoke(progress);
+            }
+        }).then(_mergeState).then(new HubResult<>(returnCodec));
+    }
+
+    /**
+     * Returns the request template for the specified method name.
+     * 
+     * @param methodName The method name.
+     * @return The request template.
+     */
+    private HubRequestTemplate getTemplate(final String methodName) {
+        HubRequestTemplate template = _templates.get(methodName);
+
+        if (template == null) {
+            final JsonMapper mapper = _dispatcher.getMapper();
+
+            template = new HubRequestTemplate(mapper, _hubName, methodName);
+            final HubRequestTemplate existingTemplate = _templates.putIfAbsent(methodName, template);
+
+            if (existingTemplate != null) {
+                template = existingTemplate;
+            }
+        }
+
+        return template;
+    }
+
+    /**
+     * Creates a new hub request.
+     * 
+     * @param methodName The method name.
+     * @param arguments The arguments.
+     * @return The new hub request.
+     */
+    private HubRequest newRequest(final String methodName, final Object[] arguments) {
+        final JsonMapper mapper = _dispatcher.getMapper();
+        final JsonCodec<?>[] argumentCodecs = new JsonCodec<?>[arguments.length];
+
+        for (int i = 0; i < arguments.length; i++) {
+            final Object argument = arguments[i];
+
+            if (argument != null) {
+                argumentCodecs[i] = mapper.getCodec(argument.getClass());
+            }
+        }
         final HubRequest request = new HubRequest();
 
-        request.setHubName(_hubName);
-        request.setMethodName(methodName);
+        request.setTemplate(getTemplate(methodName));
         request.setArguments(arguments);
+        request.setArgumentCodecs(argumentCodecs);
+        // The state is serialized once per version and shared by all requests.
+        _state.attach(request, mapper);
 
-        return _dispatcher.invoke(request).then(new Apply<HubResponse, R>() {
-            @Override
-            protected R doApply(final HubResponse response) throws Exception {
-                final String errorMessage = response.getErrorMessage();
+        return request;
+    }
 
-                if (errorMessage != null) {
-                    final String errorData = response.getErrorData();
-                    final String stackTrace = response.getStackTrace();
+    /**
+     * Invokes a server side hub method asynchronously.
+     * 
+     * @param methodName The method name.
+     * @param returnCodec The return codec.
+     * @param arguments The arguments.
+     * @return The invocation result.
+     */
+    private <R> Promise<R> invoke(final String methodName, final JsonCodec<R> returnCodec, final Object[] arguments) {
+        final HubRequest request = newRequest(methodName, arguments);
 
-                    throw new HubException(errorMessage, errorData, stackTrace);
+        return invoke(methodName, request).then(new HubResult<>(returnCodec));
+    }
+
+    /**
+     * Invokes the specified hub request, answering it from the result cache of
+     * the method if present.
+     * 
+     * @param methodName The method name.
+     * @param request The hub request.
+     * @return The hub response.
+     */
+    private Promise<HubResponse> invoke(final String methodName, final HubRequest request) {
+        final HubResultCache cache = _caches.get(methodName);
+        final boolean singleFlight = _singleFlight;
+
+        if ((cache == null) && !singleFlight) {
+            return dispatch(request);
+        }
+
+        final JsonMapper mapper = _dispatcher.getMapper();
+        // The result may depend on the state, hence results of different states are not shared.
+        final String key = request.getStateVersion() + ":" + request.toArgumentsJson(mapper);
+
+        if (cache == null) {
+            return invoke(methodName, key, request);
+        }
+
+        final HubResponse cachedResponse = cache.get(key, System.nanoTime());
+
+        if (cachedResponse != null) {
+            return Promises.newSuccess(cachedResponse);
+        }
+        final long generation = cache.getGeneration();
+        final Promise<HubResponse> response = singleFlight ? invoke(methodName, key, request) : dispatch(request);
+
+        return response.then(new Apply<HubResponse, HubResponse>() {
+            @Override
+            protected HubResponse doApply(final HubResponse value) throws Exception {
+                // Hub errors are not cached.
+                if (value.getErrorMessage() == null) {
+                    cache.put(key, value, generation, System.nanoTime());
                 }
-                final JsonElement data = response.getData();
 
-                return data.toObject(returnType, null);
+                return value;
             }
         });
     }
 
+    /**
+     * Invokes the specified hub request, sharing the response of an identical
+     * in-flight request.
+     * 
+     * @param methodName The method name.
+     * @param requestKey The key of the state version and the serialized arguments.
+     * @param request The hub request.
+     * @return The hub response.
+     */
+    private Promise<HubResponse> invoke(final String methodName, final String requestKey, final HubRequest request) {
+        final String key = methodName + ':' + requestKey;
+        final Deferred<HubResponse> deferred = new Deferred<>();
+        final Promise<HubResponse> invocation = _invocations.putIfAbsent(key, deferred);
+
+        if (invocation != null) {
+            return invocation;
+        }
+        final Promise<HubResponse> response;
+
+        try {
+            response = dispatch(request);
+        } catch (final RuntimeException e) {
+            _invocations.remove(key, deferred);
+            throw e;
+        }
+        response.then(new Completable<HubResponse>() {
+            @Override
+            public void setSuccess(final HubResponse value) {
+                // Invocations which start after the response start a new request.
+                _invocations.remove(key, deferred);
+                deferred.setSuccess(value);
+            }
+
+            @Override
+            public void setFailure(final Throwable cause) {
+                _invocations.remove(key, deferred);
+                deferred.setFailure(cause);
+            }
+        });
+
+        return deferred;
+    }
+
+    /**
+     * Dispatches the specified hub request and merges the state of its response.
+     * 
+     * @param request The hub request.
+     * @return The hub response.
+     */
+    private Promise<HubResponse> dispatch(final HubRequest request) {
+        return _dispatcher.invoke(request).then(_mergeState);
+    }
+
+    /**
+     * Invokes the specified hub request of a typed client, which shares the
+     * state of this hub proxy.
+     * 
+     * @param request The hub request.
+     * @return The hub response.
+     */
+    Promise<HubResponse> invoke(final HubRequest request) {
+        _state.attach(request, _dispatcher.getMapper());
+
+        return dispatch(request);
+    }
+
+    @Override
+    public Object getState(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name must not be null");
+        }
+
+        return _state.get(name);
+    }
+
+    @Override
+    public void setState(final String name, final Object value) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name must not be null");
+        }
+
+        _state.set(name, value);
+    }
+
+    @Override
+    public void removeState(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name must not be null");
+        }
+
+        _state.remove(name);
+    }
+
+    @Override
+    public void setSingleFlight(final boolean singleFlight) {
+        _singleFlight = singleFlight;
+    }
+
+    @Override
+    public void setResultCache(final String methodName, final HubResultCache cache) {
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+
+        synchronized (_lock) {
+            final HubResultCache oldCache = _caches.get(methodName);
+
+            if (oldCache != null) {
+                for (final String eventName : oldCache.getInvalidationEvents()) {
+                    final HubResultCache[] caches = _invalidations.get(eventName);
+
+                    _invalidations = (caches.length == 1) ? _invalidations.without(eventName) : _invalidations.with(eventName, remove(caches, oldCache));
+                }
+                _caches = _caches.without(methodName);
+            }
+            if (cache != null) {
+                for (final String eventName : cache.getInvalidationEvents()) {
+                    final HubResultCache[] caches = _invalidations.get(eventName);
+
+                    _invalidations = _invalidations.with(eventName, add(caches, cache));
+                }
+                _caches = _caches.with(methodName, cache);
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of the specified caches with the specified cache added.
+     * 
+     * @param caches The caches or <code>null</code>.
+     * @param cache The cache.
+     * @return The new caches.
+     */
+    private static HubResultCache[] add(final HubResultCache[] caches, final HubResultCache cache) {
+        if (caches == null) {
+            return new HubResultCache[] { cache };
+        }
+        final HubResultCache[] newCaches = Arrays.copyOf(caches, caches.length + 1);
+
+        newCaches[caches.length] = cache;
+
+        return newCaches;
+    }
+
+    /**
+     * Returns a copy of the specified caches with the first occurrence of the specified cache removed.
+     * 
+     * @param caches The caches.
+     * @param cache The cache.
+     * @return The new caches.
+     */
+    private static HubResultCache[] remove(final HubResultCache[] caches, final HubResultCache cache) {
+        final HubResultCache[] newCaches = new HubResultCache[caches.length - 1];
+        int index = 0;
+        boolean removed = false;
+
+        for (final HubResultCache c : caches) {
+            if (!removed && (c == cache)) {
+                removed = true;
+                continue;
+            }
+            newCaches[index++] = c;
+        }
+
+        return newCaches;
+    }
+
+    @Override
+    public Promise<Void> send(final String methodName, final Object... arguments) {
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+        if (arguments == null) {
+            throw new IllegalArgumentException("Arguments must not be null");
+        }
+
+        final HubRequest request = newRequest(methodName, arguments);
+
+        return _dispatcher.send(request);
+    }
+
+    @Override
+    public Promise<Void> send(final String methodName, final SendPriority priority, final Object... arguments) {
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+        if (priority == null) {
+            throw new IllegalArgumentException("Priority must not be null");
+        }
+        if (arguments == null) {
+            throw new IllegalArgumentException("Arguments must not be null");
+        }
+
+        final HubRequest request = newRequest(methodName, arguments);
+
+        request.setPriority(priority);
+
+        return _dispatcher.send(request);
+    }
+
     @Override
     public void register(final String methodName, final HubCallback<JsonElement> callback) {
         if (methodName == null) {
@@ -126,7 +685,7 @@ final class DefaultHubProxy implements HubProxy, HubCallback<HubMessage> {
             throw new IllegalArgumentException("Callback must not be null");
         }
 
-        _callbacks.put(methodName, new HubCallback<HubMessage>() {
+        addCallback(methodName, new HubCallback<HubMessage>() {
             @Override
             public void onInvoke(final HubMessage message) {
                 final JsonElement arguments = message.getArguments();
@@ -148,30 +707,242 @@ final class DefaultHubProxy implements HubProxy, HubCallback<HubMessage> {
             throw new IllegalArgumentException("Callback must not be null");
         }
 
-        _callbacks.put(methodName, new HubCallback<HubMessage>() {
+        final JsonMapper mapper = _dispatcher.getMapper();
+        // Resolve the codec once instead of on every invocation.
+        final JsonCodec<T> argumentCodec = mapper.getCodec(argumentType);
+
+        register(methodName, argumentCodec, callback);
+    }
+
+    @Override
+    public <T> void register(final String methodName, final JsonType<T> argumentType, final HubCallback<T> callback) {
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+        if (argumentType == null) {
+            throw new IllegalArgumentException("Argument type must not be null");
+        }
+        if (callback == null) {
+            throw new IllegalArgumentException("Callback must not be null");
+        }
+
+        final JsonMapper mapper = _dispatcher.getMapper();
+        // Resolve the codec once instead of on every invocation.
+        final JsonCodec<T> argumentCodec = mapper.getCodec(argumentType);
+
+        register(methodName, argumentCodec, callback);
+    }
+
+    /**
+     * Registers a client side hub callback.
+     * 
+     * @param methodName The method name.
+     * @param argumentCodec The argument codec.
+     * @param callback The hub callback.
+     */
+    private <T> void register(final String methodName, final JsonCodec<T> argumentCodec, final HubCallback<T> callback) {
+        setSubscriber(methodName, new Subscriber(argumentCodec, callback));
+    }
+
+    @Override
+    public <A, B> void register(final String methodName, final Class<A> argumentType1, final Class<B> argumentType2, final HubCallback2<A, B> callback) {
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+        if (argumentType1 == null) {
+            throw new IllegalArgumentException("Argument type 1 must not be null");
+        }
+        if (argumentType2 == null) {
+            throw new IllegalArgumentException("Argument type 2 must not be null");
+        }
+        if (callback == null) {
+            throw new IllegalArgumentException("Callback must not be null");
+        }
+
+        final JsonMapper mapper = _dispatcher.getMapper();
+        // Resolve the codecs once instead of on every invocation.
+        final JsonCodec<A> argumentCodec1 = mapper.getCodec(argumentType1);
+        final JsonCodec<B> argumentCodec2 = mapper.getCodec(argumentType2);
+
+        addCallback(methodName, new HubCallback<HubMessage>() {
             @Override
             public void onInvoke(final HubMessage message) {
                 final JsonElement arguments = message.getArguments();
                 final int count = arguments.size();
 
-                if (count != 1) {
+                if (count != 2) {
                     LOGGER.warn("Received message with wrong number of arguments: {}", count);
                     return;
                 }
-                final JsonElement argument = arguments.get(0);
-                final T object = argument.toObject(argumentType, null);
+                final A object1 = arguments.get(0).toObject(argumentCodec1, null);
+                final B object2 = arguments.get(1).toObject(argumentCodec2, null);
 
-                callback.onInvoke(object);
+                callback.onInvoke(object1, object2);
             }
         });
     }
 
+    @Override
+    public void register(final String methodName, final Class<?>[] argumentTypes, final HubCallback<Object[]> callback) {
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+        if (argumentTypes == null) {
+            throw new IllegalArgumentException("Argument types must not be null");
+        }
+        if (callback == null) {
+            throw new IllegalArgumentException("Callback must not be null");
+        }
+
+        addCallback(methodName, newArgumentsCallback(argumentTypes, callback));
+    }
+
+    /**
+     * Creates a hub callback which decodes the arguments with the codecs of the specified argument types.
+     * 
+     * @param argumentTypes The argument types.
+     * @param callback The hub callback.
+     * @return The hub callback.
+     */
+    private HubCallback<HubMessage> newArgumentsCallback(final Class<?>[] argumentTypes, final HubCallback<Object[]> callback) {
+        final JsonMapper mapper = _dispatcher.getMapper();
+        // Resolve the codecs once instead of on every invocation.
+        final JsonCodec<?>[] argumentCodecs = new JsonCodec<?>[argumentTypes.length];
+
+        for (int i = 0; i < argumentTypes.length; i++) {
+            final Class<?> argumentType = argumentTypes[i];
+
+            if (argumentType == null) {
+                throw new IllegalArgumentException("Argument type must not be null");
+            }
+            argumentCodecs[i] = mapper.getCodec(argumentType);
+        }
+
+        return new HubCallback<HubMessage>() {
+            @Override
+            public void onInvoke(final HubMessage message) {
+                final JsonElement arguments = message.getArguments();
+                final int count = arguments.size();
+
+                if (count != argumentCodecs.length) {
+                    LOGGER.warn("Received message with wrong number of arguments: {}", count);
+                    return;
+                }
+                final Object[] objects = new Object[count];
+
+                for (int i = 0; i < count; i++) {
+                    objects[i] = arguments.get(i).toObject(argumentCodecs[i], null);
+                }
+
+                callback.onInvoke(objects);
+            }
+        };
+    }
+
+    @Override
+    public void register(final Object receiver) {
+        if (receiver == null) {
+            throw new IllegalArgumentException("Receiver must not be null");
+        }
+
+        final JsonMapper mapper = _dispatcher.getMapper();
+        // Build the bindings of all receiver methods before publishing them at once.
+        HubNameTable<Subscriber> subscribers = HubNameTable.empty();
+
+        for (final Method method : receiver.getClass().getMethods()) {
+            final HubMethod hubMethod = method.getAnnotation(HubMethod.class);
+
+            if (hubMethod == null) {
+                continue;
+            }
+            final String methodName = hubMethod.value();
+
+            if (subscribers.get(methodName) != null) {
+                throw new IllegalArgumentException("Receiver declares method " + methodName + " more than once");
+            }
+            final HubReceiverMethod receiverMethod = new HubReceiverMethod(mapper, receiver, method);
+
+            subscribers = subscribers.with(methodName, new Subscriber(null, receiverMethod));
+        }
+        setSubscribers(subscribers);
+    }
+
+    @Override
+    public HubSubscription subscribe(final String methodName, final HubCallback<JsonElement> callback) {
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+        if (callback == null) {
+            throw new IllegalArgumentException("Callback must not be null");
+        }
+
+        return addSubscriber(methodName, new Subscriber(null, new HubCallback<HubMessage>() {
+            @Override
+            public void onInvoke(final HubMessage message) {
+                final JsonElement arguments = message.getArguments();
+
+                callback.onInvoke(arguments);
+            }
+        }));
+    }
+
+    @Override
+    public <T> HubSubscription subscribe(final String methodName, final Class<T> argumentType, final HubCallback<T> callback) {
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+        if (argumentType == null) {
+            throw new IllegalArgumentException("Argument type must not be null");
+        }
+        if (callback == null) {
+            throw new IllegalArgumentException("Callback must not be null");
+        }
+
+        final JsonMapper mapper = _dispatcher.getMapper();
+        final JsonCodec<T> argumentCodec = mapper.getCodec(argumentType);
+
+        return addSubscriber(methodName, new Subscriber(argumentCodec, callback));
+    }
+
+    @Override
+    public <T> HubSubscription subscribe(final String methodName, final JsonType<T> argumentType, final HubCallback<T> callback) {
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+        if (argumentType == null) {
+            throw new IllegalArgumentException("Argument type must not be null");
+        }
+        if (callback == null) {
+            throw new IllegalArgumentException("Callback must not be null");
+        }
+
+        final JsonMapper mapper = _dispatcher.getMapper();
+        final JsonCodec<T> argumentCodec = mapper.getCodec(argumentType);
+
+        return addSubscriber(methodName, new Subscriber(argumentCodec, callback));
+    }
+
+    @Override
+    public HubSubscription subscribe(final String methodName, final Class<?>[] argumentTypes, final HubCallback<Object[]> callback) {
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+        if (argumentTypes == null) {
+            throw new IllegalArgumentException("Argument types must not be null");
+        }
+        if (callback == null) {
+            throw new IllegalArgumentException("Callback must not be null");
+        }
+
+        return addSubscriber(methodName, new Subscriber(null, newArgumentsCallback(argumentTypes, callback)));
+    }
+
     @Override
     public void unregister(final String methodName) {
         if (methodName == null) {
             throw new IllegalArgumentException("Method name must not be null");
         }
 
-        _callbacks.remove(methodName);
+        removeCallback(methodName);
     }
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+/**
+ * Defines hub callback with two arguments.
+ * 
+ * @param <A> The first argument type.
+ * @param <B> The second argument type.
+ */
+public interface HubCallback2<A, B> {
+
+    /**
+     * Handles a client side hub method invocation.
+     * 
+     * @param argument1 The first argument.
+     * @param argument2 The second argument.
+     */
+    void onInvoke(A argument1, B argument2);
+}
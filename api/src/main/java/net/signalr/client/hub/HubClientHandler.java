@@ -0,0 +1,209 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.signalr.client.hub;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.JsonType;
+import net.signalr.client.util.concurrent.promise.Promise;
+
+/**
+ * Represents the invocation handler of a typed hub client.
+ */
+final class HubClientHandler implements InvocationHandler {
+
+    /**
+     * The empty arguments.
+     */
+    private static final Object[] EMPTY_ARGUMENTS = new Object[0];
+
+    /**
+     * The hub name.
+     */
+    private final String _hubName;
+
+    /**
+     * The hub dispatcher.
+     */
+    private final HubDispatcher _dispatcher;
+
+    /**
+     * The client methods.
+     */
+    private final Map<Method, ClientMethod> _methods;
+
+    /**
+     * The hub proxy whose state is shared with the client.
+     */
+    private final DefaultHubProxy _proxy;
+
+    /**
+     * Initializes a new instance of the {@link HubClientHandler} class.
+     * 
+     * @param type The client type.
+     * @param dispatcher The hub dispatcher.
+     */
+    public HubClientHandler(final Class<?> type, final HubDispatcher dispatcher) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+        if (!type.isInterface()) {
+            throw new IllegalArgumentException("Type must be an interface");
+        }
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("Dispatcher must not be null");
+        }
+
+        final HubName hubName = type.getAnnotation(HubName.class);
+
+        _hubName = (hubName != null) ? hubName.value() : type.getSimpleName();
+        _dispatcher = dispatcher;
+
+        _methods = newMethods(type);
+        // Registers the hub name within the connection data. Hub dispatchers
+        // only create default hub proxies, whose state the client shares.
+        _proxy = (DefaultHubProxy) dispatcher.newHubProxy(_hubName);
+    }
+
+    /**
+     * Creates a new typed client for the specified hub client interface.
+     * 
+     * @param type The hub client interface.
+     * @param dispatcher The hub dispatcher.
+     * @return The new typed client.
+     */
+    public static <T> T newClient(final Class<T> type, final HubDispatcher dispatcher) {
+        final HubClientHandler handler = new HubClientHandler(type, dispatcher);
+        final Object client = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+
+        return type.cast(client);
+    }
+
+    /**
+     * Creates the client methods for the specified client type.
+     * 
+     * @param type The client type.
+     * @return The client methods.
+     */
+    private Map<Method, ClientMethod> newMethods(final Class<?> type) {
+        final JsonMapper mapper = _dispatcher.getMapper();
+        final Map<Method, ClientMethod> methods = new HashMap<>();
+
+        for (final Method method : type.getMethods()) {
+            if (method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            final ClientMethod clientMethod = new ClientMethod(mapper, _hubName, method);
+
+            methods.put(method, clientMethod);
+        }
+
+        return methods;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] arguments) throws Throwable {
+        final ClientMethod clientMethod = _methods.get(method);
+
+        if (clientMethod == null) {
+            // Handles the methods declared by java.lang.Object.
+            if (method.getName().equals("equals")) {
+                return (proxy == arguments[0]);
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (method.getName().equals("toString")) {
+                return "HubClient[" + _hubName + "]";
+            }
+
+            throw new UnsupportedOperationException(method.getName());
+        }
+
+        return clientMethod.invoke((arguments != null) ? arguments : EMPTY_ARGUMENTS);
+    }
+
+    /**
+     * Represents the invocation metadata of a client method which is computed once.
+     */
+    private final class ClientMethod {
+
+        /**
+         * The request template.
+         */
+        private final HubRequestTemplate _template;
+
+        /**
+         * The argument codecs.
+         */
+        private final JsonCodec<?>[] _argumentCodecs;
+
+        /**
+         * The result continuation.
+         */
+        private final HubResult<?> _result;
+
+        /**
+         * Initializes a new instance of the {@link ClientMethod} class.
+         * 
+         * @param mapper The mapper.
+         * @param hubName The hub name.
+         * @param method The method.
+         */
+        public ClientMethod(final JsonMapper mapper, final String hubName, final Method method) {
+            final Type returnType = method.getGenericReturnType();
+
+            if (!(returnType instanceof ParameterizedType) || (((ParameterizedType) returnType).getRawType() != Promise.class)) {
+                throw new IllegalArgumentException("Method " + method.getName() + " must return a promise");
+            }
+            final Type resultType = ((ParameterizedType) returnType).getActualTypeArguments()[0];
+            final HubMethod hubMethod = method.getAnnotation(HubMethod.class);
+            final String methodName = (hubMethod != null) ? hubMethod.value() : method.getName();
+            final Type[] parameterTypes = method.getGenericParameterTypes();
+
+            _template = new HubRequestTemplate(mapper, hubName, methodName);
+            _argumentCodecs = new JsonCodec<?>[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                _argumentCodecs[i] = mapper.getCodec(JsonType.get(parameterTypes[i]));
+            }
+            _result = new HubResult<>(mapper.getCodec(JsonType.get(resultType)));
+        }
+
+        /**
+         * Invokes the client method.
+         * 
+         * @param arguments The arguments.
+         * @return The invocation result.
+         */
+        public Promise<?> invoke(final Object[] arguments) {
+            final HubRequest request = new HubRequest();
+
+            request.setTemplate(_template);
+            request.setArguments(arguments);
+            request.setArgumentCodecs(_argumentCodecs);
+
+            return _proxy.invoke(request).then(_result);
+        }
+    }
+}
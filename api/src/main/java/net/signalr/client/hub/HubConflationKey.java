@@ -0,0 +1,76 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import java.util.Arrays;
+
+import net.signalr.client.InboundKey;
+import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonText;
+
+/**
+ * Represents an inbound key which conflates hub messages by hub name, method
+ * name and the value of an argument, e.g. to keep only the newest quote per
+ * symbol. Responses and batches of several hub messages are never conflated.
+ */
+public final class HubConflationKey implements InboundKey {
+
+    /**
+     * The argument index.
+     */
+    private final int _argumentIndex;
+
+    /**
+     * Initializes a new instance of the {@link HubConflationKey} class.
+     * 
+     * @param argumentIndex The argument index.
+     */
+    public HubConflationKey(final int argumentIndex) {
+        if (argumentIndex < 0) {
+            throw new IllegalArgumentException("Argument index must not be negative");
+        }
+
+        _argumentIndex = argumentIndex;
+    }
+
+    @Override
+    public Object getKey(final JsonElement message) {
+        final HubResponse response = new HubResponse(message);
+
+        if (response.getCallbackId() != null) {
+            return null;
+        }
+        final HubMessage[] messages = response.getMessages();
+
+        if (messages.length != 1) {
+            return null;
+        }
+        final HubMessage hubMessage = messages[0];
+        final String hubName = hubMessage.getHubName();
+        final String methodName = hubMessage.getMethodName();
+        final JsonElement arguments = hubMessage.getArguments();
+
+        if ((hubName == null) || (methodName == null) || (_argumentIndex >= arguments.size())) {
+            return null;
+        }
+        // Keys on the raw text, since not every backend returns numbers and booleans as strings,
+        // which lazy elements slice from the frame without building a tree.
+        final String value = JsonText.toText(arguments.get(_argumentIndex));
+
+        return Arrays.asList(hubName, methodName, value);
+    }
+}
@@ -16,9 +16,14 @@
 
 package net.signalr.client.hub;
 
+import java.util.concurrent.Executor;
+
 import net.signalr.client.Connection;
 import net.signalr.client.ConnectionListener;
+import net.signalr.client.InboundBuffer;
+import net.signalr.client.OutboundScheduler;
 import net.signalr.client.PersistentConnection;
+import net.signalr.client.RateLimiter;
 import net.signalr.client.json.JsonFactory;
 import net.signalr.client.transport.Transport;
 import net.signalr.client.util.concurrent.promise.Compose;
@@ -118,6 +123,57 @@ public final class HubConnection {
         _connection.removeConnectionListener(listener);
     }
 
+    /**
+     * Sets the bounded buffer between the transport and the hub callbacks.
+     * 
+     * @param inboundBuffer The inbound buffer or <code>null</code>.
+     */
+    public void setInboundBuffer(final InboundBuffer inboundBuffer) {
+        _connection.setInboundBuffer(inboundBuffer);
+    }
+
+    /**
+     * Sets the scheduler which interleaves outbound messages by priority, or
+     * <code>null</code> to send messages in send order.
+     * 
+     * @param outboundScheduler The outbound scheduler or <code>null</code>.
+     */
+    public void setOutboundScheduler(final OutboundScheduler outboundScheduler) {
+        _connection.setOutboundScheduler(outboundScheduler);
+    }
+
+    /**
+     * Sets the outbound rate limiter, or <code>null</code> to send messages
+     * without limit.
+     * 
+     * @param rateLimiter The rate limiter or <code>null</code>.
+     */
+    public void setRateLimiter(final RateLimiter rateLimiter) {
+        _connection.setRateLimiter(rateLimiter);
+    }
+
+    /**
+     * Dispatches hub messages on the specified number of lanes instead of the
+     * receiving thread. Messages with equal lane keys keep their order.
+     * 
+     * @param executor The executor which runs the lanes.
+     * @param laneCount The lane count.
+     * @param key The hub lane key.
+     */
+    public void setDispatchLanes(final Executor executor, final int laneCount, final HubLaneKey key) {
+        _dispatcher.setDispatchLanes(executor, laneCount, key);
+    }
+
+    /**
+     * Sets the invocation window which limits the number and the size of
+     * outstanding hub invocations.
+     * 
+     * @param invocationWindow The invocation window or <code>null</code>.
+     */
+    public void setInvocationWindow(final HubInvocationWindow invocationWindow) {
+        _dispatcher.setInvocationWindow(invocationWindow);
+    }
+
     /**
      * Creates a new hub proxy for the specified hub name.
      * 
@@ -128,6 +184,26 @@ public final class HubConnection {
         return _dispatcher.newHubProxy(hubName);
     }
 
+    /**
+     * Creates new hub proxies for the specified hub names at once.
+     * 
+     * @param hubNames The hub names.
+     * @return The hub proxies in the order of the hub names.
+     */
+    public HubProxy[] newHubProxies(final String... hubNames) {
+        return _dispatcher.newHubProxies(hubNames);
+    }
+
+    /**
+     * Creates a new typed client for the specified hub client interface.
+     * 
+     * @param type The hub client interface.
+     * @return The new typed client.
+     */
+    public <T> T createClient(final Class<T> type) {
+        return HubClientHandler.newClient(type, _dispatcher);
+    }
+
     /**
      * Starts the connection.
      * 
@@ -137,6 +213,7 @@ public final class HubConnection {
         return Promises.newPromise(new Runnable() {
             @Override
             public void run() {
+                _dispatcher.applyConnectionData();
                 _connection.addConnectionListener(_dispatcher);
             }
         }).then(new Compose<Void, Void>() {
@@ -16,7 +16,11 @@
 
 package net.signalr.client.hub;
 
+import java.util.concurrent.Executor;
+
 import net.signalr.client.ConnectionListener;
+import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonMapper;
 import net.signalr.client.util.concurrent.promise.Promise;
 
 /**
@@ -24,6 +28,13 @@ import net.signalr.client.util.concurrent.promise.Promise;
  */
 interface HubDispatcher extends ConnectionListener {
 
+    /**
+     * Returns the mapper.
+     * 
+     * @return The mapper.
+     */
+    JsonMapper getMapper();
+
     /**
      * Creates a new hub proxy for the specified hub name.
      * 
@@ -32,6 +43,36 @@ interface HubDispatcher extends ConnectionListener {
      */
     HubProxy newHubProxy(String hubName);
 
+    /**
+     * Creates new hub proxies for the specified hub names at once.
+     * 
+     * @param hubNames The hub names.
+     * @return The hub proxies in the order of the hub names.
+     */
+    HubProxy[] newHubProxies(String... hubNames);
+
+    /**
+     * Applies the connection data of all hub proxies to the connection,
+     * serializing it only if hub proxies were added since.
+     */
+    void applyConnectionData();
+
+    /**
+     * Sets the dispatch lanes on which hub messages are dispatched.
+     * 
+     * @param executor The executor which runs the lanes.
+     * @param laneCount The lane count.
+     * @param key The hub lane key.
+     */
+    void setDispatchLanes(Executor executor, int laneCount, HubLaneKey key);
+
+    /**
+     * Sets the invocation window which limits the outstanding hub invocations.
+     * 
+     * @param invocationWindow The invocation window or <code>null</code>.
+     */
+    void setInvocationWindow(HubInvocationWindow invocationWindow);
+
     /**
      * Invokes a server side hub method asynchronously.
      * 
@@ -39,4 +80,22 @@ interface HubDispatcher extends ConnectionListener {
      * @return The hub response.
      */
     Promise<HubResponse> invoke(HubRequest request);
+
+    /**
+     * Invokes a server side hub method asynchronously and delivers its
+     * progress notifications to the specified callback.
+     * 
+     * @param request The hub request.
+     * @param progressCallback The progress callback or <code>null</code>.
+     * @return The hub response.
+     */
+    Promise<HubResponse> invoke(HubRequest request, HubCallback<JsonElement> progressCallback);
+
+    /**
+     * Sends a server side hub method invocation without awaiting its response.
+     * 
+     * @param request The hub request.
+     * @return The send result.
+     */
+    Promise<Void> send(HubRequest request);
 }
@@ -0,0 +1,309 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a window which limits the number and the UTF-8 encoded size of
+ * outstanding hub invocations. Invocations exceeding the window are queued and
+ * sent as soon as responses of outstanding invocations arrive or outstanding
+ * invocations fail, e.g. because the connection has been lost.
+ */
+public final class HubInvocationWindow {
+
+    /**
+     * The number of bits of the packed state which hold the outstanding bytes.
+     */
+    private static final int BYTES_BITS = 40;
+
+    /**
+     * The mask of the outstanding bytes within the packed state.
+     */
+    private static final long BYTES_MASK = (1L << BYTES_BITS) - 1;
+
+    /**
+     * The maximum number of outstanding invocations.
+     */
+    private final int _maxInvocations;
+
+    /**
+     * The maximum number of outstanding bytes.
+     */
+    private final long _maxBytes;
+
+    /**
+     * The packed number of outstanding invocations and bytes.
+     */
+    private final AtomicLong _state;
+
+    /**
+     * The queued invocations.
+     */
+    private final Queue<Invocation> _queue;
+
+    /**
+     * The number of queued invocations.
+     */
+    private final AtomicInteger _queued;
+
+    /**
+     * The number of pending drain requests.
+     */
+    private final AtomicInteger _drains;
+
+    /**
+     * The peak number of outstanding invocations.
+     */
+    private final AtomicInteger _peakInvocations;
+
+    /**
+     * The number of sent invocations.
+     */
+    private final AtomicLong _sentCount;
+
+    /**
+     * The sum of the outstanding invocations observed by each sent invocation.
+     */
+    private final AtomicLong _concurrencySum;
+
+    /**
+     * Initializes a new instance of the {@link HubInvocationWindow} class.
+     * 
+     * @param maxInvocations The maximum number of outstanding invocations.
+     * @param maxBytes The maximum number of outstanding bytes.
+     */
+    public HubInvocationWindow(final int maxInvocations, final long maxBytes) {
+        if ((maxInvocations < 1) || (maxInvocations >= (1 << (63 - BYTES_BITS)))) {
+            throw new IllegalArgumentException("Max invocations must be between 1 and " + ((1 << (63 - BYTES_BITS)) - 1));
+        }
+        if ((maxBytes < 1) || (maxBytes > BYTES_MASK)) {
+            throw new IllegalArgumentException("Max bytes must be between 1 and " + BYTES_MASK);
+        }
+
+        _maxInvocations = maxInvocations;
+        _maxBytes = maxBytes;
+
+        _state = new AtomicLong(0);
+        _queue = new ConcurrentLinkedQueue<>();
+        _queued = new AtomicInteger(0);
+        _drains = new AtomicInteger(0);
+        _peakInvocations = new AtomicInteger(0);
+        _sentCount = new AtomicLong(0);
+        _concurrencySum = new AtomicLong(0);
+    }
+
+    /**
+     * Returns the maximum number of outstanding invocations.
+     * 
+     * @return The maximum number of outstanding invocations.
+     */
+    public int getMaxInvocations() {
+        return _maxInvocations;
+    }
+
+    /**
+     * Returns the maximum number of outstanding bytes.
+     * 
+     * @return The maximum number of outstanding bytes.
+     */
+    public long getMaxBytes() {
+        return _maxBytes;
+    }
+
+    /**
+     * Returns the number of outstanding invocations.
+     * 
+     * @return The number of outstanding invocations.
+     */
+    public int getOutstandingInvocations() {
+        return (int) (_state.get() >>> BYTES_BITS);
+    }
+
+    /**
+     * Returns the number of outstanding bytes.
+     * 
+     * @return The number of outstanding bytes.
+     */
+    public long getOutstandingBytes() {
+        return _state.get() & BYTES_MASK;
+    }
+
+    /**
+     * Returns the number of invocations waiting for the window.
+     * 
+     * @return The number of queued invocations.
+     */
+    public int getQueuedInvocations() {
+        return _queued.get();
+    }
+
+    /**
+     * Returns the peak number of outstanding invocations.
+     * 
+     * @return The peak number of outstanding invocations.
+     */
+    public int getPeakInvocations() {
+        return _peakInvocations.get();
+    }
+
+    /**
+     * Returns the achieved concurrency, i.e. the average number of outstanding
+     * invocations at the time an invocation has been sent.
+     * 
+     * @return The achieved concurrency.
+     */
+    public double getAchievedConcurrency() {
+        final long sentCount = _sentCount.get();
+
+        if (sentCount == 0) {
+            return 0;
+        }
+
+        return (double) _concurrencySum.get() / sentCount;
+    }
+
+    /**
+     * Tries to acquire room for an invocation of the specified size. A single
+     * invocation is always admitted regardless of its size.
+     * 
+     * @param size The size in bytes.
+     * @return A value indicating whether room has been acquired.
+     */
+    private boolean tryAcquire(final long size) {
+        while (true) {
+            final long state = _state.get();
+            final int invocations = (int) (state >>> BYTES_BITS);
+            final long bytes = state & BYTES_MASK;
+
+            if ((invocations > 0) && ((invocations >= _maxInvocations) || ((bytes + size) > _maxBytes))) {
+                return false;
+            }
+            final long newBytes = Math.min(bytes + size, BYTES_MASK);
+            final long newState = ((long) (invocations + 1) << BYTES_BITS) | newBytes;
+
+            if (_state.compareAndSet(state, newState)) {
+                updateStatistics(invocations + 1);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Updates the statistics with the specified number of outstanding invocations.
+     * 
+     * @param invocations The number of outstanding invocations.
+     */
+    private void updateStatistics(final int invocations) {
+        int peakInvocations;
+
+        while ((peakInvocations = _peakInvocations.get()) < invocations) {
+            if (_peakInvocations.compareAndSet(peakInvocations, invocations)) {
+                break;
+            }
+        }
+        _sentCount.incrementAndGet();
+        _concurrencySum.addAndGet(invocations);
+    }
+
+    /**
+     * Sends the specified invocation as soon as the window admits it.
+     * 
+     * @param size The size of the invocation in bytes.
+     * @param task The task which sends the invocation.
+     */
+    void execute(final long size, final Runnable task) {
+        if ((_queued.get() == 0) && tryAcquire(size)) {
+            task.run();
+            return;
+        }
+        _queue.offer(new Invocation(size, task));
+        _queued.incrementAndGet();
+        drain();
+    }
+
+    /**
+     * Releases the room of a completed invocation of the specified size.
+     * 
+     * @param size The size of the invocation in bytes.
+     */
+    void release(final long size) {
+        while (true) {
+            final long state = _state.get();
+            final long invocations = state >>> BYTES_BITS;
+            final long bytes = state & BYTES_MASK;
+            final long newState = ((invocations - 1) << BYTES_BITS) | Math.max(bytes - size, 0);
+
+            if (_state.compareAndSet(state, newState)) {
+                break;
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Sends queued invocations in order as long as the window admits them.
+     */
+    private void drain() {
+        if (_drains.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+
+        do {
+            Invocation invocation;
+
+            // Only the draining thread removes invocations, hence the peeked invocation is polled.
+            while (((invocation = _queue.peek()) != null) && tryAcquire(invocation._size)) {
+                _queue.poll();
+                _queued.decrementAndGet();
+                invocation._task.run();
+            }
+            missed = _drains.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Represents a queued invocation.
+     */
+    private static final class Invocation {
+
+        /**
+         * The size in bytes.
+         */
+        private final long _size;
+
+        /**
+         * The task which sends the invocation.
+         */
+        private final Runnable _task;
+
+        /**
+         * Initializes a new instance of the {@link Invocation} class.
+         * 
+         * @param size The size in bytes.
+         * @param task The task.
+         */
+        public Invocation(final long size, final Runnable task) {
+            _size = size;
+            _task = task;
+        }
+    }
+}
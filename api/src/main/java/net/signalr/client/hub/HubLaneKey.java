@@ -0,0 +1,36 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import net.signalr.client.json.JsonElement;
+
+/**
+ * Defines a hub lane key which selects the dispatch lane of a hub message.
+ * Messages with equal keys are dispatched in the order they were received.
+ */
+public interface HubLaneKey {
+
+    /**
+     * Returns the key hash of the specified hub message.
+     * 
+     * @param hubName The hub name.
+     * @param methodName The method name.
+     * @param arguments The arguments.
+     * @return The key hash.
+     */
+    int hash(String hubName, String methodName, JsonElement arguments);
+}
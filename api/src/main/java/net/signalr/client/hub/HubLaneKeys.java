@@ -0,0 +1,98 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonText;
+
+/**
+ * Provides common hub lane keys.
+ */
+public final class HubLaneKeys {
+
+    /**
+     * The hub name key.
+     */
+    private static final HubLaneKey HUB_NAME = new HubLaneKey() {
+        @Override
+        public int hash(final String hubName, final String methodName, final JsonElement arguments) {
+            return HubNameTable.hash(hubName);
+        }
+    };
+
+    /**
+     * The method name key.
+     */
+    private static final HubLaneKey METHOD_NAME = new HubLaneKey() {
+        @Override
+        public int hash(final String hubName, final String methodName, final JsonElement arguments) {
+            final int hash = HubNameTable.hash(hubName);
+
+            return (methodName == null) ? hash : (31 * hash) + HubNameTable.hash(methodName);
+        }
+    };
+
+    /**
+     * Initializes a new instance of the {@link HubLaneKeys} class.
+     */
+    private HubLaneKeys() {
+    }
+
+    /**
+     * Returns a key which keeps the order of all messages of a hub.
+     * 
+     * @return The hub lane key.
+     */
+    public static HubLaneKey byHubName() {
+        return HUB_NAME;
+    }
+
+    /**
+     * Returns a key which keeps the order of all messages of a hub method.
+     * 
+     * @return The hub lane key.
+     */
+    public static HubLaneKey byMethodName() {
+        return METHOD_NAME;
+    }
+
+    /**
+     * Returns a key which keeps the order of all messages of a hub method
+     * sharing the same argument value at the specified index.
+     * 
+     * @param index The argument index.
+     * @return The hub lane key.
+     */
+    public static HubLaneKey byArgument(final int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Index must not be negative");
+        }
+
+        return new HubLaneKey() {
+            @Override
+            public int hash(final String hubName, final String methodName, final JsonElement arguments) {
+                final int hash = METHOD_NAME.hash(hubName, methodName, arguments);
+
+                if (index >= arguments.size()) {
+                    return hash;
+                }
+                // Hashes the raw text in place, which works for every JSON type and builds no tree.
+                return (31 * hash) + JsonText.hash(arguments.get(index));
+            }
+        };
+    }
+}
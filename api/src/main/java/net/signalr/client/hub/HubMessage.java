@@ -16,6 +16,8 @@
 
 package net.signalr.client.hub;
 
+import java.util.Map;
+
 import net.signalr.client.json.JsonElement;
 
 /**
@@ -67,4 +69,14 @@ final class HubMessage {
     public JsonElement getArguments() {
         return _element.get("A");
     }
+
+    /**
+     * Returns the round tripped state.
+     * 
+     * @return The round tripped state or <code>null</code> if the message carries no state.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getState() {
+        return _element.get("S").toObject(Map.class, null);
+    }
 }
@@ -0,0 +1,318 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.signalr.client.hub;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents an immutable table which maps hub and method names to values.
+ * 
+ * Names are matched case-insensitively against their raw characters, so a
+ * lookup neither lower-cases the name nor allocates.
+ * 
+ * @param <V> The value type.
+ */
+final class HubNameTable<V> {
+
+    /**
+     * The empty table.
+     */
+    private static final HubNameTable<Object> EMPTY = new HubNameTable<>(new String[0], new Object[0]);
+
+    /**
+     * The names.
+     */
+    private final String[] _names;
+
+    /**
+     * The values.
+     */
+    private final Object[] _values;
+
+    /**
+     * The slots which hold indices into the names and values plus one.
+     */
+    private final int[] _slots;
+
+    /**
+     * Initializes a new instance of the {@link HubNameTable} class.
+     * 
+     * @param names The names.
+     * @param values The values.
+     */
+    private HubNameTable(final String[] names, final Object[] values) {
+        _names = names;
+        _values = values;
+
+        int capacity = 2;
+
+        while (capacity < (names.length * 2)) {
+            capacity <<= 1;
+        }
+        _slots = new int[capacity];
+        for (int i = 0; i < names.length; i++) {
+            int slot = hash(names[i]) & (capacity - 1);
+
+            while (_slots[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            _slots[slot] = i + 1;
+        }
+    }
+
+    /**
+     * Returns the empty table.
+     * 
+     * @return The empty table.
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> HubNameTable<V> empty() {
+        return (HubNameTable<V>) EMPTY;
+    }
+
+    /**
+     * Folds the case of the specified character.
+     * 
+     * @param c The character.
+     * @return The folded character.
+     */
+    private static char fold(final char c) {
+        if (c < 0x80) {
+            return ((c >= 'A') && (c <= 'Z')) ? (char) (c + ('a' - 'A')) : c;
+        }
+
+        // Mirrors the comparison of String#equalsIgnoreCase.
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Returns the case-insensitive hash code of the specified name.
+     * 
+     * @param name The name.
+     * @return The hash code.
+     */
+    static int hash(final String name) {
+        final int length = name.length();
+        int hash = 0;
+
+        for (int i = 0; i < length; i++) {
+            hash = (31 * hash) + fold(name.charAt(i));
+        }
+
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns the index of the specified name.
+     * 
+     * @param name The name.
+     * @return The index or <code>-1</code>.
+     */
+    private int indexOf(final String name) {
+        final int mask = _slots.length - 1;
+        int slot = hash(name) & mask;
+        int index;
+
+        while ((index = _slots[slot]) != 0) {
+            if (_names[index - 1].equalsIgnoreCase(name)) {
+                return index - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the value for the specified name.
+     * 
+     * @param name The name.
+     * @return The value or <code>null</code>.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final String name) {
+        if (name == null) {
+            return null;
+        }
+
+        final int index = indexOf(name);
+
+        return (index < 0) ? null : (V) _values[index];
+    }
+
+    /**
+     * Returns the number of entries.
+     * 
+     * @return The number of entries.
+     */
+    public int size() {
+        return _names.length;
+    }
+
+    /**
+     * Returns the names in insertion order.
+     * 
+     * @return The names.
+     */
+    public List<String> names() {
+        final List<String> names = new ArrayList<>(_names.length);
+
+        Collections.addAll(names, _names);
+
+        return names;
+    }
+
+    /**
+     * Returns the values in insertion order.
+     * 
+     * @return The values.
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        final List<V> values = new ArrayList<>(_values.length);
+
+        for (final Object value : _values) {
+            values.add((V) value);
+        }
+
+        return values;
+    }
+
+    /**
+     * Returns a copy of the table with the specified entry added or replaced.
+     * 
+     * @param name The name.
+     * @param value The value.
+     * @return The new table.
+     */
+    public HubNameTable<V> with(final String name, final V value) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name must not be null");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Value must not be null");
+        }
+
+        final int index = indexOf(name);
+
+        if (index >= 0) {
+            final Object[] values = _values.clone();
+
+            values[index] = value;
+
+            return new HubNameTable<>(_names, values);
+        }
+        final int length = _names.length;
+        final String[] names = new String[length + 1];
+        final Object[] values = new Object[length + 1];
+
+        System.arraycopy(_names, 0, names, 0, length);
+        System.arraycopy(_values, 0, values, 0, length);
+        names[length] = name;
+        values[length] = value;
+
+        return new HubNameTable<>(names, values);
+    }
+
+    /**
+     * Returns a copy of the table with the specified entries added or
+     * replaced. Unlike repeated calls of {@link #with(String, Object)}, the
+     * copy is made once regardless of the number of entries.
+     * 
+     * @param names The names.
+     * @param values The values.
+     * @return The new table.
+     */
+    public HubNameTable<V> withAll(final String[] names, final V[] values) {
+        if (names == null) {
+            throw new IllegalArgumentException("Names must not be null");
+        }
+        if (values == null) {
+            throw new IllegalArgumentException("Values must not be null");
+        }
+        if (names.length != values.length) {
+            throw new IllegalArgumentException("Names and values must have the same length");
+        }
+
+        final String[] newNames = Arrays.copyOf(_names, _names.length + names.length);
+        final Object[] newValues = Arrays.copyOf(_values, _values.length + values.length);
+        int capacity = 2;
+
+        while (capacity < (newNames.length * 2)) {
+            capacity <<= 1;
+        }
+        final int[] slots = new int[capacity];
+        int length = 0;
+
+        for (int i = 0; i < newNames.length; i++) {
+            final String name = (i < _names.length) ? _names[i] : names[i - _names.length];
+            final Object value = (i < _names.length) ? _values[i] : values[i - _names.length];
+
+            if (name == null) {
+                throw new IllegalArgumentException("Name must not be null");
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("Value must not be null");
+            }
+            int slot = hash(name) & (capacity - 1);
+            int index;
+
+            while (((index = slots[slot]) != 0) && !newNames[index - 1].equalsIgnoreCase(name)) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (index != 0) {
+                newValues[index - 1] = value;
+                continue;
+            }
+            newNames[length] = name;
+            newValues[length] = value;
+            slots[slot] = ++length;
+        }
+
+        return new HubNameTable<>(Arrays.copyOf(newNames, length), Arrays.copyOf(newValues, length));
+    }
+
+    /**
+     * Returns a copy of the table without the specified entry.
+     * 
+     * @param name The name.
+     * @return The new table.
+     */
+    public HubNameTable<V> without(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name must not be null");
+        }
+
+        final int index = indexOf(name);
+
+        if (index < 0) {
+            return this;
+        }
+        final int length = _names.length;
+        final String[] names = new String[length - 1];
+        final Object[] values = new Object[length - 1];
+
+        System.arraycopy(_names, 0, names, 0, index);
+        System.arraycopy(_values, 0, values, 0, index);
+        System.arraycopy(_names, index + 1, names, index, length - index - 1);
+        System.arraycopy(_values, index + 1, values, index, length - index - 1);
+
+        return new HubNameTable<>(names, values);
+    }
+}
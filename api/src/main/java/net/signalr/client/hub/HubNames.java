@@ -17,7 +17,7 @@
 package net.signalr.client.hub;
 
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import net.signalr.client.json.JsonWriteable;
@@ -37,7 +37,7 @@ final class HubNames implements JsonWriteable {
      * Initializes a new instance of the {@link HubNames} class.
      */
     public HubNames() {
-        _names = new HashSet<>();
+        _names = new LinkedHashSet<>();
     }
 
     /**
@@ -16,7 +16,9 @@
 
 package net.signalr.client.hub;
 
+import net.signalr.client.SendPriority;
 import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonType;
 import net.signalr.client.util.concurrent.promise.Promise;
 
 /**
@@ -34,6 +36,102 @@ public interface HubProxy {
      */
     <R> Promise<R> invoke(String methodName, Class<R> returnType, Object... arguments);
 
+    /**
+     * Invokes a server side hub method asynchronously.
+     * 
+     * @param methodName The method name.
+     * @param returnType The generic return type.
+     * @param arguments The arguments.
+     * @return The invocation result.
+     */
+    <R> Promise<R> invoke(String methodName, JsonType<R> returnType, Object... arguments);
+
+    /**
+     * Invokes a server side hub method asynchronously with the specified send priority.
+     * 
+     * @param methodName The method name.
+     * @param priority The send priority.
+     * @param returnType The return type.
+     * @param arguments The arguments.
+     * @return The invocation result.
+     */
+    <R> Promise<R> invoke(String methodName, SendPriority priority, Class<R> returnType, Object... arguments);
+
+    /**
+     * Invokes a server side hub method asynchronously and delivers its
+     * progress notifications to the specified callback before the result
+     * completes the invocation.
+     * 
+     * @param methodName The method name.
+     * @param returnType The return type.
+     * @param progressType The progress type.
+     * @param progressCallback The progress callback.
+     * @param arguments The arguments.
+     * @return The invocation result.
+     */
+    <P, R> Promise<R> invoke(String methodName, Class<R> returnType, Class<P> progressType, HubCallback<P> progressCallback, Object... arguments);
+
+    /**
+     * Sends a server side hub method invocation without awaiting its result.
+     * 
+     * @param methodName The method name.
+     * @param arguments The arguments.
+     * @return The send result.
+     */
+    Promise<Void> send(String methodName, Object... arguments);
+
+    /**
+     * Enables or disables the single-flight mode in which concurrent
+     * invocations with the same method name and arguments share one request
+     * and its result.
+     * 
+     * @param singleFlight A value indicating whether the single-flight mode is enabled.
+     */
+    void setSingleFlight(boolean singleFlight);
+
+    /**
+     * Sets the result cache of the specified idempotent server side hub
+     * method, or <code>null</code> to remove it.
+     * 
+     * @param methodName The method name.
+     * @param cache The result cache or <code>null</code>.
+     */
+    void setResultCache(String methodName, HubResultCache cache);
+
+    /**
+     * Sends a server side hub method invocation with the specified send priority without awaiting its result.
+     * 
+     * @param methodName The method name.
+     * @param priority The send priority.
+     * @param arguments The arguments.
+     * @return The send result.
+     */
+    Promise<Void> send(String methodName, SendPriority priority, Object... arguments);
+
+    /**
+     * Returns the value of the specified round tripped state.
+     * 
+     * @param name The state name.
+     * @return The state value or <code>null</code> if the state is unknown.
+     */
+    Object getState(String name);
+
+    /**
+     * Sets the value of the specified round tripped state which is sent with
+     * every subsequent invocation.
+     * 
+     * @param name The state name.
+     * @param value The state value.
+     */
+    void setState(String name, Object value);
+
+    /**
+     * Removes the specified round tripped state.
+     * 
+     * @param name The state name.
+     */
+    void removeState(String name);
+
     /**
      * Registers a client side hub callback.
      * 
@@ -52,7 +150,83 @@ public interface HubProxy {
     <T> void register(String methodName, Class<T> argumentType, HubCallback<T> callback);
 
     /**
-     * Unregisters a client side hub callback.
+     * Registers a client side hub callback.
+     * 
+     * @param methodName The method name.
+     * @param argumentType The generic argument type.
+     * @param callback The hub callback.
+     */
+    <T> void register(String methodName, JsonType<T> argumentType, HubCallback<T> callback);
+
+    /**
+     * Registers a client side hub callback with two arguments.
+     * 
+     * @param methodName The method name.
+     * @param argumentType1 The first argument type.
+     * @param argumentType2 The second argument type.
+     * @param callback The hub callback.
+     */
+    <A, B> void register(String methodName, Class<A> argumentType1, Class<B> argumentType2, HubCallback2<A, B> callback);
+
+    /**
+     * Registers a client side hub callback with an arbitrary number of arguments.
+     * 
+     * @param methodName The method name.
+     * @param argumentTypes The argument types.
+     * @param callback The hub callback.
+     */
+    void register(String methodName, Class<?>[] argumentTypes, HubCallback<Object[]> callback);
+
+    /**
+     * Registers the methods of the specified receiver which are annotated with
+     * {@link HubMethod} as client side hub callbacks.
+     * 
+     * @param receiver The receiver.
+     */
+    void register(Object receiver);
+
+    /**
+     * Subscribes to a client side hub method in addition to any existing subscriptions.
+     * 
+     * @param methodName The method name.
+     * @param callback The hub callback.
+     * @return The hub subscription.
+     */
+    HubSubscription subscribe(String methodName, HubCallback<JsonElement> callback);
+
+    /**
+     * Subscribes to a client side hub method in addition to any existing subscriptions.
+     * 
+     * @param methodName The method name.
+     * @param argumentType The argument type.
+     * @param callback The hub callback.
+     * @return The hub subscription.
+     */
+    <T> HubSubscription subscribe(String methodName, Class<T> argumentType, HubCallback<T> callback);
+
+    /**
+     * Subscribes to a client side hub method in addition to any existing subscriptions.
+     * 
+     * @param methodName The method name.
+     * @param argumentType The generic argument type.
+     * @param callback The hub callback.
+     * @return The hub subscription.
+     */
+    <T> HubSubscription subscribe(String methodName, JsonType<T> argumentType, HubCallback<T> callback);
+
+    /**
+     * Subscribes to a client side hub method with multiple arguments in addition to any existing subscriptions.
+     * 
+     * @param methodName The method name.
+     * @param argumentTypes The argument types.
+     * @param callback The hub callback.
+     * @return The hub subscription.
+     */
+    HubSubscription subscribe(String methodName, Class<?>[] argumentTypes, HubCallback<Object[]> callback);
+
+    /**
+     * Unregisters the client side hub callback which has been registered for
+     * the specified method name. Subscriptions of the method are kept.
      * 
      * @param methodName The method name.
      */
@@ -0,0 +1,110 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.signalr.client.hub;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.JsonType;
+
+/**
+ * Represents a hub callback which invokes an annotated method of a receiver.
+ */
+final class HubReceiverMethod implements HubCallback<HubMessage> {
+
+    /**
+     * The private logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(HubReceiverMethod.class);
+
+    /**
+     * The method handle which is bound to the receiver and spreads an argument array.
+     */
+    private final MethodHandle _handle;
+
+    /**
+     * The argument codecs.
+     */
+    private final JsonCodec<?>[] _argumentCodecs;
+
+    /**
+     * Initializes a new instance of the {@link HubReceiverMethod} class.
+     * 
+     * @param mapper The mapper.
+     * @param receiver The receiver.
+     * @param method The annotated method.
+     */
+    public HubReceiverMethod(final JsonMapper mapper, final Object receiver, final Method method) {
+        if (mapper == null) {
+            throw new IllegalArgumentException("Mapper must not be null");
+        }
+        if (receiver == null) {
+            throw new IllegalArgumentException("Receiver must not be null");
+        }
+        if (method == null) {
+            throw new IllegalArgumentException("Method must not be null");
+        }
+
+        final Type[] parameterTypes = method.getGenericParameterTypes();
+        final int count = parameterTypes.length;
+
+        try {
+            method.setAccessible(true);
+            final MethodHandle handle = MethodHandles.lookup().unreflect(method).bindTo(receiver);
+
+            _handle = handle.asType(MethodType.genericMethodType(count)).asSpreader(Object[].class, count);
+        } catch (final Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+        _argumentCodecs = new JsonCodec<?>[count];
+        for (int i = 0; i < count; i++) {
+            _argumentCodecs[i] = mapper.getCodec(JsonType.get(parameterTypes[i]));
+        }
+    }
+
+    @Override
+    public void onInvoke(final HubMessage message) {
+        final JsonElement arguments = message.getArguments();
+        final int count = arguments.size();
+
+        if (count != _argumentCodecs.length) {
+            LOGGER.warn("Received message with wrong number of arguments: {}", count);
+            return;
+        }
+        final Object[] objects = new Object[count];
+
+        for (int i = 0; i < count; i++) {
+            objects[i] = arguments.get(i).toObject(_argumentCodecs[i], null);
+        }
+        try {
+            _handle.invoke(objects);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+}
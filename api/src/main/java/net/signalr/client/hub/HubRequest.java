@@ -18,14 +18,38 @@ package net.signalr.client.hub;
 
 import java.util.Map;
 
+import net.signalr.client.SendPriority;
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonMapper;
 import net.signalr.client.json.JsonWriteable;
 import net.signalr.client.json.JsonWriter;
+import net.signalr.client.util.StringBuilderWriter;
 
 /**
  * Represents a hub request.
  */
 final class HubRequest implements JsonWriteable {
 
+    /**
+     * The initial capacity of the reusable output.
+     */
+    private static final int INITIAL_OUTPUT_CAPACITY = 256;
+
+    /**
+     * The maximum capacity of the reusable output which is retained between requests.
+     */
+    private static final int MAXIMUM_OUTPUT_CAPACITY = 64 * 1024;
+
+    /**
+     * The reusable output of the current thread.
+     */
+    private static final ThreadLocal<StringBuilderWriter> OUTPUT = new ThreadLocal<StringBuilderWriter>() {
+        @Override
+        protected StringBuilderWriter initialValue() {
+            return new StringBuilderWriter(INITIAL_OUTPUT_CAPACITY);
+        }
+    };
+
     /**
      * The callback ID.
      */
@@ -46,11 +70,41 @@ final class HubRequest implements JsonWriteable {
      */
     private Object[] _arguments;
 
+    /**
+     * The argument codecs.
+     */
+    private JsonCodec<?>[] _argumentCodecs;
+
+    /**
+     * The serialized arguments or <code>null</code> if they have not been serialized yet.
+     */
+    private String _argumentsJson;
+
     /**
      * The state.
      */
     private Map<String, Object> _state;
 
+    /**
+     * The serialized state.
+     */
+    private String _stateJson;
+
+    /**
+     * The version of the state.
+     */
+    private long _stateVersion;
+
+    /**
+     * The request template.
+     */
+    private HubRequestTemplate _template;
+
+    /**
+     * The send priority.
+     */
+    private SendPriority _priority = SendPriority.NORMAL;
+
     /**
      * Sets the callback ID.
      * 
@@ -88,12 +142,162 @@ final class HubRequest implements JsonWriteable {
     }
 
     /**
-     * Sets the state.
+     * Sets the argument codecs.
      * 
-     * @param state The state.
+     * @param argumentCodecs The argument codecs.
      */
-    public void setState(final Map<String, Object> state) {
+    public void setArgumentCodecs(final JsonCodec<?>[] argumentCodecs) {
+        _argumentCodecs = argumentCodecs;
+    }
+
+    /**
+     * Sets the state together with its serialized form, which templated
+     * requests append instead of serializing the state again.
+     * 
+     * @param state The state or <code>null</code>.
+     * @param stateJson The serialized state or <code>null</code>.
+     */
+    public void setState(final Map<String, Object> state, final String stateJson) {
         _state = state;
+        _stateJson = stateJson;
+    }
+
+    /**
+     * Returns the version of the state.
+     * 
+     * @return The version of the state.
+     */
+    public long getStateVersion() {
+        return _stateVersion;
+    }
+
+    /**
+     * Sets the version of the state.
+     * 
+     * @param stateVersion The version of the state.
+     */
+    public void setStateVersion(final long stateVersion) {
+        _stateVersion = stateVersion;
+    }
+
+    /**
+     * Writes the arguments using the argument codecs.
+     * 
+     * @param writer The writer.
+     */
+    @SuppressWarnings("unchecked")
+    private void writeArguments(final JsonWriter writer) {
+        writer.writeBeginArray();
+
+        for (int i = 0; i < _arguments.length; i++) {
+            final Object argument = _arguments[i];
+            final JsonCodec<Object> codec = (_argumentCodecs != null) ? (JsonCodec<Object>) _argumentCodecs[i] : null;
+
+            if ((argument == null) || (codec == null)) {
+                writer.writeObject(argument);
+            } else {
+                codec.write(writer, argument);
+            }
+        }
+
+        writer.writeEndArray();
+    }
+
+    /**
+     * Returns the send priority.
+     * 
+     * @return The send priority.
+     */
+    public SendPriority getPriority() {
+        return _priority;
+    }
+
+    /**
+     * Sets the send priority.
+     * 
+     * @param priority The send priority.
+     */
+    public void setPriority(final SendPriority priority) {
+        _priority = priority;
+    }
+
+    /**
+     * Sets the request template which contains the serialized hub and method name.
+     * 
+     * @param template The request template.
+     */
+    public void setTemplate(final HubRequestTemplate template) {
+        _template = template;
+    }
+
+    /**
+     * Converts the request into a text.
+     * 
+     * @param mapper The mapper.
+     * @return The text.
+     */
+    public String toJson(final JsonMapper mapper) {
+        final StringBuilderWriter output = OUTPUT.get();
+        final StringBuilder builder = output.getBuilder();
+
+        builder.setLength(0);
+        if (_template == null) {
+            mapper.toJson(this, output);
+        } else {
+            // Only the arguments and the callback ID are serialized per invocation.
+            builder.append(_template.getPrefix());
+            if (_argumentsJson == null) {
+                mapper.toJson(newArgumentsWriteable(), output);
+            } else {
+                // The arguments have already been serialized for the result cache key.
+                builder.append(_argumentsJson);
+            }
+            builder.append(",\"I\":\"");
+            builder.append(_callbackId);
+            builder.append('"');
+            if (_stateJson != null) {
+                builder.append(",\"S\":");
+                builder.append(_stateJson);
+            }
+            builder.append('}');
+        }
+        final String text = builder.toString();
+
+        // Do not retain the output of exceptionally large requests.
+        if (builder.capacity() > MAXIMUM_OUTPUT_CAPACITY) {
+            OUTPUT.remove();
+        }
+
+        return text;
+    }
+
+    /**
+     * Converts the arguments into a text, which templated requests reuse
+     * instead of serializing the arguments again.
+     * 
+     * @param mapper The mapper.
+     * @return The text.
+     */
+    public String toArgumentsJson(final JsonMapper mapper) {
+        if (_argumentsJson == null) {
+            _argumentsJson = mapper.toJson(newArgumentsWriteable());
+        }
+
+        return _argumentsJson;
+    }
+
+    /**
+     * Creates a new writeable which writes the arguments.
+     * 
+     * @return The new writeable.
+     */
+    private JsonWriteable newArgumentsWriteable() {
+        return new JsonWriteable() {
+            @Override
+            public void writeJson(final JsonWriter writer) {
+                writeArguments(writer);
+            }
+        };
     }
 
     @Override
@@ -114,13 +318,16 @@ final class HubRequest implements JsonWriteable {
         }
         if (_arguments != null) {
             writer.writeName("A");
-            writer.writeObject(_arguments);
+            if (_argumentCodecs == null) {
+                writer.writeObject(_arguments);
+            } else {
+                writeArguments(writer);
+            }
         }
         if (_state != null) {
             writer.writeName("S");
             writer.writeObject(_state);
         }
-
         writer.writeEndObject();
     }
 }
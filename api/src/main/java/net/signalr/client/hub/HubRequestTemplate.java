@@ -0,0 +1,111 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import net.signalr.client.json.JsonMapper;
+
+/**
+ * Represents the precompiled request template of a hub method which holds the
+ * already serialized hub and method name.
+ */
+final class HubRequestTemplate {
+
+    /**
+     * The hub name.
+     */
+    private final String _hubName;
+
+    /**
+     * The method name.
+     */
+    private final String _methodName;
+
+    /**
+     * The serialized prefix up to and including the name of the arguments.
+     */
+    private final String _prefix;
+
+    /**
+     * Initializes a new instance of the {@link HubRequestTemplate} class.
+     *
+     * @param mapper The mapper.
+     * @param hubName The hub name.
+     * @param methodName The method name.
+     */
+    public HubRequestTemplate(final JsonMapper mapper, final String hubName, final String methodName) {
+        if (mapper == null) {
+            throw new IllegalArgumentException("Mapper must not be null");
+        }
+        if (hubName == null) {
+            throw new IllegalArgumentException("Hub name must not be null");
+        }
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+
+        _hubName = hubName;
+        _methodName = methodName;
+
+        _prefix = toPrefix(mapper, hubName, methodName);
+    }
+
+    /**
+     * Returns the serialized prefix for the specified hub and method name.
+     *
+     * @param mapper The mapper.
+     * @param hubName The hub name.
+     * @param methodName The method name.
+     * @return The serialized prefix.
+     */
+    private static String toPrefix(final JsonMapper mapper, final String hubName, final String methodName) {
+        final HubRequest request = new HubRequest();
+
+        request.setHubName(hubName);
+        request.setMethodName(methodName);
+        final String text = mapper.toJson(request);
+
+        // Reopen the serialized object to append the arguments.
+        return text.substring(0, text.lastIndexOf('}')) + ",\"A\":";
+    }
+
+    /**
+     * Returns the hub name.
+     *
+     * @return The hub name.
+     */
+    public String getHubName() {
+        return _hubName;
+    }
+
+    /**
+     * Returns the method name.
+     *
+     * @return The method name.
+     */
+    public String getMethodName() {
+        return _methodName;
+    }
+
+    /**
+     * Returns the serialized prefix up to and including the name of the arguments.
+     *
+     * @return The serialized prefix.
+     */
+    public String getPrefix() {
+        return _prefix;
+    }
+}
@@ -107,6 +107,24 @@ final class HubResponse {
         return _element.get("D").getString(null);
     }
 
+    /**
+     * Returns the callback ID of the invocation a progress notification belongs to.
+     * 
+     * @return The callback ID or <code>null</code> if the response is no progress notification.
+     */
+    public String getProgressCallbackId() {
+        return _element.get("P").get("I").getString(null);
+    }
+
+    /**
+     * Returns the data of a progress notification.
+     * 
+     * @return The data of the progress notification.
+     */
+    public JsonElement getProgressData() {
+        return _element.get("P").get("D");
+    }
+
     /**
      * Returns the message ID.
      * 
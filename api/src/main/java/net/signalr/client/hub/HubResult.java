@@ -0,0 +1,61 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.signalr.client.hub;
+
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonElement;
+import net.signalr.client.util.concurrent.promise.Apply;
+
+/**
+ * Represents a continuation which converts a hub response into the invocation result.
+ * 
+ * @param <R> The result type.
+ */
+final class HubResult<R> extends Apply<HubResponse, R> {
+
+    /**
+     * The result codec.
+     */
+    private final JsonCodec<R> _codec;
+
+    /**
+     * Initializes a new instance of the {@link HubResult} class.
+     * 
+     * @param codec The result codec.
+     */
+    public HubResult(final JsonCodec<R> codec) {
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec must not be null");
+        }
+
+        _codec = codec;
+    }
+
+    @Override
+    protected R doApply(final HubResponse response) throws Exception {
+        final String errorMessage = response.getErrorMessage();
+
+        if (errorMessage != null) {
+            final String errorData = response.getErrorData();
+            final String stackTrace = response.getStackTrace();
+
+            throw new HubException(errorMessage, errorData, stackTrace);
+        }
+        final JsonElement data = response.getData();
+
+        return data.toObject(_codec, null);
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Represents a size-bounded cache of the results of an idempotent server side
+ * hub method. Results are keyed by their serialized arguments, expire after a
+ * time to live and are evicted in least recently used order. Optionally, the
+ * cache is invalidated when one of the specified hub events arrives.
+ * 
+ * Hits take no lock, they only stamp the entry with the access time. Puts and
+ * invalidations are serialized by a lock, and a put beyond the maximum size
+ * scans the entries for the least recently used one, which is linear in the
+ * maximum size but only follows a server round trip.
+ */
+public final class HubResultCache {
+
+    /**
+     * The maximum number of entries.
+     */
+    private final int _maximumSize;
+
+    /**
+     * The time to live in nanoseconds.
+     */
+    private final long _timeToLive;
+
+    /**
+     * The names of the hub events which invalidate the cache.
+     */
+    private final List<String> _invalidationEvents;
+
+    /**
+     * The lock which serializes puts and invalidations.
+     */
+    private final ReentrantLock _lock;
+
+    /**
+     * The entries.
+     */
+    private final ConcurrentMap<String, Entry> _entries;
+
+    /**
+     * The generation which is incremented on invalidation.
+     */
+    private volatile long _generation;
+
+    /**
+     * The number of hits.
+     */
+    private final AtomicLong _hitCount;
+
+    /**
+     * The number of misses.
+     */
+    private final AtomicLong _missCount;
+
+    /**
+     * The number of evictions.
+     */
+    private final AtomicLong _evictionCount;
+
+    /**
+     * Initializes a new instance of the {@link HubResultCache} class.
+     * 
+     * @param maximumSize The maximum number of entries.
+     * @param timeToLive The time to live.
+     * @param timeUnit The time unit.
+     * @param invalidationEvents The names of the hub events which invalidate the cache.
+     */
+    public HubResultCache(final int maximumSize, final long timeToLive, final TimeUnit timeUnit, final String... invalidationEvents) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be greater than zero");
+        }
+        if (timeToLive < 1) {
+            throw new IllegalArgumentException("Time to live must be greater than zero");
+        }
+        if (timeUnit == null) {
+            throw new IllegalArgumentException("Time unit must not be null");
+        }
+        if (invalidationEvents == null) {
+            throw new IllegalArgumentException("Invalidation events must not be null");
+        }
+
+        _maximumSize = maximumSize;
+        _timeToLive = timeUnit.toNanos(timeToLive);
+        _invalidationEvents = Collections.unmodifiableList(Arrays.asList(invalidationEvents.clone()));
+
+        _lock = new ReentrantLock();
+        _entries = new ConcurrentHashMap<>();
+        _generation = 0;
+        _hitCount = new AtomicLong(0);
+        _missCount = new AtomicLong(0);
+        _evictionCount = new AtomicLong(0);
+    }
+
+    /**
+     * Returns the names of the hub events which invalidate the cache.
+     * 
+     * @return The names of the hub events.
+     */
+    public List<String> getInvalidationEvents() {
+        return _invalidationEvents;
+    }
+
+    /**
+     * Returns the number of entries.
+     * 
+     * @return The number of entries.
+     */
+    public int size() {
+        return _entries.size();
+    }
+
+    /**
+     * Returns the number of hits.
+     * 
+     * @return The number of hits.
+     */
+    public long getHitCount() {
+        return _hitCount.get();
+    }
+
+    /**
+     * Returns the number of misses.
+     * 
+     * @return The number of misses.
+     */
+    public long getMissCount() {
+        return _missCount.get();
+    }
+
+    /**
+     * Returns the number of evictions due to the size bound.
+     * 
+     * @return The number of evictions.
+     */
+    public long getEvictionCount() {
+        return _evictionCount.get();
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void invalidateAll() {
+        _lock.lock();
+        try {
+            _entries.clear();
+            _generation++;
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current generation.
+     * 
+     * @return The current generation.
+     */
+    long getGeneration() {
+        return _generation;
+    }
+
+    /**
+     * Returns the cached response for the specified arguments.
+     * 
+     * @param arguments The serialized arguments.
+     * @param now The current time in nanoseconds.
+     * @return The cached response or <code>null</code>.
+     */
+    HubResponse get(final String arguments, final long now) {
+        final Entry entry = _entries.get(arguments);
+
+        if (entry != null) {
+            if (now - entry._expirationTime < 0) {
+                entry._accessTime = now;
+                _hitCount.incrementAndGet();
+
+                return entry._response;
+            }
+            _entries.remove(arguments, entry);
+        }
+        _missCount.incrementAndGet();
+
+        return null;
+    }
+
+    /**
+     * Caches the specified response unless the cache has been invalidated
+     * since the specified generation.
+     * 
+     * @param arguments The serialized arguments.
+     * @param response The response.
+     * @param generation The generation at which the response was requested.
+     * @param now The current time in nanoseconds.
+     */
+    void put(final String arguments, final HubResponse response, final long generation, final long now) {
+        _lock.lock();
+        try {
+            if (generation != _generation) {
+                return;
+            }
+            _entries.put(arguments, new Entry(response, now + _timeToLive, now));
+            if (_entries.size() > _maximumSize) {
+                evict();
+            }
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the least recently used entry.
+     */
+    private void evict() {
+        Map.Entry<String, Entry> eldest = null;
+
+        for (final Map.Entry<String, Entry> entry : _entries.entrySet()) {
+            if ((eldest == null) || (entry.getValue()._accessTime - eldest.getValue()._accessTime < 0)) {
+                eldest = entry;
+            }
+        }
+        if ((eldest != null) && _entries.remove(eldest.getKey(), eldest.getValue())) {
+            _evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Represents a cache entry.
+     */
+    private static final class Entry {
+
+        /**
+         * The response.
+         */
+        private final HubResponse _response;
+
+        /**
+         * The expiration time in nanoseconds.
+         */
+        private final long _expirationTime;
+
+        /**
+         * The last access time in nanoseconds.
+         */
+        private volatile long _accessTime;
+
+        /**
+         * Initializes a new instance of the {@link Entry} class.
+         * 
+         * @param response The response.
+         * @param expirationTime The expiration time in nanoseconds.
+         * @param accessTime The access time in nanoseconds.
+         */
+        public Entry(final HubResponse response, final long expirationTime, final long accessTime) {
+            _response = response;
+            _expirationTime = expirationTime;
+            _accessTime = accessTime;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.JsonWriteable;
+import net.signalr.client.json.JsonWriter;
+
+/**
+ * Represents the round tripped state of a hub proxy. The state is kept as a
+ * versioned copy-on-write map whose serialized form is computed once per
+ * version, so unchanged state is not serialized again on every invocation.
+ */
+final class HubState {
+
+    /**
+     * The empty snapshot.
+     */
+    private static final Snapshot EMPTY_SNAPSHOT = new Snapshot(Collections.<String, Object> emptyMap(), 0);
+
+    /**
+     * The lock which serializes updates of the state.
+     */
+    private final Object _lock;
+
+    /**
+     * The current snapshot.
+     */
+    private volatile Snapshot _snapshot;
+
+    /**
+     * Initializes a new instance of the {@link HubState} class.
+     */
+    public HubState() {
+        _lock = new Object();
+        _snapshot = EMPTY_SNAPSHOT;
+    }
+
+    /**
+     * Returns the version which is incremented on every change.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return _snapshot._version;
+    }
+
+    /**
+     * Returns the value of the specified name.
+     *
+     * @param name The name.
+     * @return The value or <code>null</code> if the name is unknown.
+     */
+    public Object get(final String name) {
+        return _snapshot._values.get(name);
+    }
+
+    /**
+     * Returns an unmodifiable view of the current state.
+     *
+     * @return The current state.
+     */
+    public Map<String, Object> toMap() {
+        return _snapshot._values;
+    }
+
+    /**
+     * Sets the value of the specified name.
+     *
+     * @param name The name.
+     * @param value The value.
+     */
+    public void set(final String name, final Object value) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name must not be null");
+        }
+
+        merge(Collections.singletonMap(name, value));
+    }
+
+    /**
+     * Removes the value of the specified name.
+     *
+     * @param name The name.
+     */
+    public void remove(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name must not be null");
+        }
+
+        synchronized (_lock) {
+            final Snapshot snapshot = _snapshot;
+
+            if (!snapshot._values.containsKey(name)) {
+                return;
+            }
+            final Map<String, Object> values = new LinkedHashMap<>(snapshot._values);
+
+            values.remove(name);
+            _snapshot = new Snapshot(values, snapshot._version + 1);
+        }
+    }
+
+    /**
+     * Merges the specified changes into the state. A new version is only
+     * created if at least one value actually changes. Values are compared
+     * by their JSON meaning, since the server echoes them decoded to other
+     * types, e.g. numbers as doubles.
+     *
+     * @param changes The changes or <code>null</code>.
+     */
+    public void merge(final Map<String, Object> changes) {
+        if ((changes == null) || changes.isEmpty()) {
+            return;
+        }
+
+        synchronized (_lock) {
+            final Snapshot snapshot = _snapshot;
+            Map<String, Object> values = null;
+
+            for (final Map.Entry<String, Object> change : changes.entrySet()) {
+                final String name = change.getKey();
+                final Object value = change.getValue();
+
+                if (snapshot._values.containsKey(name) && isEqual(snapshot._values.get(name), value)) {
+                    continue;
+                }
+                if (values == null) {
+                    values = new LinkedHashMap<>(snapshot._values);
+                }
+                values.put(name, value);
+            }
+            if (values != null) {
+                _snapshot = new Snapshot(values, snapshot._version + 1);
+            }
+        }
+    }
+
+    /**
+     * Returns a value indicating whether the specified values are equal by
+     * their JSON meaning, i.e. numbers by their numeric value, and lists and
+     * maps by their elements regardless of their implementation.
+     *
+     * @param value1 The first value.
+     * @param value2 The second value.
+     * @return A value indicating whether the values are equal.
+     */
+    private static boolean isEqual(final Object value1, final Object value2) {
+        if ((value1 instanceof Number) && (value2 instanceof Number)) {
+            try {
+                return new BigDecimal(value1.toString()).compareTo(new BigDecimal(value2.toString())) == 0;
+            } catch (final NumberFormatException e) {
+                // Not a finite number, e.g. NaN.
+                return value1.equals(value2);
+            }
+        }
+        if ((value1 instanceof List) && (value2 instanceof List)) {
+            final List<?> list1 = (List<?>) value1;
+            final List<?> list2 = (List<?>) value2;
+
+            if (list1.size() != list2.size()) {
+                return false;
+            }
+            final Iterator<?> iterator2 = list2.iterator();
+
+            for (final Object element1 : list1) {
+                if (!isEqual(element1, iterator2.next())) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+        if ((value1 instanceof Map) && (value2 instanceof Map)) {
+            final Map<?, ?> map1 = (Map<?, ?>) value1;
+            final Map<?, ?> map2 = (Map<?, ?>) value2;
+
+            if (map1.size() != map2.size()) {
+                return false;
+            }
+            for (final Map.Entry<?, ?> entry1 : map1.entrySet()) {
+                final Object key = entry1.getKey();
+
+                if (!map2.containsKey(key) || !isEqual(entry1.getValue(), map2.get(key))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        return Objects.equals(value1, value2);
+    }
+
+    /**
+     * Attaches the serialized form and the version of the current state to
+     * the specified request.
+     *
+     * @param request The request.
+     * @param mapper The mapper.
+     */
+    public void attach(final HubRequest request, final JsonMapper mapper) {
+        final Snapshot snapshot = _snapshot;
+
+        final String json = snapshot.toJson(mapper);
+
+        request.setState((json != null) ? snapshot._values : null, json);
+        request.setStateVersion(snapshot._version);
+    }
+
+    /**
+     * Represents an immutable version of the state.
+     */
+    private static final class Snapshot implements JsonWriteable {
+
+        /**
+         * The values.
+         */
+        private final Map<String, Object> _values;
+
+        /**
+         * The version.
+         */
+        private final long _version;
+
+        /**
+         * The lazily serialized values.
+         */
+        private volatile String _json;
+
+        /**
+         * Initializes a new instance of the {@link Snapshot} class.
+         *
+         * @param values The values.
+         * @param version The version.
+         */
+        public Snapshot(final Map<String, Object> values, final long version) {
+            _values = Collections.unmodifiableMap(values);
+            _version = version;
+        }
+
+        /**
+         * Returns the serialized values.
+         *
+         * @param mapper The mapper.
+         * @return The serialized values or <code>null</code> if there are none.
+         */
+        public String toJson(final JsonMapper mapper) {
+            if (_values.isEmpty()) {
+                return null;
+            }
+            String json = _json;
+
+            // Concurrent callers may serialize the same snapshot twice, which is harmless.
+            if (json == null) {
+                json = mapper.toJson(this);
+                _json = json;
+            }
+
+            return json;
+        }
+
+        @Override
+        public void writeJson(final JsonWriter writer) {
+            writer.writeObject(_values);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+/**
+ * Defines an indexer which extracts the index key of a value in a hub state store.
+ * 
+ * @param <K> The index key type.
+ * @param <V> The value type.
+ */
+public interface HubStateIndexer<K, V> {
+
+    /**
+     * Returns the index key of the specified value.
+     * 
+     * @param value The value.
+     * @return The index key.
+     */
+    K getKey(V value);
+}
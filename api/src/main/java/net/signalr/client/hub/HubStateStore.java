@@ -0,0 +1,575 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.signalr.client.ConnectionAdapter;
+import net.signalr.client.util.concurrent.promise.Apply;
+import net.signalr.client.util.concurrent.promise.OnFailure;
+import net.signalr.client.util.concurrent.promise.Promise;
+
+/**
+ * Represents a client side replica of keyed server state which is fed by hub
+ * events. The server publishes three events, each with the state version as
+ * second argument:
+ * <ul>
+ * <li>a snapshot event with an array of all values, which replaces the state,</li>
+ * <li>an upsert event with a single value, which adds or replaces the value,</li>
+ * <li>a remove event with a single key, which removes the value.</li>
+ * </ul>
+ * Events with a version not greater than the applied version are ignored.
+ * Upserts and removes are expected to carry consecutive versions, hence one
+ * which skips a version is not applied but triggers a resync, e.g. when it
+ * overtakes the snapshot. After a reconnect, the store invokes the resync
+ * method with the applied version and expects the server to replay the missed
+ * events, or a snapshot if it cannot. Reads are served from memory without
+ * locking, while updates are serialized. A snapshot is built aside and
+ * published at once, hence readers never observe a partially applied one.
+ * 
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public final class HubStateStore<K extends Comparable<? super K>, V> extends ConnectionAdapter {
+
+    /**
+     * The private logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(HubStateStore.class);
+
+    /**
+     * The hub proxy.
+     */
+    private final HubProxy _proxy;
+
+    /**
+     * The key indexer.
+     */
+    private final HubStateIndexer<K, V> _keyIndexer;
+
+    /**
+     * The resync method name.
+     */
+    private final String _resyncMethodName;
+
+    /**
+     * The secondary indexers by name.
+     */
+    private final Map<String, HubStateIndexer<?, V>> _indexers;
+
+    /**
+     * The current state.
+     */
+    private volatile State _state;
+
+    /**
+     * The lock which serializes updates.
+     */
+    private final Object _lock;
+
+    /**
+     * The hub subscriptions.
+     */
+    private final List<HubSubscription> _subscriptions;
+
+    /**
+     * The applied version.
+     */
+    private volatile long _version;
+
+    /**
+     * The version at which the last resync has been requested due to a
+     * version gap or <code>-1</code>.
+     */
+    private long _resyncVersion;
+
+    /**
+     * Initializes a new instance of the {@link HubStateStore} class.
+     * 
+     * @param proxy The hub proxy.
+     * @param keyType The key type.
+     * @param valueType The value type.
+     * @param keyIndexer The key indexer.
+     * @param snapshotEventName The snapshot event name.
+     * @param upsertEventName The upsert event name.
+     * @param removeEventName The remove event name.
+     * @param resyncMethodName The resync method name.
+     */
+    @SuppressWarnings("unchecked")
+    public HubStateStore(final HubProxy proxy, final Class<K> keyType, final Class<V> valueType, final HubStateIndexer<K, V> keyIndexer, final String snapshotEventName, final String upsertEventName, final String removeEventName, final String resyncMethodName) {
+        if (proxy == null) {
+            throw new IllegalArgumentException("Proxy must not be null");
+        }
+        if (keyType == null) {
+            throw new IllegalArgumentException("Key type must not be null");
+        }
+        if (valueType == null) {
+            throw new IllegalArgumentException("Value type must not be null");
+        }
+        if (keyIndexer == null) {
+            throw new IllegalArgumentException("Key indexer must not be null");
+        }
+        if (snapshotEventName == null) {
+            throw new IllegalArgumentException("Snapshot event name must not be null");
+        }
+        if (upsertEventName == null) {
+            throw new IllegalArgumentException("Upsert event name must not be null");
+        }
+        if (removeEventName == null) {
+            throw new IllegalArgumentException("Remove event name must not be null");
+        }
+        if (resyncMethodName == null) {
+            throw new IllegalArgumentException("Resync method name must not be null");
+        }
+
+        _proxy = proxy;
+        _keyIndexer = keyIndexer;
+        _resyncMethodName = resyncMethodName;
+
+        _indexers = new LinkedHashMap<>();
+        _state = new State();
+        _lock = new Object();
+        _subscriptions = new ArrayList<>(3);
+        _version = 0;
+        _resyncVersion = -1;
+
+        final Class<V[]> valuesType = (Class<V[]>) Array.newInstance(valueType, 0).getClass();
+
+        _subscriptions.add(proxy.subscribe(snapshotEventName, new Class<?>[] { valuesType, Long.class }, new HubCallback<Object[]>() {
+            @Override
+            public void onInvoke(final Object[] arguments) {
+                final V[] values = (V[]) arguments[0];
+                final Long version = (Long) arguments[1];
+
+                if ((values != null) && (version != null)) {
+                    applySnapshot(values, version);
+                }
+            }
+        }));
+        _subscriptions.add(proxy.subscribe(upsertEventName, new Class<?>[] { valueType, Long.class }, new HubCallback<Object[]>() {
+            @Override
+            public void onInvoke(final Object[] arguments) {
+                final V value = (V) arguments[0];
+                final Long version = (Long) arguments[1];
+
+                if ((value != null) && (version != null)) {
+                    applyUpsert(value, version);
+                }
+            }
+        }));
+        _subscriptions.add(proxy.subscribe(removeEventName, new Class<?>[] { keyType, Long.class }, new HubCallback<Object[]>() {
+            @Override
+            public void onInvoke(final Object[] arguments) {
+                final K key = (K) arguments[0];
+                final Long version = (Long) arguments[1];
+
+                if ((key != null) && (version != null)) {
+                    applyRemove(key, version);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Adds a secondary index.
+     * 
+     * @param indexName The index name.
+     * @param indexer The indexer.
+     */
+    public void addIndex(final String indexName, final HubStateIndexer<?, V> indexer) {
+        if (indexName == null) {
+            throw new IllegalArgumentException("Index name must not be null");
+        }
+        if (indexer == null) {
+            throw new IllegalArgumentException("Indexer must not be null");
+        }
+
+        synchronized (_lock) {
+            if (_indexers.containsKey(indexName)) {
+                throw new IllegalStateException("Index '" + indexName + "' already exists");
+            }
+            final State state = _state;
+            final Index index = new Index(indexer);
+
+            for (final Map.Entry<K, V> entry : state._values.entrySet()) {
+                index.add(entry.getKey(), entry.getValue());
+            }
+            _indexers.put(indexName, indexer);
+            state._indexes.put(indexName, index);
+        }
+    }
+
+    /**
+     * Returns the applied version.
+     * 
+     * @return The applied version.
+     */
+    public long getVersion() {
+        return _version;
+    }
+
+    /**
+     * Returns the number of values.
+     * 
+     * @return The number of values.
+     */
+    public int size() {
+        return _state._values.size();
+    }
+
+    /**
+     * Returns the value for the specified key.
+     * 
+     * @param key The key.
+     * @return The value or <code>null</code>.
+     */
+    public V get(final K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+
+        return _state._values.get(key);
+    }
+
+    /**
+     * Returns a read-only view of the values with keys in the specified range.
+     * 
+     * @param fromKey The inclusive lower bound.
+     * @param toKey The exclusive upper bound.
+     * @return The values by key.
+     */
+    public SortedMap<K, V> getRange(final K fromKey, final K toKey) {
+        if (fromKey == null) {
+            throw new IllegalArgumentException("From key must not be null");
+        }
+        if (toKey == null) {
+            throw new IllegalArgumentException("To key must not be null");
+        }
+
+        return Collections.unmodifiableSortedMap(_state._values.subMap(fromKey, toKey));
+    }
+
+    /**
+     * Returns the values with the specified key in the specified secondary index.
+     * 
+     * @param indexName The index name.
+     * @param indexKey The index key.
+     * @return The values.
+     */
+    public List<V> getByIndex(final String indexName, final Object indexKey) {
+        if (indexName == null) {
+            throw new IllegalArgumentException("Index name must not be null");
+        }
+
+        final State state = _state;
+        final Index index = state._indexes.get(indexName);
+
+        if (index == null) {
+            throw new IllegalArgumentException("Index '" + indexName + "' does not exist");
+        }
+        final Collection<K> keys = index.get(indexKey);
+        final List<V> values = new ArrayList<>(keys.size());
+
+        for (final K key : keys) {
+            final V value = state._values.get(key);
+
+            if (value != null) {
+                values.add(value);
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Requests the events which have been missed since the applied version.
+     * 
+     * @return The resync result.
+     */
+    public Promise<Void> resync() {
+        // The result is ignored, since the server replays the missed events.
+        return _proxy.invoke(_resyncMethodName, Object.class, _version).then(new Apply<Object, Void>() {
+            @Override
+            protected Void doApply(final Object value) throws Exception {
+                return null;
+            }
+        }).then(new OnFailure<Void>() {
+            @Override
+            protected void onFailure(final Throwable cause) throws Exception {
+                LOGGER.warn("Failed to resync state", cause);
+            }
+        });
+    }
+
+    /**
+     * Unsubscribes the store from the hub events.
+     */
+    public void close() {
+        for (final HubSubscription subscription : _subscriptions) {
+            subscription.unsubscribe();
+        }
+    }
+
+    @Override
+    public void onReconnected() {
+        resync();
+    }
+
+    /**
+     * Replaces the state with the specified values.
+     * 
+     * @param values The values.
+     * @param version The version.
+     */
+    void applySnapshot(final V[] values, final long version) {
+        synchronized (_lock) {
+            if (version < _version) {
+                return;
+            }
+            // Builds the new state aside, since reads take no lock.
+            final State state = new State();
+
+            for (final Map.Entry<String, HubStateIndexer<?, V>> entry : _indexers.entrySet()) {
+                state._indexes.put(entry.getKey(), new Index(entry.getValue()));
+            }
+            for (final V value : values) {
+                state.put(_keyIndexer, value);
+            }
+            _state = state;
+            _version = version;
+        }
+    }
+
+    /**
+     * Adds or replaces the specified value.
+     * 
+     * @param value The value.
+     * @param version The version.
+     */
+    void applyUpsert(final V value, final long version) {
+        synchronized (_lock) {
+            if (version <= _version) {
+                return;
+            }
+            if (version == _version + 1) {
+                _state.put(_keyIndexer, value);
+                _version = version;
+                return;
+            }
+        }
+        resyncOnGap(version);
+    }
+
+    /**
+     * Removes the value with the specified key.
+     * 
+     * @param key The key.
+     * @param version The version.
+     */
+    void applyRemove(final K key, final long version) {
+        synchronized (_lock) {
+            if (version <= _version) {
+                return;
+            }
+            if (version == _version + 1) {
+                _state.remove(key);
+                _version = version;
+                return;
+            }
+        }
+        resyncOnGap(version);
+    }
+
+    /**
+     * Requests a resync for the specified version, which skips versions after
+     * the applied version, once per applied version.
+     * 
+     * @param version The version.
+     */
+    private void resyncOnGap(final long version) {
+        synchronized (_lock) {
+            if ((version <= _version + 1) || (_resyncVersion == _version)) {
+                return;
+            }
+            _resyncVersion = _version;
+        }
+        LOGGER.info("Missed state versions after {} before {}, resyncing", _version, version);
+        resync();
+    }
+
+    /**
+     * Represents the values and their secondary indexes.
+     */
+    private final class State {
+
+        /**
+         * The values by key.
+         */
+        private final ConcurrentSkipListMap<K, V> _values;
+
+        /**
+         * The secondary indexes by name.
+         */
+        private final ConcurrentMap<String, Index> _indexes;
+
+        /**
+         * Initializes a new instance of the {@link State} class.
+         */
+        public State() {
+            _values = new ConcurrentSkipListMap<>();
+            _indexes = new ConcurrentHashMap<>();
+        }
+
+        /**
+         * Puts the specified value and updates the secondary indexes.
+         * 
+         * @param keyIndexer The key indexer.
+         * @param value The value.
+         */
+        public void put(final HubStateIndexer<K, V> keyIndexer, final V value) {
+            final K key = keyIndexer.getKey(value);
+
+            if (key == null) {
+                LOGGER.warn("Ignoring value without key: {}", value);
+                return;
+            }
+            final V oldValue = _values.put(key, value);
+
+            for (final Index index : _indexes.values()) {
+                if (oldValue != null) {
+                    index.remove(key, oldValue);
+                }
+                index.add(key, value);
+            }
+        }
+
+        /**
+         * Removes the value with the specified key and updates the secondary indexes.
+         * 
+         * @param key The key.
+         */
+        public void remove(final K key) {
+            final V oldValue = _values.remove(key);
+
+            if (oldValue != null) {
+                for (final Index index : _indexes.values()) {
+                    index.remove(key, oldValue);
+                }
+            }
+        }
+    }
+
+    /**
+     * Represents a secondary index which maps index keys to keys.
+     */
+    private final class Index {
+
+        /**
+         * The indexer.
+         */
+        private final HubStateIndexer<?, V> _indexer;
+
+        /**
+         * The keys by index key.
+         */
+        private final ConcurrentMap<Object, Set<K>> _keys;
+
+        /**
+         * Initializes a new instance of the {@link Index} class.
+         * 
+         * @param indexer The indexer.
+         */
+        public Index(final HubStateIndexer<?, V> indexer) {
+            _indexer = indexer;
+
+            _keys = new ConcurrentHashMap<>();
+        }
+
+        /**
+         * Returns the keys for the specified index key.
+         * 
+         * @param indexKey The index key.
+         * @return The keys.
+         */
+        public Collection<K> get(final Object indexKey) {
+            if (indexKey == null) {
+                return Collections.emptySet();
+            }
+
+            final Set<K> keys = _keys.get(indexKey);
+
+            return (keys == null) ? Collections.<K> emptySet() : keys;
+        }
+
+        /**
+         * Adds the specified value.
+         * 
+         * @param key The key.
+         * @param value The value.
+         */
+        public void add(final K key, final V value) {
+            final Object indexKey = _indexer.getKey(value);
+
+            if (indexKey == null) {
+                return;
+            }
+            Set<K> keys = _keys.get(indexKey);
+
+            if (keys == null) {
+                keys = Collections.newSetFromMap(new ConcurrentHashMap<K, Boolean>());
+                _keys.put(indexKey, keys);
+            }
+            keys.add(key);
+        }
+
+        /**
+         * Removes the specified value.
+         * 
+         * @param key The key.
+         * @param value The value.
+         */
+        public void remove(final K key, final V value) {
+            final Object indexKey = _indexer.getKey(value);
+
+            if (indexKey == null) {
+                return;
+            }
+            final Set<K> keys = _keys.get(indexKey);
+
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    _keys.remove(indexKey, keys);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonElement;
+
+/**
+ * Represents an immutable array of the subscribers of a client side hub method.
+ * The arguments are decoded once per distinct codec and shared by all
+ * subscribers using that codec.
+ */
+final class HubSubscribers implements HubCallback<HubMessage> {
+
+    /**
+     * The private logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(HubSubscribers.class);
+
+    /**
+     * The subscribers.
+     */
+    private final Subscriber[] _subscribers;
+
+    /**
+     * The index of the subscriber which decodes the argument for each subscriber.
+     */
+    private final int[] _decoders;
+
+    /**
+     * Initializes a new instance of the {@link HubSubscribers} class.
+     * 
+     * @param subscribers The subscribers.
+     */
+    private HubSubscribers(final Subscriber[] subscribers) {
+        _subscribers = subscribers;
+
+        _decoders = new int[subscribers.length];
+        for (int i = 0; i < subscribers.length; i++) {
+            final JsonCodec<?> codec = subscribers[i]._codec;
+            int decoder = i;
+
+            if (codec != null) {
+                // Codecs are cached per type by the mapper, hence identity suffices.
+                for (int j = 0; j < i; j++) {
+                    if (subscribers[j]._codec == codec) {
+                        decoder = j;
+                        break;
+                    }
+                }
+            }
+            _decoders[i] = decoder;
+        }
+    }
+
+    /**
+     * Returns the subscribers consisting of the specified subscriber.
+     * 
+     * @param subscriber The subscriber.
+     * @return The subscribers.
+     */
+    public static HubSubscribers of(final Subscriber subscriber) {
+        return new HubSubscribers(new Subscriber[] { subscriber });
+    }
+
+    /**
+     * Returns a copy of the subscribers with the specified subscriber appended.
+     * 
+     * @param subscriber The subscriber.
+     * @return The new subscribers.
+     */
+    public HubSubscribers with(final Subscriber subscriber) {
+        final Subscriber[] subscribers = Arrays.copyOf(_subscribers, _subscribers.length + 1);
+
+        subscribers[_subscribers.length] = subscriber;
+
+        return new HubSubscribers(subscribers);
+    }
+
+    /**
+     * Returns a copy of the subscribers without the specified subscriber.
+     * 
+     * @param subscriber The subscriber.
+     * @return The new subscribers, the same subscribers if the subscriber is
+     *         unknown or <code>null</code> if no subscriber remains.
+     */
+    public HubSubscribers without(final Subscriber subscriber) {
+        for (int i = 0; i < _subscribers.length; i++) {
+            if (_subscribers[i] != subscriber) {
+                continue;
+            }
+            if (_subscribers.length == 1) {
+                return null;
+            }
+            final Subscriber[] subscribers = new Subscriber[_subscribers.length - 1];
+
+            System.arraycopy(_subscribers, 0, subscribers, 0, i);
+            System.arraycopy(_subscribers, i + 1, subscribers, i, subscribers.length - i);
+
+            return new HubSubscribers(subscribers);
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns the number of subscribers.
+     * 
+     * @return The number of subscribers.
+     */
+    public int size() {
+        return _subscribers.length;
+    }
+
+    @Override
+    public void onInvoke(final HubMessage message) {
+        if (_subscribers.length == 1) {
+            // Fails like any of several subscribers, so subscribing does not change how errors surface.
+            try {
+                _subscribers[0].onInvoke(message);
+            } catch (final Throwable t) {
+                LOGGER.warn("Failed to invoke hub subscriber", t);
+            }
+            return;
+        }
+        final Object[] objects = new Object[_subscribers.length];
+        JsonElement argument = null;
+        boolean invalid = false;
+
+        for (int i = 0; i < _subscribers.length; i++) {
+            final Subscriber subscriber = _subscribers[i];
+
+            try {
+                if (subscriber._codec == null) {
+                    subscriber._callback.onInvoke(message);
+                    continue;
+                }
+                if (invalid) {
+                    continue;
+                }
+                final int decoder = _decoders[i];
+
+                if (decoder == i) {
+                    if (argument == null) {
+                        argument = subscriber.getArgument(message);
+                        if (argument == null) {
+                            invalid = true;
+                            continue;
+                        }
+                    }
+                    objects[i] = argument.toObject(subscriber._codec, null);
+                }
+                subscriber._callback.onInvoke(objects[decoder]);
+            } catch (final Throwable t) {
+                LOGGER.warn("Failed to invoke hub subscriber", t);
+            }
+        }
+    }
+
+    /**
+     * Represents a subscriber which either receives the hub message or the
+     * argument decoded with its codec.
+     */
+    static final class Subscriber {
+
+        /**
+         * The argument codec or <code>null</code> if the callback receives the hub message.
+         */
+        private final JsonCodec<?> _codec;
+
+        /**
+         * The callback.
+         */
+        private final HubCallback<Object> _callback;
+
+        /**
+         * Initializes a new instance of the {@link Subscriber} class.
+         * 
+         * @param codec The argument codec or <code>null</code>.
+         * @param callback The callback.
+         */
+        @SuppressWarnings("unchecked")
+        public Subscriber(final JsonCodec<?> codec, final HubCallback<?> callback) {
+            if (callback == null) {
+                throw new IllegalArgumentException("Callback must not be null");
+            }
+
+            _codec = codec;
+            _callback = (HubCallback<Object>) callback;
+        }
+
+        /**
+         * Returns the single argument of the specified hub message.
+         * 
+         * @param message The hub message.
+         * @return The argument or <code>null</code> if the number of arguments is wrong.
+         */
+        private JsonElement getArgument(final HubMessage message) {
+            final JsonElement arguments = message.getArguments();
+            final int count = arguments.size();
+
+            if (count != 1) {
+                LOGGER.warn("Received message with wrong number of arguments: {}", count);
+                return null;
+            }
+
+            return arguments.get(0);
+        }
+
+        /**
+         * Invokes the callback with the specified hub message.
+         * 
+         * @param message The hub message.
+         */
+        private void onInvoke(final HubMessage message) {
+            if (_codec == null) {
+                _callback.onInvoke(message);
+                return;
+            }
+            final JsonElement argument = getArgument(message);
+
+            if (argument != null) {
+                _callback.onInvoke(argument.toObject(_codec, null));
+            }
+        }
+    }
+}
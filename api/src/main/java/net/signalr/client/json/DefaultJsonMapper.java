@@ -17,19 +17,34 @@
 package net.signalr.client.json;
 
 import java.io.StringReader;
-import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.signalr.client.util.StringBuilderWriter;
 
 /**
  * Represents the default JSON mapper.
  */
 public final class DefaultJsonMapper implements JsonMapper {
 
+    /**
+     * The initial capacity of the output.
+     */
+    private static final int INITIAL_OUTPUT_CAPACITY = 64;
+
     /**
      * The factory.
      */
     private final JsonFactory _factory;
 
+    /**
+     * The codecs.
+     */
+    private final ConcurrentMap<Type, JsonCodec<?>> _codecs;
+
     /**
      * Initializes a new instance of the {@link DefaultJsonMapper}.
      * 
@@ -41,6 +56,8 @@ public final class DefaultJsonMapper implements JsonMapper {
         }
 
         _factory = factory;
+
+        _codecs = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -49,11 +66,8 @@ public final class DefaultJsonMapper implements JsonMapper {
             throw new IllegalArgumentException("Text must not be null");
         }
 
-        final StringReader input = new StringReader(text);
-
-        try (final JsonReader reader = _factory.newReader(input)) {
-            return reader.readElement();
-        }
+        // Members are located and materialized on demand only.
+        return LazyJsonElement.newElement(_factory, text);
     }
 
     @Override
@@ -90,12 +104,67 @@ public final class DefaultJsonMapper implements JsonMapper {
             throw new IllegalArgumentException("Object must not be null");
         }
 
-        final StringWriter output = new StringWriter();
+        final StringBuilderWriter output = new StringBuilderWriter(INITIAL_OUTPUT_CAPACITY);
+
+        toJson(object, output);
+
+        return output.toString();
+    }
+
+    @Override
+    public final void toJson(final JsonWriteable object, final Writer output) {
+        if (object == null) {
+            throw new IllegalArgumentException("Object must not be null");
+        }
+        if (output == null) {
+            throw new IllegalArgumentException("Output must not be null");
+        }
 
         try (final JsonWriter writer = _factory.newWriter(output)) {
             object.writeJson(writer);
         }
+    }
 
-        return output.toString();
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <T> JsonCodec<T> getCodec(final Class<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        JsonCodec<T> codec = (JsonCodec<T>) _codecs.get(type);
+
+        if (codec == null) {
+            codec = _factory.newCodec(type);
+            final JsonCodec<T> existingCodec = (JsonCodec<T>) _codecs.putIfAbsent(type, codec);
+
+            if (existingCodec != null) {
+                codec = existingCodec;
+            }
+        }
+
+        return codec;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <T> JsonCodec<T> getCodec(final JsonType<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        final Type key = type.getType();
+        JsonCodec<T> codec = (JsonCodec<T>) _codecs.get(key);
+
+        if (codec == null) {
+            codec = _factory.newCodec(type);
+            final JsonCodec<T> existingCodec = (JsonCodec<T>) _codecs.putIfAbsent(key, codec);
+
+            if (existingCodec != null) {
+                codec = existingCodec;
+            }
+        }
+
+        return codec;
     }
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json;
+
+/**
+ * Defines a JSON codec which reads and writes objects of a specific type.
+ */
+public interface JsonCodec<T> {
+
+    /**
+     * Reads an object from a reader.
+     * 
+     * @param reader The reader.
+     * @return The object.
+     */
+    T read(JsonReader reader);
+
+    /**
+     * Writes an object to a writer.
+     * 
+     * @param writer The writer.
+     * @param object The object.
+     */
+    void write(JsonWriter writer, T object);
+}
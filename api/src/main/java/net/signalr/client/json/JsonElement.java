@@ -121,4 +121,13 @@ public interface JsonElement {
      * @return The object.
      */
     <T> T toObject(Class<T> type, T defaultValue);
+
+    /**
+     * Returns the element as an object using the specified codec.
+     * 
+     * @param codec The codec.
+     * @param defaultValue The default value.
+     * @return The object.
+     */
+    <T> T toObject(JsonCodec<T> codec, T defaultValue);
 }
@@ -97,6 +97,11 @@ public final class JsonEmpty implements JsonElement {
         return defaultValue;
     }
 
+    @Override
+    public <T> T toObject(final JsonCodec<T> codec, final T defaultValue) {
+        return defaultValue;
+    }
+
     @Override
     public int hashCode() {
         return JsonEmpty.class.hashCode();
@@ -39,4 +39,20 @@ public interface JsonFactory {
      * @return The new writer.
      */
     JsonWriter newWriter(Writer output);
+
+    /**
+     * Creates a new codec for the specified type.
+     * 
+     * @param type The object type.
+     * @return The new codec.
+     */
+    <T> JsonCodec<T> newCodec(Class<T> type);
+
+    /**
+     * Creates a new codec for the specified generic type.
+     * 
+     * @param type The object type.
+     * @return The new codec.
+     */
+    <T> JsonCodec<T> newCodec(JsonType<T> type);
 }
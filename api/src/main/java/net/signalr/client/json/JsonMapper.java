@@ -16,6 +16,8 @@
 
 package net.signalr.client.json;
 
+import java.io.Writer;
+
 /**
  * Defines a JSON mapper.
  */
@@ -45,4 +47,28 @@ public interface JsonMapper {
      * @return The text.
      */
     String toJson(JsonWriteable object);
+
+    /**
+     * Writes the specified object as text to the specified output.
+     * 
+     * @param object The object.
+     * @param output The output.
+     */
+    void toJson(JsonWriteable object, Writer output);
+
+    /**
+     * Returns the codec for the specified type.
+     * 
+     * @param type The object type.
+     * @return The codec.
+     */
+    <T> JsonCodec<T> getCodec(Class<T> type);
+
+    /**
+     * Returns the codec for the specified generic type.
+     * 
+     * @param type The object type.
+     * @return The codec.
+     */
+    <T> JsonCodec<T> getCodec(JsonType<T> type);
 }
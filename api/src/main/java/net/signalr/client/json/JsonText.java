@@ -0,0 +1,69 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json;
+
+/**
+ * Provides access to the raw JSON text of elements.
+ */
+public final class JsonText {
+
+    /**
+     * Initializes a new instance of the {@link JsonText} class.
+     */
+    private JsonText() {
+    }
+
+    /**
+     * Returns the raw JSON text of the specified element. Lazy elements return
+     * their slice of the received frame without building a tree, other elements
+     * are serialized.
+     *
+     * @param element The element.
+     * @return The raw JSON text.
+     */
+    public static String toText(final JsonElement element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element must not be null");
+        }
+
+        if (element instanceof LazyJsonElement) {
+            return ((LazyJsonElement) element).getText();
+        }
+
+        return element.toString();
+    }
+
+    /**
+     * Returns the hash of the raw JSON text of the specified element, which
+     * equals the hash code of {@link #toText(JsonElement)}. Lazy elements hash
+     * their slice of the received frame in place.
+     *
+     * @param element The element.
+     * @return The hash of the raw JSON text.
+     */
+    public static int hash(final JsonElement element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element must not be null");
+        }
+
+        if (element instanceof LazyJsonElement) {
+            return ((LazyJsonElement) element).hashText();
+        }
+
+        return element.toString().hashCode();
+    }
+}
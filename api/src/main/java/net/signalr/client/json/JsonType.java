@@ -0,0 +1,100 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Represents a JSON type token which captures a generic type like
+ * <code>new JsonType&lt;List&lt;Quote&gt;&gt;() {}</code>.
+ */
+public abstract class JsonType<T> {
+
+    /**
+     * The captured type.
+     */
+    private final Type _type;
+
+    /**
+     * Initializes a new instance of the {@link JsonType} class.
+     */
+    protected JsonType() {
+        final Type superclass = getClass().getGenericSuperclass();
+
+        if (!(superclass instanceof ParameterizedType)) {
+            throw new IllegalStateException("Type parameter must be specified");
+        }
+        final ParameterizedType parameterizedType = (ParameterizedType) superclass;
+
+        _type = parameterizedType.getActualTypeArguments()[0];
+    }
+
+    /**
+     * Initializes a new instance of the {@link JsonType} class.
+     * 
+     * @param type The reflected type.
+     */
+    private JsonType(final Type type) {
+        _type = type;
+    }
+
+    /**
+     * Returns the type token for the specified reflected type.
+     * 
+     * @param type The reflected type.
+     * @return The type token.
+     */
+    public static JsonType<?> get(final Type type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        return new JsonType<Object>(type) {
+        };
+    }
+
+    /**
+     * Returns the captured type.
+     * 
+     * @return The captured type.
+     */
+    public final Type getType() {
+        return _type;
+    }
+
+    @Override
+    public final int hashCode() {
+        return _type.hashCode();
+    }
+
+    @Override
+    public final boolean equals(final Object other) {
+        if (!(other instanceof JsonType)) {
+            return false;
+        }
+
+        final JsonType<?> type = (JsonType<?>) other;
+
+        return _type.equals(type._type);
+    }
+
+    @Override
+    public final String toString() {
+        return _type.toString();
+    }
+}
@@ -0,0 +1,716 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json;
+
+import java.io.StringReader;
+
+/**
+ * Represents a lazy JSON element backed by the raw JSON text.
+ * 
+ * The element only records the offsets of its direct members when they are accessed for the first time. Values are
+ * materialized by the underlying factory when they are actually requested, so that large payloads can be mapped
+ * straight into objects without building an intermediate tree.
+ * 
+ * Primitive accessors are strict on every backend: a value of another JSON type yields the default value instead of
+ * being coerced, e.g. the string of a number.
+ */
+final class LazyJsonElement implements JsonElement {
+
+    /**
+     * The factory.
+     */
+    private final JsonFactory _factory;
+
+    /**
+     * The raw JSON text.
+     */
+    private final String _text;
+
+    /**
+     * The start offset of the element (inclusive).
+     */
+    private final int _start;
+
+    /**
+     * The end offset of the element (exclusive).
+     */
+    private final int _end;
+
+    /**
+     * The structural index.
+     */
+    private Index _index;
+
+    /**
+     * The materialized element.
+     */
+    private JsonElement _element;
+
+    /**
+     * Initializes a new instance of the {@link LazyJsonElement} class.
+     * 
+     * @param factory The factory.
+     * @param text The raw JSON text.
+     * @param start The start offset of the element (inclusive).
+     * @param end The end offset of the element (exclusive).
+     */
+    private LazyJsonElement(final JsonFactory factory, final String text, final int start, final int end) {
+        _factory = factory;
+        _text = text;
+        _start = start;
+        _end = end;
+    }
+
+    /**
+     * Creates a new lazy element for the specified text.
+     * 
+     * @param factory The factory.
+     * @param text The raw JSON text.
+     * @return The new element.
+     */
+    public static JsonElement newElement(final JsonFactory factory, final String text) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Factory must not be null");
+        }
+        if (text == null) {
+            throw new IllegalArgumentException("Text must not be null");
+        }
+
+        final int end = text.length();
+        final int start = skipWhitespace(text, 0, end);
+
+        if (start == end) {
+            return JsonEmpty.INSTANCE;
+        }
+
+        return new LazyJsonElement(factory, text, start, skipValue(text, start, end));
+    }
+
+    /**
+     * Skips any whitespace.
+     * 
+     * @param text The text.
+     * @param offset The offset.
+     * @param end The end offset.
+     * @return The offset of the next non-whitespace character.
+     */
+    private static int skipWhitespace(final String text, int offset, final int end) {
+        while (offset < end) {
+            final char c = text.charAt(offset);
+
+            if ((c != ' ') && (c != '\t') && (c != '\n') && (c != '\r')) {
+                break;
+            }
+            offset++;
+        }
+
+        return offset;
+    }
+
+    /**
+     * Skips a string.
+     * 
+     * @param text The text.
+     * @param offset The offset of the opening quote.
+     * @param end The end offset.
+     * @return The offset after the closing quote.
+     */
+    private static int skipString(final String text, int offset, final int end) {
+        offset++;
+
+        while (offset < end) {
+            final char c = text.charAt(offset++);
+
+            if (c == '"') {
+                return offset;
+            }
+            if (c == '\\') {
+                offset++;
+            }
+        }
+
+        throw new JsonException("Unterminated string at offset " + offset);
+    }
+
+    /**
+     * Skips a value.
+     * 
+     * @param text The text.
+     * @param offset The offset of the first character of the value.
+     * @param end The end offset.
+     * @return The offset after the value.
+     */
+    private static int skipValue(final String text, int offset, final int end) {
+        if (offset >= end) {
+            throw new JsonException("Expected value at offset " + offset);
+        }
+
+        final char first = text.charAt(offset);
+
+        if (first == '"') {
+            return skipString(text, offset, end);
+        }
+        if ((first != '{') && (first != '[')) {
+            while (offset < end) {
+                final char c = text.charAt(offset);
+
+                if ((c == ',') || (c == '}') || (c == ']') || (c == ':') || (c == ' ') || (c == '\t') || (c == '\n') || (c == '\r')) {
+                    break;
+                }
+                offset++;
+            }
+
+            return offset;
+        }
+        int depth = 0;
+
+        while (offset < end) {
+            final char c = text.charAt(offset);
+
+            if (c == '"') {
+                offset = skipString(text, offset, end);
+                continue;
+            }
+            offset++;
+            if ((c == '{') || (c == '[')) {
+                depth++;
+            } else if ((c == '}') || (c == ']')) {
+                if (--depth == 0) {
+                    return offset;
+                }
+            }
+        }
+
+        throw new JsonException("Unterminated structure at offset " + offset);
+    }
+
+    /**
+     * Returns the offset of the first escape character within the specified range.
+     * 
+     * @param text The text.
+     * @param start The start offset (inclusive).
+     * @param end The end offset (exclusive).
+     * @return The offset of the first escape character or -1.
+     */
+    private static int indexOfEscape(final String text, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '\\') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Decodes a string.
+     * 
+     * @param text The text.
+     * @param start The offset of the opening quote.
+     * @param end The offset after the closing quote.
+     * @return The decoded string.
+     */
+    private static String decodeString(final String text, final int start, final int end) {
+        final int valueStart = start + 1;
+        final int valueEnd = end - 1;
+        final int escape = indexOfEscape(text, valueStart, valueEnd);
+
+        if (escape < 0) {
+            return text.substring(valueStart, valueEnd);
+        }
+        final StringBuilder builder = new StringBuilder(valueEnd - valueStart);
+
+        builder.append(text, valueStart, escape);
+
+        for (int i = escape; i < valueEnd; i++) {
+            final char c = text.charAt(i);
+
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            final char e = text.charAt(++i);
+
+            switch (e) {
+            case 'b':
+                builder.append('\b');
+                break;
+            case 'f':
+                builder.append('\f');
+                break;
+            case 'n':
+                builder.append('\n');
+                break;
+            case 'r':
+                builder.append('\r');
+                break;
+            case 't':
+                builder.append('\t');
+                break;
+            case 'u':
+                builder.append((char) Integer.parseInt(text.substring(i + 1, i + 5), 16));
+                i += 4;
+                break;
+            default:
+                builder.append(e);
+                break;
+            }
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Returns the first character of the element.
+     * 
+     * @return The first character of the element.
+     */
+    private char first() {
+        return _text.charAt(_start);
+    }
+
+    /**
+     * Returns a value indicating whether the element is a string.
+     * 
+     * @return A value indicating whether the element is a string.
+     */
+    private boolean isString() {
+        return first() == '"';
+    }
+
+    /**
+     * Returns a value indicating whether the element is a number.
+     * 
+     * @return A value indicating whether the element is a number.
+     */
+    private boolean isNumber() {
+        final char c = first();
+
+        return (c == '-') || ((c >= '0') && (c <= '9'));
+    }
+
+    /**
+     * Returns a value indicating whether the element is the specified literal.
+     * 
+     * @param literal The literal.
+     * @return A value indicating whether the element is the specified literal.
+     */
+    private boolean isLiteral(final String literal) {
+        return ((_end - _start) == literal.length()) && _text.startsWith(literal, _start);
+    }
+
+    /**
+     * Returns the structural index, building it on first access.
+     * 
+     * @return The structural index.
+     */
+    private Index getIndex() {
+        Index index = _index;
+
+        if (index == null) {
+            index = new Index(_text, _start, _end);
+            _index = index;
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the materialized element, reading it on first access.
+     * 
+     * @return The materialized element.
+     */
+    private JsonElement materialize() {
+        JsonElement element = _element;
+
+        if (element == null) {
+            final StringReader input = new StringReader(_text.substring(_start, _end));
+
+            try (final JsonReader reader = _factory.newReader(input)) {
+                element = reader.readElement();
+            }
+            _element = element;
+        }
+
+        return element;
+    }
+
+    /**
+     * Returns the raw JSON text of the element.
+     * 
+     * @return The raw JSON text.
+     */
+    String getText() {
+        return _text.substring(_start, _end);
+    }
+
+    /**
+     * Returns the hash of the raw JSON text of the element, computed like {@link String#hashCode()} without copying the
+     * text.
+     * 
+     * @return The hash of the raw JSON text.
+     */
+    int hashText() {
+        int hash = 0;
+
+        for (int i = _start; i < _end; i++) {
+            hash = (31 * hash) + _text.charAt(i);
+        }
+
+        return hash;
+    }
+
+    @Override
+    public boolean isArray() {
+        return first() == '[';
+    }
+
+    @Override
+    public boolean isObject() {
+        return first() == '{';
+    }
+
+    @Override
+    public boolean isValue() {
+        return !isArray() && !isObject();
+    }
+
+    @Override
+    public JsonElement get(final int index) {
+        if (!isArray()) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+
+        final Index structure = getIndex();
+
+        if ((index < 0) || (index >= structure._size)) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+
+        return new LazyJsonElement(_factory, _text, structure._valueStarts[index], structure._valueEnds[index]);
+    }
+
+    @Override
+    public JsonElement get(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name must not be null");
+        }
+
+        if (!isObject()) {
+            return JsonEmpty.INSTANCE;
+        }
+
+        final Index structure = getIndex();
+        final int i = structure.indexOf(name);
+
+        if (i < 0) {
+            return JsonEmpty.INSTANCE;
+        }
+
+        return new LazyJsonElement(_factory, _text, structure._valueStarts[i], structure._valueEnds[i]);
+    }
+
+    @Override
+    public boolean getBoolean(final boolean defaultValue) {
+        if (isLiteral("true")) {
+            return true;
+        }
+        if (isLiteral("false")) {
+            return false;
+        }
+
+        return defaultValue;
+    }
+
+    @Override
+    public double getDouble(final double defaultValue) {
+        if (!isNumber()) {
+            return defaultValue;
+        }
+
+        try {
+            return Double.parseDouble(_text.substring(_start, _end));
+        } catch (final NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public int getInt(final int defaultValue) {
+        final long value = getLong(Long.MIN_VALUE);
+
+        if ((value < Integer.MIN_VALUE) || (value > Integer.MAX_VALUE)) {
+            return defaultValue;
+        }
+
+        return (int) value;
+    }
+
+    @Override
+    public long getLong(final long defaultValue) {
+        if (!isNumber()) {
+            return defaultValue;
+        }
+
+        try {
+            return Long.parseLong(_text.substring(_start, _end));
+        } catch (final NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public String getString(final String defaultValue) {
+        if (!isString()) {
+            return defaultValue;
+        }
+
+        return decodeString(_text, _start, _end);
+    }
+
+    @Override
+    public int size() {
+        if (!isArray()) {
+            return 0;
+        }
+
+        return getIndex()._size;
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> type) {
+        return materialize().unwrap(type);
+    }
+
+    @Override
+    public <T> T toObject(final Class<T> type, final T defaultValue) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        if (isLiteral("null")) {
+            return null;
+        }
+        if (!isArray() && !isObject()) {
+            return defaultValue;
+        }
+        final JsonElement element = _element;
+
+        if (element != null) {
+            return element.toObject(type, defaultValue);
+        }
+        // Map the raw text straight into the object without building a tree first.
+        final StringReader input = new StringReader(_text.substring(_start, _end));
+
+        try (final JsonReader reader = _factory.newReader(input)) {
+            return reader.readObject(type);
+        }
+    }
+
+    @Override
+    public <T> T toObject(final JsonCodec<T> codec, final T defaultValue) {
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec must not be null");
+        }
+
+        if (isLiteral("null")) {
+            return null;
+        }
+        final JsonElement element = _element;
+
+        if (element != null) {
+            return element.toObject(codec, defaultValue);
+        }
+        final StringReader input = new StringReader(_text.substring(_start, _end));
+
+        try (final JsonReader reader = _factory.newReader(input)) {
+            return codec.read(reader);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return materialize().hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (!(other instanceof LazyJsonElement)) {
+            return false;
+        }
+
+        final LazyJsonElement element = (LazyJsonElement) other;
+
+        return materialize().equals(element.materialize());
+    }
+
+    @Override
+    public String toString() {
+        return materialize().toString();
+    }
+
+    /**
+     * Represents the structural index of the direct members of an array or object.
+     */
+    private static final class Index {
+
+        /**
+         * The initial capacity.
+         */
+        private static final int INITIAL_CAPACITY = 8;
+
+        /**
+         * The raw JSON text.
+         */
+        private final String _text;
+
+        /**
+         * The number of members.
+         */
+        private final int _size;
+
+        /**
+         * The start offsets of the names (inclusive, including quotes).
+         */
+        private final int[] _nameStarts;
+
+        /**
+         * The end offsets of the names (exclusive, including quotes).
+         */
+        private final int[] _nameEnds;
+
+        /**
+         * The start offsets of the values (inclusive).
+         */
+        private final int[] _valueStarts;
+
+        /**
+         * The end offsets of the values (exclusive).
+         */
+        private final int[] _valueEnds;
+
+        /**
+         * Initializes a new instance of the {@link Index} class.
+         * 
+         * @param text The raw JSON text.
+         * @param start The start offset of the array or object (inclusive).
+         * @param end The end offset of the array or object (exclusive).
+         */
+        public Index(final String text, final int start, final int end) {
+            final boolean object = (text.charAt(start) == '{');
+            final char close = object ? '}' : ']';
+            int[] nameStarts = object ? new int[INITIAL_CAPACITY] : null;
+            int[] nameEnds = object ? new int[INITIAL_CAPACITY] : null;
+            int[] valueStarts = new int[INITIAL_CAPACITY];
+            int[] valueEnds = new int[INITIAL_CAPACITY];
+            int size = 0;
+            int offset = skipWhitespace(text, start + 1, end);
+
+            if ((offset < end) && (text.charAt(offset) == close)) {
+                offset = end;
+            }
+            while (offset < end) {
+                if (size == valueStarts.length) {
+                    final int capacity = size * 2;
+
+                    valueStarts = copyOf(valueStarts, capacity);
+                    valueEnds = copyOf(valueEnds, capacity);
+                    if (object) {
+                        nameStarts = copyOf(nameStarts, capacity);
+                        nameEnds = copyOf(nameEnds, capacity);
+                    }
+                }
+                if (object) {
+                    if (text.charAt(offset) != '"') {
+                        throw new JsonException("Expected name at offset " + offset);
+                    }
+                    nameStarts[size] = offset;
+                    offset = skipString(text, offset, end);
+                    nameEnds[size] = offset;
+                    offset = skipWhitespace(text, offset, end);
+                    if ((offset >= end) || (text.charAt(offset) != ':')) {
+                        throw new JsonException("Expected ':' at offset " + offset);
+                    }
+                    offset = skipWhitespace(text, offset + 1, end);
+                }
+                valueStarts[size] = offset;
+                offset = skipValue(text, offset, end);
+                valueEnds[size] = offset;
+                size++;
+                offset = skipWhitespace(text, offset, end);
+                if (offset >= end) {
+                    throw new JsonException("Unterminated structure at offset " + offset);
+                }
+                final char c = text.charAt(offset);
+
+                if (c == close) {
+                    break;
+                }
+                if (c != ',') {
+                    throw new JsonException("Expected ',' or '" + close + "' at offset " + offset);
+                }
+                offset = skipWhitespace(text, offset + 1, end);
+            }
+
+            _text = text;
+            _size = size;
+            _nameStarts = nameStarts;
+            _nameEnds = nameEnds;
+            _valueStarts = valueStarts;
+            _valueEnds = valueEnds;
+        }
+
+        /**
+         * Copies the specified array.
+         * 
+         * @param array The array.
+         * @param length The new length.
+         * @return The copied array.
+         */
+        private static int[] copyOf(final int[] array, final int length) {
+            final int[] copy = new int[length];
+
+            System.arraycopy(array, 0, copy, 0, array.length);
+
+            return copy;
+        }
+
+        /**
+         * Returns the index of the member with the specified name.
+         * 
+         * @param name The name.
+         * @return The index of the member or -1.
+         */
+        public int indexOf(final String name) {
+            final int length = name.length();
+
+            for (int i = 0; i < _size; i++) {
+                final int nameStart = _nameStarts[i] + 1;
+                final int nameEnd = _nameEnds[i] - 1;
+                if (indexOfEscape(_text, nameStart, nameEnd) < 0) {
+                    if (((nameEnd - nameStart) == length) && _text.regionMatches(nameStart, name, 0, length)) {
+                        return i;
+                    }
+                } else if (name.equals(decodeString(_text, _nameStarts[i], _nameEnds[i]))) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.util;
+
+import java.io.Writer;
+
+/**
+ * Represents a writer which writes into a {@link StringBuilder}. Unlike
+ * {@link java.io.StringWriter}, which is backed by a synchronized
+ * {@link StringBuffer}, it takes no locks and is not thread-safe.
+ */
+public final class StringBuilderWriter extends Writer {
+
+    /**
+     * The builder.
+     */
+    private final StringBuilder _builder;
+
+    /**
+     * Initializes a new instance of the {@link StringBuilderWriter} class.
+     *
+     * @param capacity The initial capacity.
+     */
+    public StringBuilderWriter(final int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative");
+        }
+
+        _builder = new StringBuilder(capacity);
+    }
+
+    /**
+     * Returns the builder.
+     *
+     * @return The builder.
+     */
+    public StringBuilder getBuilder() {
+        return _builder;
+    }
+
+    @Override
+    public void write(final int c) {
+        _builder.append((char) c);
+    }
+
+    @Override
+    public void write(final char[] buffer, final int offset, final int length) {
+        _builder.append(buffer, offset, length);
+    }
+
+    @Override
+    public void write(final String text) {
+        _builder.append(text);
+    }
+
+    @Override
+    public void write(final String text, final int offset, final int length) {
+        _builder.append(text, offset, offset + length);
+    }
+
+    @Override
+    public Writer append(final CharSequence text) {
+        _builder.append(text);
+
+        return this;
+    }
+
+    @Override
+    public Writer append(final CharSequence text, final int start, final int end) {
+        _builder.append(text, start, end);
+
+        return this;
+    }
+
+    @Override
+    public Writer append(final char c) {
+        _builder.append(c);
+
+        return this;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+        return _builder.toString();
+    }
+}
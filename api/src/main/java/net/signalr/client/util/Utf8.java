@@ -0,0 +1,55 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.util;
+
+/**
+ * Provides UTF-8 related helper methods.
+ */
+public final class Utf8 {
+
+    /**
+     * Initializes a new instance of the {@link Utf8} class.
+     */
+    private Utf8() {
+    }
+
+    /**
+     * Returns the UTF-8 encoded length of the specified text without encoding it.
+     * 
+     * @param text The text.
+     * @return The UTF-8 encoded length.
+     */
+    public static long length(final String text) {
+        final int length = text.length();
+        long size = length;
+
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+
+            if (Character.isSurrogate(c)) {
+                // A surrogate pair encodes to four bytes.
+                size += 1;
+            } else if (c >= 0x800) {
+                size += 2;
+            } else if (c >= 0x80) {
+                size += 1;
+            }
+        }
+
+        return size;
+    }
+}
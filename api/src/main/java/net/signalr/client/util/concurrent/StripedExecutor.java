@@ -0,0 +1,161 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.util.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Represents an executor which runs tasks on a fixed number of stripes. Tasks
+ * submitted to the same stripe run one at a time in submission order, while
+ * tasks of different stripes run concurrently on the underlying executor.
+ */
+public final class StripedExecutor {
+
+    /**
+     * The private logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(StripedExecutor.class);
+
+    /**
+     * The underlying executor.
+     */
+    private final Executor _executor;
+
+    /**
+     * The stripes.
+     */
+    private final Stripe[] _stripes;
+
+    /**
+     * Initializes a new instance of the {@link StripedExecutor} class.
+     * 
+     * @param executor The underlying executor.
+     * @param stripeCount The stripe count.
+     */
+    public StripedExecutor(final Executor executor, final int stripeCount) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count must be greater than zero");
+        }
+
+        _executor = executor;
+
+        _stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            _stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Returns the stripe count.
+     * 
+     * @return The stripe count.
+     */
+    public int getStripeCount() {
+        return _stripes.length;
+    }
+
+    /**
+     * Executes the specified task on the stripe selected by the specified hash.
+     * 
+     * @param hash The hash.
+     * @param task The task.
+     */
+    public void execute(final int hash, final Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task must not be null");
+        }
+
+        final int index = (hash & Integer.MAX_VALUE) % _stripes.length;
+
+        _stripes[index].execute(task);
+    }
+
+    /**
+     * Represents a stripe which is drained by at most one thread at a time.
+     */
+    private final class Stripe implements Runnable {
+
+        /**
+         * The pending tasks.
+         */
+        private final Queue<Runnable> _tasks;
+
+        /**
+         * A value indicating whether the stripe is scheduled.
+         */
+        private final AtomicBoolean _scheduled;
+
+        /**
+         * Initializes a new instance of the {@link Stripe} class.
+         */
+        public Stripe() {
+            _tasks = new ConcurrentLinkedQueue<>();
+            _scheduled = new AtomicBoolean(false);
+        }
+
+        /**
+         * Enqueues the specified task and schedules the stripe if required.
+         * 
+         * @param task The task.
+         */
+        public void execute(final Runnable task) {
+            _tasks.offer(task);
+            schedule();
+        }
+
+        /**
+         * Schedules the stripe unless it is already scheduled.
+         */
+        private void schedule() {
+            if (_scheduled.compareAndSet(false, true)) {
+                try {
+                    _executor.execute(this);
+                } catch (final RuntimeException e) {
+                    _scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            Runnable task;
+
+            while ((task = _tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (final Throwable t) {
+                    LOGGER.warn("Failed to execute task", t);
+                }
+            }
+            _scheduled.set(false);
+            // Reschedule when a task was enqueued after the queue has been drained.
+            if (!_tasks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
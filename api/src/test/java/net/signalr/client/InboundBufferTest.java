@@ -0,0 +1,125 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import net.signalr.client.json.JsonElement;
+
+@RunWith(JUnit4.class)
+public final class InboundBufferTest {
+
+    @Test
+    public void offerWithDropOldestTest() throws Exception {
+        // Arrange
+        final InboundBuffer buffer = new InboundBuffer(2, InboundPolicy.DROP_OLDEST);
+
+        // Act
+        buffer.offer("1", null);
+        buffer.offer("2", null);
+        buffer.offer("3", null);
+
+        // Assert
+        assertThat(buffer.getDepth(), is(2));
+        assertThat(buffer.getDropCount(), is(1L));
+        assertThat(buffer.poll().getMessage(), is("2"));
+        assertThat(buffer.poll().getMessage(), is("3"));
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    public void offerWithUndroppableTest() throws Exception {
+        // Arrange
+        final InboundBuffer buffer = new InboundBuffer(2, InboundPolicy.DROP_OLDEST);
+
+        // Act
+        buffer.offer("response 1", null, null, false);
+        buffer.offer("1", null, null, true);
+        buffer.offer("2", null, null, true);
+        buffer.offer("response 2", null, null, false);
+
+        // Assert
+        assertThat(buffer.getDepth(), is(2));
+        assertThat(buffer.getDropCount(), is(2L));
+        assertThat(buffer.poll().getMessage(), is("response 1"));
+        assertThat(buffer.poll().getMessage(), is("response 2"));
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    public void offerWithConflationTest() throws Exception {
+        // Arrange
+        final InboundBuffer buffer = new InboundBuffer(4, new InboundKey() {
+            @Override
+            public Object getKey(final JsonElement message) {
+                return null;
+            }
+        });
+
+        // Act
+        buffer.offer("MSFT 1", "MSFT");
+        buffer.offer("AAPL 1", "AAPL");
+        buffer.offer("MSFT 2", "MSFT");
+        buffer.offer("other", null);
+
+        // Assert
+        assertThat(buffer.getDepth(), is(3));
+        assertThat(buffer.getConflationCount(), is(1L));
+        assertThat(buffer.getDropCount(), is(0L));
+        assertThat(buffer.poll().getMessage(), is("MSFT 2"));
+        assertThat(buffer.poll().getMessage(), is("AAPL 1"));
+        assertThat(buffer.poll().getMessage(), is("other"));
+    }
+
+    @Test
+    public void offerWithBlockTest() throws Exception {
+        // Arrange
+        final InboundBuffer buffer = new InboundBuffer(1, InboundPolicy.BLOCK);
+        final CountDownLatch offered = new CountDownLatch(1);
+        final Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    buffer.offer("2", null);
+                    offered.countDown();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        buffer.offer("1", null);
+
+        // Act
+        producer.start();
+
+        // Assert
+        assertFalse(offered.await(100, TimeUnit.MILLISECONDS));
+        assertThat(buffer.poll().getMessage(), is("1"));
+        assertTrue(offered.await(5, TimeUnit.SECONDS));
+        assertThat(buffer.poll().getMessage(), is("2"));
+        assertThat(buffer.getDropCount(), is(0L));
+    }
+}
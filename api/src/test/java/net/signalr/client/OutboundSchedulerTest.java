@@ -0,0 +1,291 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.concurrent.TimeUnit;
+
+import net.signalr.client.util.concurrent.TimerScheduler;
+import net.signalr.client.util.concurrent.promise.Deferred;
+import net.signalr.client.util.concurrent.promise.Promise;
+import net.signalr.client.util.concurrent.promise.Promises;
+
+import org.easymock.EasyMockRunner;
+import org.easymock.IAnswer;
+import org.easymock.Mock;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(EasyMockRunner.class)
+public final class OutboundSchedulerTest {
+
+    @Mock
+    private ConnectionContext _connectionContext;
+
+    @Mock
+    private ConnectionContext _otherConnectionContext;
+
+    @Mock
+    private ConnectionState _connectionState;
+
+    @Test
+    public void highPriorityWaitsBehindOneBulkMessageTest() {
+        // Arrange
+        final OutboundScheduler scheduler = new OutboundScheduler(4, 2, 1);
+        final List<String> messages = new ArrayList<>();
+        final List<Deferred<Void>> sends = new ArrayList<>();
+
+        expect(_connectionContext.getConnectionState()).andReturn(_connectionState).anyTimes();
+        expect(_connectionContext.getRateLimiter()).andReturn(null).anyTimes();
+        expect(_connectionState.send(eq(_connectionContext), anyString())).andAnswer(new IAnswer<Promise<Void>>() {
+            @Override
+            public Promise<Void> answer() throws Throwable {
+                final Deferred<Void> send = new Deferred<>();
+
+                messages.add((String) getCurrentArguments()[1]);
+                sends.add(send);
+
+                return send;
+            }
+        }).anyTimes();
+        replay(_connectionContext, _connectionState);
+
+        // Act
+        final Promise<Void> bulk1 = scheduler.send(_connectionContext, "bulk1", SendPriority.BULK);
+
+        scheduler.send(_connectionContext, "bulk2", SendPriority.BULK);
+        final Promise<Void> high = scheduler.send(_connectionContext, "high", SendPriority.HIGH);
+
+        // Assert
+        assertEquals(1, messages.size());
+        assertEquals(1, scheduler.getQueuedCount(SendPriority.BULK));
+        assertEquals(1, scheduler.getQueuedCount(SendPriority.HIGH));
+        sends.get(0).setSuccess(null);
+        assertTrue(bulk1.isComplete());
+        assertEquals("high", messages.get(1));
+        assertFalse(high.isComplete());
+        sends.get(1).setSuccess(null);
+        assertTrue(high.isComplete());
+        assertEquals("bulk2", messages.get(2));
+    }
+
+    @Test
+    public void weightedInterleavingTest() {
+        // Arrange
+        final OutboundScheduler scheduler = new OutboundScheduler(2, 1, 1);
+        final List<String> messages = new ArrayList<>();
+        final List<Deferred<Void>> sends = new ArrayList<>();
+
+        expect(_connectionContext.getConnectionState()).andReturn(_connectionState).anyTimes();
+        expect(_connectionContext.getRateLimiter()).andReturn(null).anyTimes();
+        expect(_connectionState.send(eq(_connectionContext), anyString())).andAnswer(new IAnswer<Promise<Void>>() {
+            @Override
+            public Promise<Void> answer() throws Throwable {
+                final Deferred<Void> send = new Deferred<>();
+
+                messages.add((String) getCurrentArguments()[1]);
+                sends.add(send);
+
+                return send;
+            }
+        }).anyTimes();
+        replay(_connectionContext, _connectionState);
+        scheduler.send(_connectionContext, "first", SendPriority.NORMAL);
+        for (int i = 0; i < 3; i++) {
+            scheduler.send(_connectionContext, "high", SendPriority.HIGH);
+            scheduler.send(_connectionContext, "bulk", SendPriority.BULK);
+        }
+
+        // Act
+        for (int i = 0; i < 7; i++) {
+            sends.get(i).setSuccess(null);
+        }
+
+        // Assert
+        assertEquals(7, messages.size());
+        assertEquals("high", messages.get(1));
+        assertEquals("bulk", messages.get(2));
+        assertEquals("high", messages.get(3));
+        assertEquals("high", messages.get(4));
+        assertEquals("bulk", messages.get(5));
+        assertEquals("bulk", messages.get(6));
+    }
+
+    @Test
+    public void synchronousSendsTest() {
+        // Arrange
+        final OutboundScheduler scheduler = new OutboundScheduler(1, 1, 1);
+
+        expect(_connectionContext.getConnectionState()).andReturn(_connectionState).anyTimes();
+        expect(_connectionContext.getRateLimiter()).andReturn(null).anyTimes();
+        expect(_connectionState.send(eq(_connectionContext), anyString())).andReturn(Promises.newSuccess()).times(10000);
+        replay(_connectionContext, _connectionState);
+
+        // Act
+        for (int i = 0; i < 10000; i++) {
+            final Promise<Void> send = scheduler.send(_connectionContext, "Message", SendPriority.NORMAL);
+
+            // Assert
+            assertTrue(send.isComplete());
+        }
+        verify(_connectionContext, _connectionState);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void sendWithOtherConnectionTest() {
+        // Arrange
+        final OutboundScheduler scheduler = new OutboundScheduler(1, 1, 1);
+
+        expect(_connectionContext.getConnectionState()).andReturn(_connectionState).anyTimes();
+        expect(_connectionContext.getRateLimiter()).andReturn(null).anyTimes();
+        expect(_connectionState.send(eq(_connectionContext), anyString())).andReturn(Promises.newSuccess()).anyTimes();
+        replay(_connectionContext, _otherConnectionContext, _connectionState);
+        scheduler.send(_connectionContext, "Message", SendPriority.NORMAL);
+
+        // Act
+        scheduler.send(_otherConnectionContext, "Message", SendPriority.NORMAL);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void newWithMissingWeightTest() {
+        // Arrange
+        final Map<SendPriority, Integer> weights = new EnumMap<>(SendPriority.class);
+
+        weights.put(SendPriority.HIGH, 2);
+        weights.put(SendPriority.NORMAL, 1);
+
+        // Act
+        new OutboundScheduler(weights);
+    }
+
+    private static String newMessage(final char c, final int length) {
+        final char[] message = new char[length];
+
+        Arrays.fill(message, c);
+
+        return new String(message);
+    }
+
+    private void expectSends(final List<String> messages, final List<Deferred<Void>> sends) {
+        expect(_connectionContext.getConnectionState()).andReturn(_connectionState).anyTimes();
+        expect(_connectionState.send(eq(_connectionContext), anyString())).andAnswer(new IAnswer<Promise<Void>>() {
+            @Override
+            public Promise<Void> answer() throws Throwable {
+                final Deferred<Void> send = new Deferred<>();
+
+                messages.add((String) getCurrentArguments()[1]);
+                if (sends == null) {
+                    send.setSuccess(null);
+                } else {
+                    sends.add(send);
+                }
+
+                return send;
+            }
+        }).anyTimes();
+    }
+
+    @Test
+    public void rateLimitAppliesAfterPriorityTest() {
+        // Arrange
+        final OutboundScheduler scheduler = new OutboundScheduler(4, 2, 1);
+        final RateLimiter rateLimiter = new RateLimiter(2, 0, RateLimitPolicy.FAIL);
+        final List<String> messages = new ArrayList<>();
+        final List<Deferred<Void>> sends = new ArrayList<>();
+
+        expect(_connectionContext.getRateLimiter()).andReturn(rateLimiter).anyTimes();
+        expectSends(messages, sends);
+        replay(_connectionContext, _connectionState);
+        scheduler.send(_connectionContext, "first", SendPriority.NORMAL);
+        final Promise<Void> bulk = scheduler.send(_connectionContext, "bulk", SendPriority.BULK);
+        final Promise<Void> high = scheduler.send(_connectionContext, "high", SendPriority.HIGH);
+
+        // Act
+        sends.get(0).setSuccess(null);
+        sends.get(1).setSuccess(null);
+
+        // Assert
+        assertEquals(Arrays.asList("first", "high"), messages);
+        assertTrue(high.isComplete());
+        assertTrue(bulk.isComplete());
+        assertEquals(1, rateLimiter.getRejectedCount());
+    }
+
+    @Test
+    public void rateLimitDelayKeepsOrderTest() throws Exception {
+        // Arrange
+        final OutboundScheduler scheduler = new OutboundScheduler(1, 1, 1);
+        final RateLimiter rateLimiter = new RateLimiter(0, 1000000, RateLimitPolicy.DELAY);
+        final TimerScheduler timerScheduler = new TimerScheduler();
+        final List<String> messages = Collections.synchronizedList(new ArrayList<String>());
+
+        expect(_connectionContext.getRateLimiter()).andReturn(rateLimiter).anyTimes();
+        expect(_connectionContext.getScheduler()).andReturn(timerScheduler).anyTimes();
+        expectSends(messages, null);
+        replay(_connectionContext, _connectionState);
+
+        try {
+            // Act
+            final Promise<Void> burst = scheduler.send(_connectionContext, newMessage('a', 1000000), SendPriority.NORMAL);
+            final Promise<Void> second = scheduler.send(_connectionContext, newMessage('b', 900), SendPriority.NORMAL);
+            final Promise<Void> third = scheduler.send(_connectionContext, newMessage('c', 100), SendPriority.NORMAL);
+
+            // Assert
+            assertTrue(burst.isComplete());
+            Promises.await(third, 5, TimeUnit.SECONDS);
+            assertTrue(second.isComplete());
+            assertEquals(3, messages.size());
+            assertEquals('b', messages.get(1).charAt(0));
+            assertEquals('c', messages.get(2).charAt(0));
+            assertTrue(rateLimiter.getDelayedCount() >= 1);
+        } finally {
+            timerScheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void rateLimitDelayWithFailingSchedulerRefundsTest() {
+        // Arrange
+        final OutboundScheduler scheduler = new OutboundScheduler(1, 1, 1);
+        final RateLimiter rateLimiter = new RateLimiter(0, 100, RateLimitPolicy.DELAY);
+        final Timer timer = new Timer();
+
+        timer.cancel();
+        expect(_connectionContext.getRateLimiter()).andReturn(rateLimiter).anyTimes();
+        expect(_connectionContext.getScheduler()).andReturn(new TimerScheduler(timer)).anyTimes();
+        expectSends(new ArrayList<String>(), null);
+        replay(_connectionContext, _connectionState);
+        scheduler.send(_connectionContext, newMessage('a', 100), SendPriority.NORMAL);
+
+        // Act
+        final Promise<Void> send = scheduler.send(_connectionContext, newMessage('b', 50), SendPriority.NORMAL);
+
+        // Assert
+        assertTrue(send.isComplete());
+        assertEquals(0, rateLimiter.getDelayedCount());
+        assertTrue(rateLimiter.reserve(50, System.nanoTime()) <= TimeUnit.SECONDS.toNanos(1) / 2);
+    }
+}
@@ -74,6 +74,8 @@ public final class PersistentConnectionTest {
         // Arrange
         final PersistentConnection connection = new PersistentConnection(_connectionContext);
 
+        expect(_connectionContext.getRateLimiter()).andReturn(null);
+        expect(_connectionContext.getOutboundScheduler()).andReturn(null);
         expect(_connectionContext.getConnectionState()).andReturn(_connectionState);
         expect(_connectionState.send(_connectionContext, "Message")).andReturn(Promises.newSuccess());
         replay(_connectionContext, _connectionState);
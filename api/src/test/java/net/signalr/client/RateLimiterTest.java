@@ -0,0 +1,104 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public final class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void burstIsAdmittedTest() {
+        // Arrange
+        final RateLimiter limiter = new RateLimiter(10, 0, RateLimitPolicy.FAIL);
+        final long now = System.nanoTime();
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.reserve(1, now));
+        }
+        assertEquals(-1, limiter.reserve(1, now));
+    }
+
+    @Test
+    public void bucketRefillsTest() {
+        // Arrange
+        final RateLimiter limiter = new RateLimiter(10, 0, RateLimitPolicy.FAIL);
+        final long now = System.nanoTime();
+
+        for (int i = 0; i < 10; i++) {
+            limiter.reserve(1, now);
+        }
+
+        // Act & Assert
+        assertEquals(-1, limiter.reserve(1, now + (SECOND / 20)));
+        assertEquals(0, limiter.reserve(1, now + (SECOND / 10)));
+    }
+
+    @Test
+    public void sendsAreDelayedTest() {
+        // Arrange
+        final RateLimiter limiter = new RateLimiter(0, 100, RateLimitPolicy.DELAY);
+        final long now = System.nanoTime();
+
+        // Act
+        final long first = limiter.reserve(100, now);
+        final long second = limiter.reserve(50, now);
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(SECOND / 2, second);
+    }
+
+    @Test
+    public void rejectedBytesRefundMessageTest() {
+        // Arrange
+        final RateLimiter limiter = new RateLimiter(2, 100, RateLimitPolicy.FAIL);
+        final long now = System.nanoTime();
+
+        // Act
+        final long first = limiter.reserve(100, now);
+        final long second = limiter.reserve(100, now);
+        final long third = limiter.reserve(0, now);
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(-1, second);
+        assertEquals(0, third);
+    }
+
+    @Test
+    public void setRatesTest() {
+        // Arrange
+        final RateLimiter limiter = new RateLimiter(1, 0, RateLimitPolicy.FAIL);
+        final long now = System.nanoTime();
+
+        limiter.reserve(1, now);
+
+        // Act
+        limiter.setRates(0, 0);
+
+        // Assert
+        assertEquals(0, limiter.reserve(1, now));
+        assertEquals(0.0, limiter.getMessagesPerSecond(), 0.0);
+    }
+}
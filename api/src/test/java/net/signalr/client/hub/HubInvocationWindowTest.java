@@ -0,0 +1,95 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class HubInvocationWindowTest {
+
+    private static Runnable record(final List<String> sent, final String message) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                sent.add(message);
+            }
+        };
+    }
+
+    @Test
+    public void executeWithinInvocationLimitTest() {
+        // Arrange
+        final HubInvocationWindow window = new HubInvocationWindow(2, 1000);
+        final List<String> sent = new ArrayList<>();
+
+        // Act
+        window.execute(10, record(sent, "a"));
+        window.execute(10, record(sent, "b"));
+        window.execute(10, record(sent, "c"));
+
+        // Assert
+        assertThat(sent, is(Arrays.asList("a", "b")));
+        assertThat(window.getOutstandingInvocations(), is(2));
+        assertThat(window.getOutstandingBytes(), is(20L));
+        assertThat(window.getQueuedInvocations(), is(1));
+    }
+
+    @Test
+    public void releaseSendsQueuedInvocationTest() {
+        // Arrange
+        final HubInvocationWindow window = new HubInvocationWindow(1, 1000);
+        final List<String> sent = new ArrayList<>();
+
+        window.execute(10, record(sent, "a"));
+        window.execute(10, record(sent, "b"));
+
+        // Act
+        window.release(10);
+
+        // Assert
+        assertThat(sent, is(Arrays.asList("a", "b")));
+        assertThat(window.getOutstandingInvocations(), is(1));
+        assertThat(window.getQueuedInvocations(), is(0));
+        assertThat(window.getPeakInvocations(), is(1));
+        assertThat(window.getAchievedConcurrency(), is(1.0));
+    }
+
+    @Test
+    public void executeWithinByteLimitTest() {
+        // Arrange
+        final HubInvocationWindow window = new HubInvocationWindow(10, 100);
+        final List<String> sent = new ArrayList<>();
+
+        // Act
+        window.execute(200, record(sent, "a"));
+        window.execute(10, record(sent, "b"));
+        window.release(200);
+
+        // Assert
+        assertThat(sent, is(Arrays.asList("a", "b")));
+        assertThat(window.getOutstandingBytes(), is(10L));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class HubNameTableTest {
+
+    @Test
+    public void getWithEmptyTableTest() {
+        // Arrange
+        final HubNameTable<String> table = HubNameTable.empty();
+
+        // Act
+        // Assert
+        assertNull(table.get("hub"));
+        assertThat(table.size(), is(0));
+    }
+
+    @Test
+    public void getIgnoringCaseTest() {
+        // Arrange
+        final HubNameTable<String> table = HubNameTable.<String> empty().with("ChatHub", "a").with("stockTicker", "b");
+
+        // Act
+        // Assert
+        assertThat(table.get("chathub"), is("a"));
+        assertThat(table.get("CHATHUB"), is("a"));
+        assertThat(table.get("StockTicker"), is("b"));
+        assertNull(table.get("chat"));
+        assertNull(table.get(null));
+    }
+
+    @Test
+    public void withAllTest() {
+        // Arrange
+        final HubNameTable<String> table = HubNameTable.<String> empty().with("hub", "a");
+
+        // Act
+        final HubNameTable<String> newTable = table.withAll(new String[] { "other", "HUB", "Other", "third" }, new String[] { "b", "c", "d", "e" });
+
+        // Assert
+        assertThat(newTable.size(), is(3));
+        assertThat(newTable.names(), is(Arrays.asList("hub", "other", "third")));
+        assertThat(newTable.values(), is(Arrays.asList("c", "d", "e")));
+        assertThat(table.size(), is(1));
+    }
+
+    @Test
+    public void withExistingNameTest() {
+        // Arrange
+        final HubNameTable<String> table = HubNameTable.<String> empty().with("hub", "a");
+
+        // Act
+        final HubNameTable<String> newTable = table.with("HUB", "b");
+
+        // Assert
+        assertThat(newTable.size(), is(1));
+        assertThat(newTable.get("hub"), is("b"));
+        assertThat(newTable.names(), is(Arrays.asList("hub")));
+        assertThat(table.get("hub"), is("a"));
+    }
+
+    @Test
+    public void withoutTest() {
+        // Arrange
+        HubNameTable<String> table = HubNameTable.empty();
+
+        for (int i = 0; i < 100; i++) {
+            table = table.with("name" + i, "value" + i);
+        }
+
+        // Act
+        final HubNameTable<String> newTable = table.without("NAME50");
+
+        // Assert
+        assertThat(newTable.size(), is(99));
+        assertNull(newTable.get("name50"));
+        assertThat(newTable.get("Name99"), is("value99"));
+        assertThat(newTable.get("name0"), is("value0"));
+        assertThat(table.get("name50"), is("value50"));
+    }
+
+    @Test
+    public void getIgnoringCaseWithNonAsciiNameTest() {
+        // Arrange
+        final HubNameTable<String> table = HubNameTable.<String> empty().with("\u00c4nderungHub", "a");
+
+        // Act
+        // Assert
+        assertThat(table.get("\u00e4nderunghub"), is("a"));
+        assertThat(table.get("\u00c4NDERUNGHUB"), is("a"));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import net.signalr.client.json.JsonElement;
+
+import org.junit.Test;
+
+public final class HubResultCacheTest {
+
+    private static HubResponse newResponse() {
+        return new HubResponse(createNiceMock(JsonElement.class));
+    }
+
+    @Test
+    public void hitAndMissTest() {
+        // Arrange
+        final HubResultCache cache = new HubResultCache(10, 1, TimeUnit.SECONDS);
+        final HubResponse response = newResponse();
+
+        // Act
+        final HubResponse miss = cache.get("[1]", 0);
+
+        cache.put("[1]", response, cache.getGeneration(), 0);
+        final HubResponse hit = cache.get("[1]", 1);
+
+        // Assert
+        assertNull(miss);
+        assertSame(response, hit);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void entriesExpireTest() {
+        // Arrange
+        final HubResultCache cache = new HubResultCache(10, 1, TimeUnit.SECONDS);
+
+        cache.put("[1]", newResponse(), cache.getGeneration(), 0);
+
+        // Act
+        final HubResponse expired = cache.get("[1]", TimeUnit.SECONDS.toNanos(1));
+
+        // Assert
+        assertNull(expired);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvictedTest() {
+        // Arrange
+        final HubResultCache cache = new HubResultCache(2, 1, TimeUnit.SECONDS);
+
+        cache.put("[1]", newResponse(), 0, 0);
+        cache.put("[2]", newResponse(), 0, 1);
+        cache.get("[1]", 2);
+
+        // Act
+        cache.put("[3]", newResponse(), 0, 3);
+
+        // Assert
+        assertNotNull(cache.get("[1]", 4));
+        assertNull(cache.get("[2]", 4));
+        assertNotNull(cache.get("[3]", 4));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void invalidatedResponsesAreNotCachedTest() {
+        // Arrange
+        final HubResultCache cache = new HubResultCache(10, 1, TimeUnit.SECONDS);
+        final long generation = cache.getGeneration();
+
+        // Act
+        cache.invalidateAll();
+        cache.put("[1]", newResponse(), generation, 0);
+
+        // Assert
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.util.concurrent;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class StripedExecutorTest {
+
+    @Test
+    public void executeKeepsOrderPerStripeTest() throws Exception {
+        // Arrange
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        final StripedExecutor executor = new StripedExecutor(executorService, 4);
+        final List<List<Integer>> results = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(4000);
+
+        for (int i = 0; i < 4; i++) {
+            results.add(new ArrayList<Integer>());
+        }
+
+        // Act
+        try {
+            for (int i = 0; i < 1000; i++) {
+                for (int stripe = 0; stripe < 4; stripe++) {
+                    final List<Integer> result = results.get(stripe);
+                    final int value = i;
+
+                    executor.execute(stripe, new Runnable() {
+                        @Override
+                        public void run() {
+                            result.add(value);
+                            latch.countDown();
+                        }
+                    });
+                }
+            }
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdown();
+        }
+
+        // Assert
+        for (final List<Integer> result : results) {
+            assertThat(result.size(), is(1000));
+            for (int i = 0; i < 1000; i++) {
+                assertThat(result.get(i), is(i));
+            }
+        }
+    }
+
+    @Test
+    public void executeContinuesAfterFailingTaskTest() {
+        // Arrange
+        final StripedExecutor executor = new StripedExecutor(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                command.run();
+            }
+        }, 1);
+        final List<String> result = new ArrayList<>();
+
+        // Act
+        executor.execute(0, new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException();
+            }
+        });
+        executor.execute(0, new Runnable() {
+            @Override
+            public void run() {
+                result.add("done");
+            }
+        });
+
+        // Assert
+        assertThat(result, is(Arrays.asList("done")));
+    }
+}
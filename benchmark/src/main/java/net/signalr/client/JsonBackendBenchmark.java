@@ -0,0 +1,118 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client;
+
+import java.util.concurrent.TimeUnit;
+
+import net.signalr.client.json.DefaultJsonMapper;
+import net.signalr.client.json.JsonFactory;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.JsonWriteable;
+import net.signalr.client.json.JsonWriter;
+import net.signalr.client.json.builtin.BuiltinFactory;
+import net.signalr.client.json.gson.GsonFactory;
+import net.signalr.client.json.jackson.JacksonFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the built-in JSON backend with the Gson and Jackson backends on
+ * typical SignalR frames.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBackendBenchmark {
+
+    /**
+     * A persistent response which carries two hub messages.
+     */
+    private static final String RESPONSE = "{\"C\":\"d-5B2F7E3A-B,0|C,1|D,0\",\"M\":[{\"H\":\"instrumentHub\",\"M\":\"update\",\"A\":[\"EURUSD\",1.08764,1.08771,1445269823]},{\"H\":\"instrumentHub\",\"M\":\"update\",\"A\":[\"GBPUSD\",1.54792,1.54803,1445269823]}]}";
+
+    /**
+     * The JSON backend.
+     */
+    @Param({ "builtin", "gson", "jackson" })
+    public String backend;
+
+    /**
+     * The mapper.
+     */
+    private JsonMapper _mapper;
+
+    /**
+     * The request.
+     */
+    private JsonWriteable _request;
+
+    @Setup
+    public void setup() {
+        final JsonFactory factory;
+
+        if (backend.equals("gson")) {
+            factory = new GsonFactory();
+        } else if (backend.equals("jackson")) {
+            factory = new JacksonFactory();
+        } else {
+            factory = new BuiltinFactory();
+        }
+        _mapper = new DefaultJsonMapper(factory);
+        _request = new JsonWriteable() {
+            @Override
+            public void writeJson(final JsonWriter writer) {
+                writer.writeBeginObject();
+                writer.writeName("H");
+                writer.writeString("instrumentHub");
+                writer.writeName("M");
+                writer.writeString("subscribe");
+                writer.writeName("A");
+                writer.writeBeginArray();
+                writer.writeString("EURUSD");
+                writer.writeInt(42);
+                writer.writeEndArray();
+                writer.writeName("I");
+                writer.writeString("12345");
+                writer.writeEndObject();
+            }
+        };
+    }
+
+    @Benchmark
+    public int readResponse() {
+        final PersistentResponse response = _mapper.toObject(RESPONSE, PersistentResponse.class);
+
+        return response.getMessage().size();
+    }
+
+    @Benchmark
+    public String writeRequest() {
+        return _mapper.toJson(_request);
+    }
+}
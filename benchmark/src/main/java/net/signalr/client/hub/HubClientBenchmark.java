@@ -0,0 +1,184 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import net.signalr.client.ConnectionAdapter;
+import net.signalr.client.json.DefaultJsonMapper;
+import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonFactory;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.builtin.BuiltinFactory;
+import net.signalr.client.json.gson.GsonFactory;
+import net.signalr.client.util.concurrent.promise.Promise;
+import net.signalr.client.util.concurrent.promise.Promises;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares an invocation through a hub proxy with the same invocation through
+ * a typed hub client. Both serialize the request and decode the result of an
+ * immediately completed response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HubClientBenchmark {
+
+    /**
+     * The JSON backend.
+     */
+    @Param({ "builtin", "gson" })
+    public String backend;
+
+    /**
+     * The hub proxy.
+     */
+    private HubProxy _proxy;
+
+    /**
+     * The typed hub client.
+     */
+    private InstrumentHub _client;
+
+    @Setup
+    public void setup() {
+        final JsonFactory factory = backend.equals("gson") ? new GsonFactory() : new BuiltinFactory();
+        final JsonMapper mapper = new DefaultJsonMapper(factory);
+        final ImmediateHubDispatcher dispatcher = new ImmediateHubDispatcher(mapper, "{\"I\":\"1\",\"R\":1.08764}");
+
+        _proxy = dispatcher.newHubProxy("instrumentHub");
+        _client = HubClientHandler.newClient(InstrumentHub.class, dispatcher);
+    }
+
+    @Benchmark
+    public Double proxy() throws Exception {
+        return Promises.await(_proxy.invoke("getPrice", Double.class, "EURUSD", 42));
+    }
+
+    @Benchmark
+    public Double typedClient() throws Exception {
+        return Promises.await(_client.getPrice("EURUSD", 42));
+    }
+
+    /**
+     * Represents the typed client of the benchmarked hub.
+     */
+    @HubName("instrumentHub")
+    public interface InstrumentHub {
+
+        @HubMethod("getPrice")
+        Promise<Double> getPrice(String symbol, int quantity);
+    }
+
+    /**
+     * Represents a hub dispatcher which serializes every request and completes
+     * it immediately with the same response.
+     */
+    private static final class ImmediateHubDispatcher extends ConnectionAdapter implements HubDispatcher {
+
+        /**
+         * The mapper.
+         */
+        private final JsonMapper _mapper;
+
+        /**
+         * The response.
+         */
+        private final HubResponse _response;
+
+        /**
+         * Initializes a new instance of the {@link ImmediateHubDispatcher} class.
+         *
+         * @param mapper The mapper.
+         * @param response The serialized response.
+         */
+        public ImmediateHubDispatcher(final JsonMapper mapper, final String response) {
+            _mapper = mapper;
+            _response = new HubResponse(mapper.toElement(response));
+        }
+
+        @Override
+        public JsonMapper getMapper() {
+            return _mapper;
+        }
+
+        @Override
+        public HubProxy newHubProxy(final String hubName) {
+            return new DefaultHubProxy(hubName, this);
+        }
+
+        @Override
+        public HubProxy[] newHubProxies(final String... hubNames) {
+            final HubProxy[] proxies = new HubProxy[hubNames.length];
+
+            for (int i = 0; i < hubNames.length; i++) {
+                proxies[i] = newHubProxy(hubNames[i]);
+            }
+
+            return proxies;
+        }
+
+        @Override
+        public void applyConnectionData() {
+        }
+
+        @Override
+        public void setDispatchLanes(final Executor executor, final int laneCount, final HubLaneKey key) {
+        }
+
+        @Override
+        public void setInvocationWindow(final HubInvocationWindow invocationWindow) {
+        }
+
+        @Override
+        public Promise<HubResponse> invoke(final HubRequest request) {
+            return invoke(request, null);
+        }
+
+        @Override
+        public Promise<HubResponse> invoke(final HubRequest request, final HubCallback<JsonElement> progressCallback) {
+            request.setCallbackId("1");
+            request.toJson(_mapper);
+
+            return Promises.newSuccess(_response);
+        }
+
+        @Override
+        public Promise<Void> send(final HubRequest request) {
+            request.setCallbackId("0");
+            request.toJson(_mapper);
+
+            return Promises.newSuccess();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the case-insensitive hub name lookup of the dispatch loop with the
+ * former lookup which lower-cased every incoming hub name.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HubNameTableBenchmark {
+
+    /**
+     * The number of messages per invocation.
+     */
+    private static final int MESSAGE_COUNT = 64;
+
+    /**
+     * The number of registered hubs.
+     */
+    @Param({ "1", "8", "32" })
+    public int hubCount;
+
+    /**
+     * The hub name table.
+     */
+    private HubNameTable<Object> _table;
+
+    /**
+     * The map keyed by lower-cased hub names.
+     */
+    private Map<String, Object> _map;
+
+    /**
+     * The hub names of the incoming messages.
+     */
+    private String[] _messageHubNames;
+
+    @Setup
+    public void setup() {
+        HubNameTable<Object> table = HubNameTable.empty();
+        final Map<String, Object> map = new HashMap<>();
+
+        for (int i = 0; i < hubCount; i++) {
+            final String hubName = "instrumentHub" + i;
+            final Object proxy = new Object();
+
+            table = table.with(hubName, proxy);
+            map.put(hubName.toLowerCase(), proxy);
+        }
+        _table = table;
+        _map = map;
+        // Servers usually echo hub names in a different case than they were registered with.
+        _messageHubNames = new String[MESSAGE_COUNT];
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            _messageHubNames[i] = "InstrumentHub" + (i % hubCount);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGE_COUNT)
+    public int hubNameTable() {
+        int found = 0;
+
+        for (final String hubName : _messageHubNames) {
+            if (_table.get(hubName) != null) {
+                found++;
+            }
+        }
+
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGE_COUNT)
+    public int lowerCaseMap() {
+        int found = 0;
+
+        for (final String hubName : _messageHubNames) {
+            if (_map.get(hubName.toLowerCase()) != null) {
+                found++;
+            }
+        }
+
+        return found;
+    }
+}
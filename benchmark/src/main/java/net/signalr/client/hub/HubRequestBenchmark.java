@@ -0,0 +1,102 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import java.util.concurrent.TimeUnit;
+
+import net.signalr.client.json.DefaultJsonMapper;
+import net.signalr.client.json.JsonFactory;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.builtin.BuiltinFactory;
+import net.signalr.client.json.gson.GsonFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the serialization of a small hub request with and without a request template.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HubRequestBenchmark {
+
+    /**
+     * The JSON backend.
+     */
+    @Param({ "builtin", "gson" })
+    public String backend;
+
+    /**
+     * The mapper.
+     */
+    private JsonMapper _mapper;
+
+    /**
+     * The request template.
+     */
+    private HubRequestTemplate _template;
+
+    /**
+     * The arguments.
+     */
+    private Object[] _arguments;
+
+    @Setup
+    public void setup() {
+        final JsonFactory factory = backend.equals("gson") ? new GsonFactory() : new BuiltinFactory();
+
+        _mapper = new DefaultJsonMapper(factory);
+        _template = new HubRequestTemplate(_mapper, "instrumentHub", "subscribe");
+        _arguments = new Object[] { "EURUSD", 42 };
+    }
+
+    @Benchmark
+    public String withoutTemplate() {
+        final HubRequest request = new HubRequest();
+
+        request.setHubName("instrumentHub");
+        request.setMethodName("subscribe");
+        request.setArguments(_arguments);
+        request.setCallbackId("12345");
+
+        return _mapper.toJson(request);
+    }
+
+    @Benchmark
+    public String withTemplate() {
+        final HubRequest request = new HubRequest();
+
+        request.setTemplate(_template);
+        request.setArguments(_arguments);
+        request.setCallbackId("12345");
+
+        return request.toJson(_mapper);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json.builtin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonReader;
+import net.signalr.client.json.JsonWriter;
+
+/**
+ * Represents a built-in codec for collections with a generic element type.
+ */
+final class BuiltinCollectionCodec<E> implements JsonCodec<Collection<E>> {
+
+    /**
+     * A value indicating whether the collection is a set.
+     */
+    private final boolean _set;
+
+    /**
+     * The element codec.
+     */
+    private final JsonCodec<E> _elementCodec;
+
+    /**
+     * Initializes a new instance of the {@link BuiltinCollectionCodec} class.
+     * 
+     * @param set A value indicating whether the collection is a set.
+     * @param elementCodec The element codec.
+     */
+    public BuiltinCollectionCodec(final boolean set, final JsonCodec<E> elementCodec) {
+        if (elementCodec == null) {
+            throw new IllegalArgumentException("Element codec must not be null");
+        }
+
+        _set = set;
+        _elementCodec = elementCodec;
+    }
+
+    @Override
+    public Collection<E> read(final JsonReader reader) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader must not be null");
+        }
+
+        if ((reader instanceof BuiltinReader) && ((BuiltinReader) reader).isNull()) {
+            reader.readNull();
+
+            return null;
+        }
+        final Collection<E> collection = _set ? new LinkedHashSet<E>() : new ArrayList<E>();
+
+        reader.readBeginArray();
+        while (reader.read()) {
+            final E element = _elementCodec.read(reader);
+
+            collection.add(element);
+        }
+        reader.readEndArray();
+
+        return collection;
+    }
+
+    @Override
+    public void write(final JsonWriter writer, final Collection<E> collection) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer must not be null");
+        }
+
+        if (collection == null) {
+            writer.writeNull();
+            return;
+        }
+
+        writer.writeBeginArray();
+        for (final E element : collection) {
+            if (element == null) {
+                writer.writeNull();
+            } else {
+                _elementCodec.write(writer, element);
+            }
+        }
+        writer.writeEndArray();
+    }
+
+    /**
+     * Returns a value indicating whether the specified collection type is supported.
+     * 
+     * @param type The collection type.
+     * @return A value indicating whether the collection type is supported.
+     */
+    public static boolean isSupported(final Class<?> type) {
+        return type.isAssignableFrom(ArrayList.class) || type.isAssignableFrom(LinkedHashSet.class);
+    }
+
+    /**
+     * Returns a value indicating whether the specified collection type requires a set.
+     * 
+     * @param type The collection type.
+     * @return A value indicating whether the collection type requires a set.
+     */
+    public static boolean isSet(final Class<?> type) {
+        return Set.class.isAssignableFrom(type);
+    }
+}
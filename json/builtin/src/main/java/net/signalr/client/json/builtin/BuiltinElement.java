@@ -0,0 +1,266 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json.builtin;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonEmpty;
+import net.signalr.client.json.JsonException;
+import net.signalr.client.json.JsonReader;
+import net.signalr.client.json.JsonWriter;
+
+/**
+ * Represents a built-in JSON element.
+ */
+final class BuiltinElement implements JsonElement {
+
+    /**
+     * The factory.
+     */
+    private final BuiltinFactory _factory;
+
+    /**
+     * The underlying value.
+     */
+    private final Object _value;
+
+    /**
+     * Initializes a new instance of the {@link BuiltinElement} class.
+     * 
+     * @param factory The factory.
+     * @param value The underlying value.
+     */
+    public BuiltinElement(final BuiltinFactory factory, final Object value) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Factory must not be null");
+        }
+
+        _factory = factory;
+        _value = value;
+    }
+
+    @Override
+    public boolean isArray() {
+        return (_value instanceof List);
+    }
+
+    @Override
+    public boolean isObject() {
+        return (_value instanceof Map);
+    }
+
+    @Override
+    public boolean isValue() {
+        return !isArray() && !isObject();
+    }
+
+    @Override
+    public JsonElement get(final int index) {
+        if (!isArray()) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+
+        final List<?> array = (List<?>) _value;
+        // Throws: IndexOutOfBoundsException - if the index is out of range.
+        final Object value = array.get(index);
+
+        return new BuiltinElement(_factory, value);
+    }
+
+    @Override
+    public JsonElement get(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name must not be null");
+        }
+
+        if (!isObject()) {
+            return JsonEmpty.INSTANCE;
+        }
+
+        final Map<?, ?> object = (Map<?, ?>) _value;
+        final Object value = object.get(name);
+
+        if ((value == null) && !object.containsKey(name)) {
+            return JsonEmpty.INSTANCE;
+        }
+
+        return new BuiltinElement(_factory, value);
+    }
+
+    @Override
+    public boolean getBoolean(final boolean defaultValue) {
+        if (_value instanceof Boolean) {
+            return (Boolean) _value;
+        }
+        if (_value instanceof String) {
+            return Boolean.parseBoolean((String) _value);
+        }
+
+        return defaultValue;
+    }
+
+    @Override
+    public double getDouble(final double defaultValue) {
+        if (_value instanceof Number) {
+            return ((Number) _value).doubleValue();
+        }
+        if (_value instanceof String) {
+            try {
+                return Double.parseDouble((String) _value);
+            } catch (final NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+
+        return defaultValue;
+    }
+
+    @Override
+    public int getInt(final int defaultValue) {
+        if (_value instanceof Number) {
+            return ((Number) _value).intValue();
+        }
+        if (_value instanceof String) {
+            try {
+                return Integer.parseInt((String) _value);
+            } catch (final NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+
+        return defaultValue;
+    }
+
+    @Override
+    public long getLong(final long defaultValue) {
+        if (_value instanceof Number) {
+            return ((Number) _value).longValue();
+        }
+        if (_value instanceof String) {
+            try {
+                return Long.parseLong((String) _value);
+            } catch (final NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+
+        return defaultValue;
+    }
+
+    @Override
+    public String getString(final String defaultValue) {
+        if ((_value instanceof String) || (_value instanceof Number) || (_value instanceof Boolean)) {
+            return _value.toString();
+        }
+
+        return defaultValue;
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        return type.cast(_value);
+    }
+
+    @Override
+    public int size() {
+        if (!isArray()) {
+            return 0;
+        }
+
+        final List<?> array = (List<?>) _value;
+
+        return array.size();
+    }
+
+    @Override
+    public <T> T toObject(final Class<T> type, final T defaultValue) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        if (_value == null) {
+            return null;
+        }
+        if (!isArray() && !isObject()) {
+            return defaultValue;
+        }
+        if (type.isInstance(_value) && (_factory.getCodec(type) == null)) {
+            return type.cast(_value);
+        }
+        final StringReader input = new StringReader(toString());
+
+        try (final JsonReader reader = _factory.newReader(input)) {
+            return reader.readObject(type);
+        } catch (final JsonException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+    }
+
+    @Override
+    public <T> T toObject(final JsonCodec<T> codec, final T defaultValue) {
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec must not be null");
+        }
+
+        if (_value == null) {
+            return null;
+        }
+        final StringReader input = new StringReader(toString());
+
+        try (final JsonReader reader = _factory.newReader(input)) {
+            return codec.read(reader);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return (_value == null) ? 0 : _value.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (!(other instanceof BuiltinElement)) {
+            return false;
+        }
+
+        final BuiltinElement element = (BuiltinElement) other;
+
+        return (_value == null) ? (element._value == null) : _value.equals(element._value);
+    }
+
+    @Override
+    public String toString() {
+        final StringWriter output = new StringWriter();
+
+        try (final JsonWriter writer = _factory.newWriter(output)) {
+            writer.writeObject(_value);
+        }
+
+        return output.toString();
+    }
+}
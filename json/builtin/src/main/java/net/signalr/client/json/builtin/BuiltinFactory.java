@@ -0,0 +1,189 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json.builtin;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonFactory;
+import net.signalr.client.json.JsonReader;
+import net.signalr.client.json.JsonType;
+import net.signalr.client.json.JsonWriter;
+
+/**
+ * Represents a dependency-free JSON factory specialized for SignalR frames.
+ * 
+ * Types without a user codec are mapped by their fields, which requires a constructor without parameters for reading.
+ * User codecs avoid the reflection.
+ */
+public final class BuiltinFactory implements JsonFactory {
+
+    /**
+     * The user codecs.
+     */
+    private final ConcurrentMap<Class<?>, JsonCodec<?>> _codecs;
+
+    /**
+     * The field codecs of types without a user codec.
+     */
+    private final ConcurrentMap<Class<?>, BuiltinFieldCodec<?>> _fieldCodecs;
+
+    /**
+     * Initializes a new instance of the {@link BuiltinFactory} class.
+     */
+    public BuiltinFactory() {
+        _codecs = new ConcurrentHashMap<>();
+        _fieldCodecs = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Adds the specified user codec.
+     * 
+     * @param type The object type.
+     * @param codec The codec.
+     */
+    public <T> void addCodec(final Class<T> type, final JsonCodec<T> codec) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec must not be null");
+        }
+
+        _codecs.put(type, codec);
+    }
+
+    /**
+     * Returns the user codec for the specified type.
+     * 
+     * @param type The object type.
+     * @return The codec or <code>null</code>.
+     */
+    @SuppressWarnings("unchecked")
+    <T> JsonCodec<T> getCodec(final Class<T> type) {
+        if (_codecs.isEmpty()) {
+            return null;
+        }
+
+        return (JsonCodec<T>) _codecs.get(type);
+    }
+
+    /**
+     * Returns the field codec for the specified type, creating it on first use.
+     * 
+     * @param type The object type.
+     * @return The field codec.
+     */
+    @SuppressWarnings("unchecked")
+    <T> BuiltinFieldCodec<T> getFieldCodec(final Class<T> type) {
+        BuiltinFieldCodec<?> codec = _fieldCodecs.get(type);
+
+        if (codec == null) {
+            final BuiltinFieldCodec<T> newCodec = new BuiltinFieldCodec<>(this, type);
+
+            codec = _fieldCodecs.putIfAbsent(type, newCodec);
+            if (codec == null) {
+                codec = newCodec;
+            }
+        }
+
+        return (BuiltinFieldCodec<T>) codec;
+    }
+
+    @Override
+    public JsonReader newReader(final Reader input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input must not be null");
+        }
+
+        return new BuiltinReader(this, input);
+    }
+
+    @Override
+    public JsonWriter newWriter(final Writer output) {
+        if (output == null) {
+            throw new IllegalArgumentException("Output must not be null");
+        }
+
+        return new BuiltinWriter(this, output);
+    }
+
+    @Override
+    public <T> JsonCodec<T> newCodec(final Class<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        final JsonCodec<T> codec = getCodec(type);
+
+        if (codec != null) {
+            return codec;
+        }
+
+        return new BuiltinObjectCodec<>(type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> JsonCodec<T> newCodec(final JsonType<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        return (JsonCodec<T>) newCodec(type.getType());
+    }
+
+    /**
+     * Creates a new codec for the specified reflected type.
+     * 
+     * @param type The reflected type.
+     * @return The new codec.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    JsonCodec<?> newCodec(final Type type) {
+        if (type instanceof Class) {
+            return newCodec((Class<?>) type);
+        }
+        if (!(type instanceof ParameterizedType)) {
+            // Type variables, wildcards and generic arrays are bound as untyped values.
+            return newCodec(Object.class);
+        }
+        final ParameterizedType parameterizedType = (ParameterizedType) type;
+        final Class<?> rawType = (Class<?>) parameterizedType.getRawType();
+        final Type[] typeArguments = parameterizedType.getActualTypeArguments();
+
+        if (Collection.class.isAssignableFrom(rawType) && BuiltinCollectionCodec.isSupported(rawType)) {
+            final JsonCodec<?> elementCodec = newCodec(typeArguments[0]);
+
+            return new BuiltinCollectionCodec(BuiltinCollectionCodec.isSet(rawType), elementCodec);
+        }
+        if (rawType.isAssignableFrom(LinkedHashMap.class) && (typeArguments[0] == String.class)) {
+            final JsonCodec<?> valueCodec = newCodec(typeArguments[1]);
+
+            return new BuiltinMapCodec(valueCodec);
+        }
+
+        return newCodec(rawType);
+    }
+}
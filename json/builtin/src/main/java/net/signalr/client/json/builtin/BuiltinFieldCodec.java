@@ -0,0 +1,195 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json.builtin;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonException;
+import net.signalr.client.json.JsonReader;
+import net.signalr.client.json.JsonWriter;
+
+/**
+ * Represents a built-in codec which maps the fields of a type without a user codec, like Gson does.
+ *
+ * All non-static, non-transient fields of the type and its super types are mapped by their names. Fields with a
+ * <code>null</code> value are not written. Reading requires a constructor without parameters.
+ */
+final class BuiltinFieldCodec<T> implements JsonCodec<T> {
+
+    /**
+     * The object type.
+     */
+    private final Class<T> _type;
+
+    /**
+     * The constructor or <code>null</code> if the type has no constructor without parameters.
+     */
+    private final Constructor<T> _constructor;
+
+    /**
+     * The fields by name.
+     */
+    private final Map<String, Field> _fields;
+
+    /**
+     * The field codecs by name.
+     */
+    private final Map<String, JsonCodec<Object>> _codecs;
+
+    /**
+     * Initializes a new instance of the {@link BuiltinFieldCodec} class.
+     *
+     * @param factory The factory.
+     * @param type The object type.
+     */
+    @SuppressWarnings("unchecked")
+    public BuiltinFieldCodec(final BuiltinFactory factory, final Class<T> type) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Factory must not be null");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        _type = type;
+        _constructor = getConstructor(type);
+        _fields = new LinkedHashMap<>();
+        _codecs = new LinkedHashMap<>();
+
+        for (Class<?> current = type; (current != null) && (current != Object.class); current = current.getSuperclass()) {
+            for (final Field field : current.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                final String name = field.getName();
+
+                // Fields of sub types hide fields of super types.
+                if (_fields.containsKey(name)) {
+                    continue;
+                }
+                field.setAccessible(true);
+                _fields.put(name, field);
+                _codecs.put(name, (JsonCodec<Object>) factory.newCodec(field.getGenericType()));
+            }
+        }
+    }
+
+    /**
+     * Returns the constructor without parameters of the specified type.
+     *
+     * @param type The type.
+     * @return The constructor or <code>null</code>.
+     */
+    private static <T> Constructor<T> getConstructor(final Class<T> type) {
+        if (Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+
+        try {
+            final Constructor<T> constructor = type.getDeclaredConstructor();
+
+            constructor.setAccessible(true);
+
+            return constructor;
+        } catch (final NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public T read(final JsonReader reader) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader must not be null");
+        }
+
+        if ((reader instanceof BuiltinReader) && ((BuiltinReader) reader).isNull()) {
+            reader.readNull();
+
+            return null;
+        }
+        if (_constructor == null) {
+            throw new JsonException("No codec registered for type " + _type.getName() + " and it has no constructor without parameters");
+        }
+        final T object;
+
+        try {
+            object = _constructor.newInstance();
+        } catch (final ReflectiveOperationException e) {
+            throw new JsonException(e);
+        }
+        reader.readBeginObject();
+        while (reader.read()) {
+            final String name = reader.getName();
+            final Field field = _fields.get(name);
+
+            if (field == null) {
+                reader.skipValue();
+                continue;
+            }
+            final Object value = _codecs.get(name).read(reader);
+
+            // Primitive fields keep their default value for null.
+            if ((value == null) && field.getType().isPrimitive()) {
+                continue;
+            }
+            try {
+                field.set(object, value);
+            } catch (final IllegalAccessException e) {
+                throw new JsonException(e);
+            }
+        }
+        reader.readEndObject();
+
+        return object;
+    }
+
+    @Override
+    public void write(final JsonWriter writer, final T object) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer must not be null");
+        }
+
+        if (object == null) {
+            writer.writeNull();
+            return;
+        }
+
+        writer.writeBeginObject();
+        for (final Map.Entry<String, Field> entry : _fields.entrySet()) {
+            final Object value;
+
+            try {
+                value = entry.getValue().get(object);
+            } catch (final IllegalAccessException e) {
+                throw new JsonException(e);
+            }
+            if (value == null) {
+                continue;
+            }
+            writer.writeName(entry.getKey());
+            writer.writeObject(value);
+        }
+        writer.writeEndObject();
+    }
+}
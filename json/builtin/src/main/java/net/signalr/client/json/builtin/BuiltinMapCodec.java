@@ -0,0 +1,98 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json.builtin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonReader;
+import net.signalr.client.json.JsonWriter;
+
+/**
+ * Represents a built-in codec for maps with a generic value type.
+ */
+final class BuiltinMapCodec<V> implements JsonCodec<Map<String, V>> {
+
+    /**
+     * The value codec.
+     */
+    private final JsonCodec<V> _valueCodec;
+
+    /**
+     * Initializes a new instance of the {@link BuiltinMapCodec} class.
+     * 
+     * @param valueCodec The value codec.
+     */
+    public BuiltinMapCodec(final JsonCodec<V> valueCodec) {
+        if (valueCodec == null) {
+            throw new IllegalArgumentException("Value codec must not be null");
+        }
+
+        _valueCodec = valueCodec;
+    }
+
+    @Override
+    public Map<String, V> read(final JsonReader reader) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader must not be null");
+        }
+
+        if ((reader instanceof BuiltinReader) && ((BuiltinReader) reader).isNull()) {
+            reader.readNull();
+
+            return null;
+        }
+        final Map<String, V> map = new LinkedHashMap<>();
+
+        reader.readBeginObject();
+        while (reader.read()) {
+            final String name = reader.getName();
+            final V value = _valueCodec.read(reader);
+
+            map.put(name, value);
+        }
+        reader.readEndObject();
+
+        return map;
+    }
+
+    @Override
+    public void write(final JsonWriter writer, final Map<String, V> map) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer must not be null");
+        }
+
+        if (map == null) {
+            writer.writeNull();
+            return;
+        }
+
+        writer.writeBeginObject();
+        for (final Map.Entry<String, V> entry : map.entrySet()) {
+            final V value = entry.getValue();
+
+            writer.writeName(entry.getKey());
+            if (value == null) {
+                writer.writeNull();
+            } else {
+                _valueCodec.write(writer, value);
+            }
+        }
+        writer.writeEndObject();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json.builtin;
+
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonReader;
+import net.signalr.client.json.JsonWriter;
+
+/**
+ * Represents a built-in codec for types without a user codec.
+ */
+final class BuiltinObjectCodec<T> implements JsonCodec<T> {
+
+    /**
+     * The object type.
+     */
+    private final Class<T> _type;
+
+    /**
+     * Initializes a new instance of the {@link BuiltinObjectCodec} class.
+     * 
+     * @param type The object type.
+     */
+    public BuiltinObjectCodec(final Class<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        _type = type;
+    }
+
+    @Override
+    public T read(final JsonReader reader) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader must not be null");
+        }
+
+        return reader.readObject(_type);
+    }
+
+    @Override
+    public void write(final JsonWriter writer, final T object) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer must not be null");
+        }
+
+        writer.writeObject(object);
+    }
+}
@@ -0,0 +1,765 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json.builtin;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonEmpty;
+import net.signalr.client.json.JsonException;
+import net.signalr.client.json.JsonReader;
+
+/**
+ * Represents a built-in streaming JSON reader.
+ */
+final class BuiltinReader implements JsonReader {
+
+    /**
+     * The buffer size.
+     */
+    private static final int BUFFER_SIZE = 1024;
+
+    /**
+     * The cached single character names.
+     */
+    private static final String[] NAMES;
+
+    static {
+        NAMES = new String[128];
+
+        for (int i = 0; i < NAMES.length; i++) {
+            NAMES[i] = String.valueOf((char) i).intern();
+        }
+    }
+
+    /**
+     * The factory.
+     */
+    private final BuiltinFactory _factory;
+
+    /**
+     * The underlying input.
+     */
+    private final Reader _input;
+
+    /**
+     * The buffer.
+     */
+    private final char[] _buffer;
+
+    /**
+     * The scratch builder.
+     */
+    private final StringBuilder _builder;
+
+    /**
+     * The buffer position.
+     */
+    private int _position;
+
+    /**
+     * The buffer limit.
+     */
+    private int _limit;
+
+    /**
+     * Initializes a new instance of the {@link BuiltinReader}.
+     * 
+     * @param factory The factory.
+     * @param input The underlying input.
+     */
+    public BuiltinReader(final BuiltinFactory factory, final Reader input) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Factory must not be null");
+        }
+        if (input == null) {
+            throw new IllegalArgumentException("Input must not be null");
+        }
+
+        _factory = factory;
+        _input = input;
+
+        _buffer = new char[BUFFER_SIZE];
+        _builder = new StringBuilder();
+        _position = 0;
+        _limit = 0;
+    }
+
+    /**
+     * Fills the buffer if it has been consumed.
+     * 
+     * @return A value indicating whether a character is available.
+     */
+    private boolean fill() {
+        if (_position < _limit) {
+            return true;
+        }
+
+        final int count;
+
+        try {
+            count = _input.read(_buffer, 0, _buffer.length);
+        } catch (final IOException e) {
+            throw new JsonException(e);
+        }
+        _position = 0;
+        _limit = Math.max(count, 0);
+
+        return (count > 0);
+    }
+
+    /**
+     * Returns the next non-whitespace character without consuming it.
+     * 
+     * @return The next character or -1.
+     */
+    private int peek() {
+        while (fill()) {
+            final char c = _buffer[_position];
+
+            if ((c != ' ') && (c != '\t') && (c != '\n') && (c != '\r')) {
+                return c;
+            }
+            _position++;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the next non-whitespace character of a value without consuming it, skipping a leading separator.
+     * 
+     * @return The next character or -1.
+     */
+    private int peekValue() {
+        final int c = peek();
+
+        if (c != ',') {
+            return c;
+        }
+        _position++;
+
+        return peek();
+    }
+
+    /**
+     * Describes the specified character.
+     * 
+     * @param c The character.
+     * @return The description.
+     */
+    private static String describe(final int c) {
+        return (c < 0) ? "END_OF_INPUT" : "'" + (char) c + "'";
+    }
+
+    /**
+     * Consumes the specified character.
+     * 
+     * @param c The actual character.
+     * @param expected The expected character.
+     * @param name The expected token name.
+     */
+    private void consume(final int c, final char expected, final String name) {
+        if (c != expected) {
+            throw new JsonException("Expected " + name + " but was " + describe(c));
+        }
+        _position++;
+    }
+
+    /**
+     * Returns a value indicating whether the specified character is a delimiter.
+     * 
+     * @param c The character.
+     * @return A value indicating whether the specified character is a delimiter.
+     */
+    private static boolean isDelimiter(final char c) {
+        switch (c) {
+        case ',':
+        case ':':
+        case '{':
+        case '}':
+        case '[':
+        case ']':
+        case '"':
+        case ' ':
+        case '\t':
+        case '\n':
+        case '\r':
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Reads an unquoted token into the scratch builder.
+     */
+    private void readToken() {
+        final int c = peekValue();
+
+        if (c < 0) {
+            throw new JsonException("Expected value but was " + describe(c));
+        }
+        _builder.setLength(0);
+
+        while (fill()) {
+            final char t = _buffer[_position];
+
+            if (isDelimiter(t)) {
+                break;
+            }
+            _builder.append(t);
+            _position++;
+        }
+        if (_builder.length() == 0) {
+            throw new JsonException("Expected value but was " + describe(c));
+        }
+    }
+
+    /**
+     * Returns a value indicating whether the scratch builder equals the specified text.
+     * 
+     * @param text The text.
+     * @return A value indicating whether the scratch builder equals the specified text.
+     */
+    private boolean tokenEquals(final String text) {
+        final int length = text.length();
+
+        if (_builder.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (_builder.charAt(i) != text.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns a value indicating whether the scratch builder holds an integral number.
+     * 
+     * @return A value indicating whether the scratch builder holds an integral number.
+     */
+    private boolean isIntegralToken() {
+        final int length = _builder.length();
+        final int start = (_builder.charAt(0) == '-') ? 1 : 0;
+
+        // Longer numbers might overflow and are handled by the slow path.
+        if ((length == start) || ((length - start) > 18)) {
+            return false;
+        }
+        for (int i = start; i < length; i++) {
+            final char c = _builder.charAt(i);
+
+            if ((c < '0') || (c > '9')) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Parses the scratch builder as an integral number.
+     * 
+     * @return The integral number.
+     */
+    private long parseIntegralToken() {
+        final int length = _builder.length();
+        final boolean negative = (_builder.charAt(0) == '-');
+        long value = 0;
+
+        for (int i = negative ? 1 : 0; i < length; i++) {
+            value = (value * 10) + (_builder.charAt(i) - '0');
+        }
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * Reads a number token or a quoted number.
+     * 
+     * @return A value indicating whether the number is integral.
+     */
+    private boolean readNumberToken() {
+        if (peekValue() == '"') {
+            final String value = parseString();
+
+            _builder.setLength(0);
+            _builder.append(value);
+        } else {
+            readToken();
+        }
+
+        return isIntegralToken();
+    }
+
+    /**
+     * Parses a string starting at the opening quote.
+     * 
+     * @return The string.
+     */
+    private String parseString() {
+        _position++;
+        // Fast path: the string is contained in the buffer and has no escape sequences.
+        for (int i = _position; i < _limit; i++) {
+            final char c = _buffer[i];
+
+            if (c == '"') {
+                final String value = new String(_buffer, _position, i - _position);
+
+                _position = i + 1;
+
+                return value;
+            }
+            if (c == '\\') {
+                break;
+            }
+        }
+        _builder.setLength(0);
+
+        while (fill()) {
+            final char c = _buffer[_position++];
+
+            if (c == '"') {
+                return _builder.toString();
+            }
+            if (c != '\\') {
+                _builder.append(c);
+                continue;
+            }
+            _builder.append(parseEscape());
+        }
+
+        throw new JsonException("Unterminated string");
+    }
+
+    /**
+     * Parses an escape sequence after the backslash.
+     * 
+     * @return The escaped character.
+     */
+    private char parseEscape() {
+        if (!fill()) {
+            throw new JsonException("Unterminated escape sequence");
+        }
+
+        final char c = _buffer[_position++];
+
+        switch (c) {
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case 'u':
+            int value = 0;
+
+            for (int i = 0; i < 4; i++) {
+                if (!fill()) {
+                    throw new JsonException("Unterminated escape sequence");
+                }
+
+                final int digit = Character.digit(_buffer[_position++], 16);
+
+                if (digit < 0) {
+                    throw new JsonException("Invalid escape sequence");
+                }
+                value = (value << 4) | digit;
+            }
+
+            return (char) value;
+        default:
+            return c;
+        }
+    }
+
+    /**
+     * Parses a name starting at the opening quote.
+     * 
+     * @return The name.
+     */
+    private String parseName() {
+        // SignalR envelopes use single character names, which are served from a cache.
+        if ((_position + 2) < _limit) {
+            final char c = _buffer[_position + 1];
+
+            if ((c < NAMES.length) && (c != '\\') && (c != '"') && (_buffer[_position + 2] == '"')) {
+                _position += 3;
+
+                return NAMES[c];
+            }
+        }
+
+        return parseString();
+    }
+
+    /**
+     * Skips a string starting at the opening quote.
+     */
+    private void skipString() {
+        _position++;
+
+        while (fill()) {
+            final char c = _buffer[_position++];
+
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                if (!fill()) {
+                    break;
+                }
+                _position++;
+            }
+        }
+
+        throw new JsonException("Unterminated string");
+    }
+
+    /**
+     * Reads an untyped value.
+     * 
+     * @return The value.
+     */
+    private Object readValue() {
+        final int c = peekValue();
+
+        switch (c) {
+        case '{':
+            final Map<String, Object> object = new LinkedHashMap<>();
+
+            _position++;
+            while (read()) {
+                final String name = getName();
+
+                object.put(name, readValue());
+            }
+            readEndObject();
+
+            return object;
+        case '[':
+            final List<Object> array = new ArrayList<>();
+
+            _position++;
+            while (read()) {
+                array.add(readValue());
+            }
+            readEndArray();
+
+            return array;
+        case '"':
+            return parseString();
+        case 't':
+        case 'f':
+            return readBoolean();
+        case 'n':
+            readNull();
+
+            return null;
+        default:
+            if (readNumberToken()) {
+                return parseIntegralToken();
+            }
+
+            return parseDoubleToken();
+        }
+    }
+
+    /**
+     * Parses the scratch builder as a double number.
+     * 
+     * @return The double number.
+     */
+    private double parseDoubleToken() {
+        try {
+            return Double.parseDouble(_builder.toString());
+        } catch (final NumberFormatException e) {
+            throw new JsonException(e);
+        }
+    }
+
+    @Override
+    public void readBeginArray() {
+        consume(peekValue(), '[', "BEGIN_ARRAY");
+    }
+
+    @Override
+    public void readEndArray() {
+        consume(peek(), ']', "END_ARRAY");
+    }
+
+    @Override
+    public void readBeginObject() {
+        consume(peekValue(), '{', "BEGIN_OBJECT");
+    }
+
+    @Override
+    public void readEndObject() {
+        consume(peek(), '}', "END_OBJECT");
+    }
+
+    @Override
+    public boolean read() {
+        final int c = peekValue();
+
+        return (c >= 0) && (c != '}') && (c != ']');
+    }
+
+    @Override
+    public String getName() {
+        final int c = peekValue();
+
+        if (c != '"') {
+            throw new JsonException("Expected NAME but was " + describe(c));
+        }
+
+        final String name = parseName();
+
+        consume(peek(), ':', "':'");
+
+        return name;
+    }
+
+    /**
+     * Returns a value indicating whether the next value is a null literal.
+     * 
+     * @return A value indicating whether the next value is a null literal.
+     */
+    boolean isNull() {
+        return (peekValue() == 'n');
+    }
+
+    @Override
+    public JsonElement readElement() {
+        if (peekValue() < 0) {
+            return JsonEmpty.INSTANCE;
+        }
+
+        final Object value = readValue();
+
+        return new BuiltinElement(_factory, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T readObject(final Class<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        final JsonCodec<T> codec = _factory.getCodec(type);
+
+        if (codec != null) {
+            return codec.read(this);
+        }
+        if (!type.isPrimitive() && isNull()) {
+            readNull();
+
+            return null;
+        }
+        if (type == String.class) {
+            return (T) readString();
+        }
+        if ((type == Integer.class) || (type == int.class)) {
+            return (T) Integer.valueOf(readInt());
+        }
+        if ((type == Long.class) || (type == long.class)) {
+            return (T) Long.valueOf(readLong());
+        }
+        if ((type == Double.class) || (type == double.class)) {
+            return (T) Double.valueOf(readDouble());
+        }
+        if ((type == Boolean.class) || (type == boolean.class)) {
+            return (T) Boolean.valueOf(readBoolean());
+        }
+        if ((type == Float.class) || (type == float.class)) {
+            return (T) Float.valueOf((float) readDouble());
+        }
+        if ((type == Short.class) || (type == short.class)) {
+            return (T) Short.valueOf((short) readInt());
+        }
+        if ((type == Byte.class) || (type == byte.class)) {
+            return (T) Byte.valueOf((byte) readInt());
+        }
+        if (type == JsonElement.class) {
+            return (T) readElement();
+        }
+        if (type.isEnum()) {
+            return (T) Enum.valueOf(type.asSubclass(Enum.class), readString());
+        }
+        if (type.isArray()) {
+            final Class<?> componentType = type.getComponentType();
+            final List<Object> values = new ArrayList<>();
+
+            readBeginArray();
+            while (read()) {
+                values.add(readObject(componentType));
+            }
+            readEndArray();
+            final Object array = Array.newInstance(componentType, values.size());
+
+            for (int i = 0; i < values.size(); i++) {
+                Array.set(array, i, values.get(i));
+            }
+
+            return (T) array;
+        }
+
+        if ((peekValue() == '{') && !type.isAssignableFrom(LinkedHashMap.class)) {
+            return _factory.getFieldCodec(type).read(this);
+        }
+        final Object value = readValue();
+
+        if (!type.isInstance(value)) {
+            throw new JsonException("No codec registered for type " + type.getName());
+        }
+
+        return type.cast(value);
+    }
+
+    @Override
+    public void readNull() {
+        readToken();
+
+        if (!tokenEquals("null")) {
+            throw new JsonException("Expected NULL but was '" + _builder + "'");
+        }
+    }
+
+    @Override
+    public String readString() {
+        final int c = peekValue();
+
+        if (c == '"') {
+            return parseString();
+        }
+        readToken();
+        if (tokenEquals("null")) {
+            return null;
+        }
+
+        return _builder.toString();
+    }
+
+    @Override
+    public boolean readBoolean() {
+        readToken();
+
+        if (tokenEquals("true")) {
+            return true;
+        }
+        if (tokenEquals("false")) {
+            return false;
+        }
+
+        throw new JsonException("Expected BOOLEAN but was '" + _builder + "'");
+    }
+
+    @Override
+    public double readDouble() {
+        if (readNumberToken()) {
+            return parseIntegralToken();
+        }
+
+        return parseDoubleToken();
+    }
+
+    @Override
+    public long readLong() {
+        if (readNumberToken()) {
+            return parseIntegralToken();
+        }
+
+        final double value = parseDoubleToken();
+        final long result = (long) value;
+
+        if (result != value) {
+            throw new JsonException("Expected LONG but was '" + _builder + "'");
+        }
+
+        return result;
+    }
+
+    @Override
+    public int readInt() {
+        final long value = readLong();
+
+        if ((value < Integer.MIN_VALUE) || (value > Integer.MAX_VALUE)) {
+            throw new JsonException("Expected INT but was " + value);
+        }
+
+        return (int) value;
+    }
+
+    @Override
+    public void skipValue() {
+        final int c = peekValue();
+
+        if (c == '"') {
+            skipString();
+            return;
+        }
+        if ((c != '{') && (c != '[')) {
+            readToken();
+            return;
+        }
+        int depth = 0;
+
+        while (fill()) {
+            final char t = _buffer[_position];
+
+            if (t == '"') {
+                skipString();
+                continue;
+            }
+            _position++;
+            if ((t == '{') || (t == '[')) {
+                depth++;
+            } else if ((t == '}') || (t == ']')) {
+                if (--depth == 0) {
+                    return;
+                }
+            }
+        }
+
+        throw new JsonException("Unterminated structure");
+    }
+
+    @Override
+    public void close() {
+        try {
+            _input.close();
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json.builtin;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.Map;
+
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonException;
+import net.signalr.client.json.JsonWriter;
+
+/**
+ * Represents a built-in streaming JSON writer.
+ */
+final class BuiltinWriter implements JsonWriter {
+
+    /**
+     * The replacement strings for the ASCII characters which must be escaped.
+     */
+    private static final String[] REPLACEMENTS;
+
+    static {
+        REPLACEMENTS = new String[128];
+
+        for (int i = 0; i < 0x20; i++) {
+            REPLACEMENTS[i] = String.format("\\u%04x", i);
+        }
+        REPLACEMENTS['"'] = "\\\"";
+        REPLACEMENTS['\\'] = "\\\\";
+        REPLACEMENTS['\t'] = "\\t";
+        REPLACEMENTS['\b'] = "\\b";
+        REPLACEMENTS['\n'] = "\\n";
+        REPLACEMENTS['\r'] = "\\r";
+        REPLACEMENTS['\f'] = "\\f";
+    }
+
+    /**
+     * The factory.
+     */
+    private final BuiltinFactory _factory;
+
+    /**
+     * The underlying output.
+     */
+    private final Writer _output;
+
+    /**
+     * The scratch buffer for numbers.
+     */
+    private final char[] _digits;
+
+    /**
+     * A value indicating whether the next value must be preceded by a separator.
+     */
+    private boolean _separate;
+
+    /**
+     * Initializes a new instance of the {@link BuiltinWriter}.
+     * 
+     * @param factory The factory.
+     * @param output The underlying output.
+     */
+    public BuiltinWriter(final BuiltinFactory factory, final Writer output) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Factory must not be null");
+        }
+        if (output == null) {
+            throw new IllegalArgumentException("Output must not be null");
+        }
+
+        _factory = factory;
+        _output = output;
+
+        _digits = new char[20];
+        _separate = false;
+    }
+
+    /**
+     * Writes a separator if required.
+     * 
+     * @throws IOException
+     */
+    private void separate() throws IOException {
+        if (_separate) {
+            _output.write(',');
+        }
+    }
+
+    /**
+     * Writes a quoted and escaped string.
+     * 
+     * @param value The string.
+     * @throws IOException
+     */
+    private void quote(final String value) throws IOException {
+        final int length = value.length();
+        int last = 0;
+
+        _output.write('"');
+
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            final String replacement;
+
+            if (c < REPLACEMENTS.length) {
+                replacement = REPLACEMENTS[c];
+                if (replacement == null) {
+                    continue;
+                }
+            } else if (c == '\u2028') {
+                replacement = "\\u2028";
+            } else if (c == '\u2029') {
+                replacement = "\\u2029";
+            } else {
+                continue;
+            }
+            if (last < i) {
+                _output.write(value, last, i - last);
+            }
+            _output.write(replacement);
+            last = i + 1;
+        }
+        if (last < length) {
+            _output.write(value, last, length - last);
+        }
+
+        _output.write('"');
+    }
+
+    /**
+     * Writes a long value without allocating.
+     * 
+     * @param value The long value.
+     * @throws IOException
+     */
+    private void number(final long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            _output.write(Long.toString(value));
+            return;
+        }
+
+        long remainder = Math.abs(value);
+        int position = _digits.length;
+
+        do {
+            _digits[--position] = (char) ('0' + (remainder % 10));
+            remainder /= 10;
+        } while (remainder != 0);
+        if (value < 0) {
+            _digits[--position] = '-';
+        }
+
+        _output.write(_digits, position, _digits.length - position);
+    }
+
+    @Override
+    public void writeBeginArray() {
+        try {
+            separate();
+            _output.write('[');
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+        _separate = false;
+    }
+
+    @Override
+    public void writeEndArray() {
+        try {
+            _output.write(']');
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+        _separate = true;
+    }
+
+    @Override
+    public void writeBeginObject() {
+        try {
+            separate();
+            _output.write('{');
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+        _separate = false;
+    }
+
+    @Override
+    public void writeEndObject() {
+        try {
+            _output.write('}');
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+        _separate = true;
+    }
+
+    @Override
+    public void writeName(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name must not be null");
+        }
+
+        try {
+            separate();
+            quote(name);
+            _output.write(':');
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+        _separate = false;
+    }
+
+    @Override
+    public void writeElement(final JsonElement element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element must not be null");
+        }
+
+        final Object value = element.unwrap(Object.class);
+
+        writeObject(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> void writeObject(final T object) {
+        if (object == null) {
+            writeNull();
+            return;
+        }
+
+        final Class<T> type = (Class<T>) object.getClass();
+        final JsonCodec<T> codec = _factory.getCodec(type);
+
+        if (codec != null) {
+            codec.write(this, object);
+        } else if (object instanceof String) {
+            writeString((String) object);
+        } else if (object instanceof Boolean) {
+            writeBoolean((Boolean) object);
+        } else if ((object instanceof Integer) || (object instanceof Long) || (object instanceof Short) || (object instanceof Byte)) {
+            writeLong(((Number) object).longValue());
+        } else if ((object instanceof Double) || (object instanceof Float)) {
+            writeDouble(((Number) object).doubleValue());
+        } else if (object instanceof Number) {
+            writeRaw(object.toString());
+        } else if ((object instanceof Character) || (object instanceof Enum)) {
+            writeString(object.toString());
+        } else if (object instanceof JsonElement) {
+            writeElement((JsonElement) object);
+        } else if (object instanceof Map) {
+            writeBeginObject();
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                writeName(String.valueOf(entry.getKey()));
+                writeObject(entry.getValue());
+            }
+            writeEndObject();
+        } else if (object instanceof Iterable) {
+            writeBeginArray();
+            for (final Object value : (Iterable<?>) object) {
+                writeObject(value);
+            }
+            writeEndArray();
+        } else if (type.isArray()) {
+            final int length = Array.getLength(object);
+
+            writeBeginArray();
+            for (int i = 0; i < length; i++) {
+                writeObject(Array.get(object, i));
+            }
+            writeEndArray();
+        } else {
+            _factory.getFieldCodec(type).write(this, object);
+        }
+    }
+
+    /**
+     * Writes a raw value.
+     * 
+     * @param value The raw value.
+     */
+    private void writeRaw(final String value) {
+        try {
+            separate();
+            _output.write(value);
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+        _separate = true;
+    }
+
+    @Override
+    public void writeNull() {
+        writeRaw("null");
+    }
+
+    @Override
+    public void writeString(final String value) {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+
+        try {
+            separate();
+            quote(value);
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+        _separate = true;
+    }
+
+    @Override
+    public void writeBoolean(final boolean value) {
+        writeRaw(value ? "true" : "false");
+    }
+
+    @Override
+    public void writeDouble(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new JsonException("Numeric values must be finite, but was " + value);
+        }
+
+        writeRaw(Double.toString(value));
+    }
+
+    @Override
+    public void writeLong(final long value) {
+        try {
+            separate();
+            number(value);
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+        _separate = true;
+    }
+
+    @Override
+    public void writeInt(final int value) {
+        writeLong(value);
+    }
+
+    @Override
+    public void flush() {
+        try {
+            _output.flush();
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            _output.close();
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+    }
+}
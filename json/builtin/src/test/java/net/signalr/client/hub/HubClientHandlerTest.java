@@ -0,0 +1,131 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import net.signalr.client.json.DefaultJsonMapper;
+import net.signalr.client.json.JsonFactory;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.builtin.BuiltinFactory;
+import net.signalr.client.util.concurrent.promise.Promise;
+import net.signalr.client.util.concurrent.promise.Promises;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class HubClientHandlerTest {
+
+    private StubHubDispatcher _dispatcher;
+
+    @Before
+    public void before() {
+        final JsonFactory factory = new BuiltinFactory();
+        final JsonMapper mapper = new DefaultJsonMapper(factory);
+
+        _dispatcher = new StubHubDispatcher(mapper);
+    }
+
+    private <T> T createClient(final Class<T> type) {
+        return HubClientHandler.newClient(type, _dispatcher);
+    }
+
+    @Test
+    public void createClientTest() {
+        // Arrange
+        // Act
+        final Calculator calculator = createClient(Calculator.class);
+
+        // Assert
+        assertNotNull(calculator);
+        assertThat(_dispatcher.getHubNames().get(0), is("calculatorHub"));
+    }
+
+    @Test
+    public void invokeTest() throws Exception {
+        // Arrange
+        final Calculator calculator = createClient(Calculator.class);
+
+        _dispatcher.setResponse("{\"I\":\"1\",\"R\":3}");
+
+        // Act
+        final Promise<Integer> result = calculator.add(1, 2);
+
+        // Assert
+        assertThat(Promises.await(result), is(3));
+        assertThat(_dispatcher.getMessages().get(0), is("{\"H\":\"calculatorHub\",\"M\":\"Add\",\"A\":[1,2],\"I\":\"1\"}"));
+    }
+
+    @Test
+    public void invokeWithStateTest() throws Exception {
+        // Arrange
+        final Calculator calculator = createClient(Calculator.class);
+
+        _dispatcher.setResponse("{\"I\":\"1\",\"R\":3,\"S\":{\"count\":\"1\"}}");
+
+        // Act
+        Promises.await(calculator.add(1, 2));
+        Promises.await(calculator.add(1, 2));
+
+        // Assert
+        assertThat(_dispatcher.getMessages().get(0), is("{\"H\":\"calculatorHub\",\"M\":\"Add\",\"A\":[1,2],\"I\":\"1\"}"));
+        assertThat(_dispatcher.getMessages().get(1), is("{\"H\":\"calculatorHub\",\"M\":\"Add\",\"A\":[1,2],\"I\":\"2\",\"S\":{\"count\":\"1\"}}"));
+    }
+
+    @Test
+    public void invokeWithGenericResultTest() throws Exception {
+        // Arrange
+        final Calculator calculator = createClient(Calculator.class);
+
+        _dispatcher.setResponse("{\"I\":\"1\",\"R\":[1,2]}");
+
+        // Act
+        final Promise<List<Integer>> result = calculator.range(1, 2);
+
+        // Assert
+        assertThat(Promises.await(result).size(), is(2));
+        assertThat(_dispatcher.getMessages().get(0), is("{\"H\":\"calculatorHub\",\"M\":\"range\",\"A\":[1,2],\"I\":\"1\"}"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createClientWithInvalidMethodTest() {
+        // Arrange
+        // Act
+        // Assert
+        createClient(InvalidClient.class);
+    }
+
+    @HubName("calculatorHub")
+    public interface Calculator {
+
+        @HubMethod("Add")
+        Promise<Integer> add(int a, int b);
+
+        Promise<List<Integer>> range(int from, int to);
+    }
+
+    public interface InvalidClient {
+
+        int add(int a, int b);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import net.signalr.client.json.DefaultJsonMapper;
+import net.signalr.client.json.JsonFactory;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.builtin.BuiltinFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class HubConflationKeyTest {
+
+    private JsonMapper _mapper;
+
+    @Before
+    public void before() {
+        final JsonFactory factory = new BuiltinFactory();
+
+        _mapper = new DefaultJsonMapper(factory);
+    }
+
+    private Object getKey(final HubConflationKey key, final String message) {
+        return key.getKey(_mapper.toElement(message));
+    }
+
+    @Test
+    public void getKeyWithNumericKeysTest() {
+        // Arrange
+        final HubConflationKey key = new HubConflationKey(0);
+
+        // Act
+        final Object key1 = getKey(key, "{\"M\":[{\"H\":\"hub\",\"M\":\"update\",\"A\":[1,1.5]}]}");
+        final Object key2 = getKey(key, "{\"M\":[{\"H\":\"hub\",\"M\":\"update\",\"A\":[2,1.5]}]}");
+        final Object key3 = getKey(key, "{\"M\":[{\"H\":\"hub\",\"M\":\"update\",\"A\":[1,1.6]}]}");
+
+        // Assert
+        assertThat(key1, is(not(key2)));
+        assertThat(key1, is(key3));
+    }
+
+    @Test
+    public void getKeyWithResponseTest() {
+        // Arrange
+        final HubConflationKey key = new HubConflationKey(0);
+
+        // Act
+        final Object key1 = getKey(key, "{\"I\":\"1\",\"R\":1}");
+
+        // Assert
+        assertNull(key1);
+    }
+}
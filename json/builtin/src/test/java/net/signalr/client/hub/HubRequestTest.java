@@ -0,0 +1,118 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+
+import net.signalr.client.json.DefaultJsonMapper;
+import net.signalr.client.json.JsonFactory;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.builtin.BuiltinFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class HubRequestTest {
+
+    private JsonMapper _mapper;
+
+    @Before
+    public void before() {
+        final JsonFactory factory = new BuiltinFactory();
+
+        _mapper = new DefaultJsonMapper(factory);
+    }
+
+    @Test
+    public void deserializeTest() {
+        // Arrange
+        final HubRequest request = new HubRequest();
+
+        request.setCallbackId("1");
+
+        // Act
+        final String data = _mapper.toJson(request);
+
+        // Assert
+        assertNotNull(data);
+        assertThat(data, is("{\"I\":\"1\"}"));
+    }
+
+    @Test
+    public void serializeWithStateTest() {
+        // Arrange
+        final HubRequest request = new HubRequest();
+
+        request.setCallbackId("1");
+        request.setState(Collections.<String, Object> singletonMap("user", "x"), "{\"user\":\"x\"}");
+
+        // Act
+        final String data = _mapper.toJson(request);
+        final String text = request.toJson(_mapper);
+
+        // Assert
+        assertThat(data, is("{\"I\":\"1\",\"S\":{\"user\":\"x\"}}"));
+        assertThat(text, is(data));
+    }
+
+    @Test
+    public void templateTest() {
+        // Arrange
+        final HubRequestTemplate template = new HubRequestTemplate(_mapper, "hub", "add");
+        final HubRequest request = new HubRequest();
+
+        request.setTemplate(template);
+        request.setCallbackId("2");
+        request.setArguments(new Object[] { 1, "a" });
+        request.setState(Collections.<String, Object> singletonMap("user", "x"), "{\"user\":\"x\"}");
+
+        // Act
+        final String data = request.toJson(_mapper);
+
+        // Assert
+        assertThat(data, is("{\"H\":\"hub\",\"M\":\"add\",\"A\":[1,\"a\"],\"I\":\"2\",\"S\":{\"user\":\"x\"}}"));
+    }
+
+    @Test
+    public void templateWithSerializedArgumentsTest() {
+        // Arrange
+        final HubRequestTemplate template = new HubRequestTemplate(_mapper, "hub", "add");
+        final HubRequest request = new HubRequest();
+        final Object[] arguments = new Object[] { 1, "a" };
+
+        request.setTemplate(template);
+        request.setCallbackId("2");
+        request.setArguments(arguments);
+        final String argumentsData = request.toArgumentsJson(_mapper);
+
+        arguments[0] = 9;
+
+        // Act
+        final String data = request.toJson(_mapper);
+
+        // Assert
+        // The arguments serialized for the result cache key are reused.
+        assertThat(argumentsData, is("[1,\"a\"]"));
+        assertThat(data, is("{\"H\":\"hub\",\"M\":\"add\",\"A\":[1,\"a\"],\"I\":\"2\"}"));
+    }
+}
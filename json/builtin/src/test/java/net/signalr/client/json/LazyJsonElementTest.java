@@ -0,0 +1,161 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import net.signalr.client.json.builtin.BuiltinFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class LazyJsonElementTest {
+
+    private JsonFactory _factory;
+
+    @Before
+    public void before() {
+        _factory = new BuiltinFactory();
+    }
+
+    private JsonElement toElement(final String text) {
+        return LazyJsonElement.newElement(_factory, text);
+    }
+
+    @Test
+    public void getStringWithEscapedValueTest() {
+        // Arrange
+        final JsonElement object = toElement(" { \"A\" : \"a\\\"b\\u0041\\n\" } ");
+
+        // Act
+        final String value = object.get("A").getString(null);
+
+        // Assert
+        assertThat(value, is("a\"bA\n"));
+    }
+
+    @Test
+    public void getWithEscapedNameTest() {
+        // Arrange
+        final JsonElement object = toElement("{\"\\u0041\":1}");
+
+        // Act
+        final int value = object.get("A").getInt(0);
+
+        // Assert
+        assertThat(value, is(1));
+    }
+
+    @Test
+    public void getWithNestedValuesTest() {
+        // Arrange
+        final JsonElement object = toElement("{\"R\":{\"A\":[1,\"]}\",{\"B\":2}]},\"I\":\"1\",\"H\":true,\"L\":-2.5}");
+
+        // Act
+        final JsonElement array = object.get("R").get("A");
+
+        // Assert
+        assertThat(array.size(), is(3));
+        assertThat(array.get(1).getString(null), is("]}"));
+        assertThat(array.get(2).get("B").getLong(0), is(2L));
+        assertThat(object.get("I").getString(null), is("1"));
+        assertThat(object.get("H").getBoolean(false), is(true));
+        assertThat(object.get("L").getDouble(0), is(-2.5));
+        assertThat(object.get("L").getInt(0), is(0));
+    }
+
+    @Test
+    public void getWithMismatchedTypesTest() {
+        // Arrange
+        final JsonElement object = toElement("{\"N\":101,\"B\":true,\"S\":\"42\"}");
+
+        // Act
+        // Assert
+        assertNull(object.get("N").getString(null));
+        assertNull(object.get("B").getString(null));
+        assertThat(object.get("S").getInt(0), is(0));
+        assertThat(object.get("S").getLong(0), is(0L));
+        assertThat(object.get("S").getBoolean(false), is(false));
+    }
+
+    @Test
+    public void toObjectTest() {
+        // Arrange
+        final JsonElement object = toElement("{\"I\":\"1\",\"R\":{\"A\":1}}");
+
+        // Act
+        final Map<?, ?> value = object.get("R").toObject(Map.class, null);
+
+        // Assert
+        assertNotNull(value);
+        assertThat(value.size(), is(1));
+    }
+
+    @Test
+    public void toObjectWithNullValueTest() {
+        // Arrange
+        final JsonElement object = toElement("{\"R\":null}");
+
+        // Act
+        final Map<?, ?> value = object.get("R").toObject(Map.class, null);
+
+        // Assert
+        assertNull(value);
+    }
+
+    @Test
+    public void toTextTest() {
+        // Arrange
+        final JsonElement object = toElement("{\"A\":[1.50, {\"B\" : true}],\"C\":\"x\"}");
+
+        // Act
+        final String text = JsonText.toText(object.get("A"));
+
+        // Assert
+        assertThat(text, is("[1.50, {\"B\" : true}]"));
+        assertThat(JsonText.hash(object.get("A")), is(text.hashCode()));
+        assertThat(JsonText.toText(object.get("C")), is("\"x\""));
+    }
+
+    @Test
+    public void toStringTest() {
+        // Arrange
+        final JsonElement array = toElement("[ { \"A\" : 1 } ]");
+
+        // Act
+        final String value = array.toString();
+
+        // Assert
+        assertThat(value, is("[{\"A\":1}]"));
+    }
+
+    @Test(expected = JsonException.class)
+    public void unterminatedObjectTest() {
+        // Arrange
+        final JsonElement object = toElement("{\"A\":1");
+
+        // Act
+        // Assert
+        object.get("A");
+    }
+}
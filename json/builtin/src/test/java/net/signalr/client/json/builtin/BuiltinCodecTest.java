@@ -0,0 +1,229 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json.builtin;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import net.signalr.client.json.DefaultJsonMapper;
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonException;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.JsonReader;
+import net.signalr.client.json.JsonType;
+import net.signalr.client.json.JsonWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class BuiltinCodecTest {
+
+    private BuiltinFactory _factory;
+
+    private JsonMapper _mapper;
+
+    @Before
+    public void before() {
+        _factory = new BuiltinFactory();
+        _factory.addCodec(Point.class, new PointCodec());
+        _mapper = new DefaultJsonMapper(_factory);
+    }
+
+    @Test
+    public void writeObjectWithCodecTest() {
+        // Arrange
+        final StringWriter output = new StringWriter();
+        final JsonWriter writer = _factory.newWriter(output);
+
+        // Act
+        writer.writeBeginArray();
+        writer.writeObject(new Point(1, -2));
+        writer.writeString("\"\u2028");
+        writer.writeEndArray();
+        writer.close();
+
+        // Assert
+        assertThat(output.toString(), is("[{\"X\":1,\"Y\":-2},\"\\\"\\u2028\"]"));
+    }
+
+    @Test
+    public void readObjectWithCodecTest() {
+        // Arrange
+        final JsonReader reader = _factory.newReader(new StringReader("{\"X\":3,\"Y\":4}"));
+
+        // Act
+        final Point point = reader.readObject(Point.class);
+
+        // Assert
+        assertThat(point.x, is(3));
+        assertThat(point.y, is(4));
+    }
+
+    @Test
+    public void toObjectWithCodecTest() {
+        // Arrange
+        final JsonReader reader = _factory.newReader(new StringReader("{\"A\":[{\"X\":5,\"Y\":6}]}"));
+        final JsonElement element = reader.readElement();
+
+        // Act
+        final Point point = element.get("A").get(0).toObject(Point.class, null);
+
+        // Assert
+        assertThat(point.x, is(5));
+        assertThat(point.y, is(6));
+    }
+
+    @Test(expected = JsonException.class)
+    public void readObjectWithoutCodecTest() {
+        // Arrange
+        final JsonReader reader = new BuiltinFactory().newReader(new StringReader("{\"X\":3,\"Y\":4}"));
+
+        // Act
+        reader.readObject(Point.class);
+    }
+
+    @Test
+    public void writeObjectWithoutCodecTest() {
+        // Arrange
+        final StringWriter output = new StringWriter();
+        final JsonWriter writer = _factory.newWriter(output);
+        final Order order = new Order();
+
+        order.symbol = "EURUSD";
+        order.quantity = 2;
+        order.points = Arrays.asList(new Point(1, 2));
+        order.ignored = "x";
+
+        // Act
+        writer.writeObject(order);
+        writer.close();
+
+        // Assert
+        assertThat(output.toString(), is("{\"symbol\":\"EURUSD\",\"quantity\":2,\"points\":[{\"X\":1,\"Y\":2}]}"));
+    }
+
+    @Test
+    public void readObjectWithoutCodecWithFieldsTest() {
+        // Arrange
+        final JsonReader reader = _factory.newReader(new StringReader("{\"symbol\":\"EURUSD\",\"quantity\":2,\"points\":[{\"X\":1,\"Y\":2}],\"other\":[1]}"));
+
+        // Act
+        final Order order = reader.readObject(Order.class);
+
+        // Assert
+        assertThat(order.symbol, is("EURUSD"));
+        assertThat(order.quantity, is(2));
+        assertThat(order.points.size(), is(1));
+        assertThat(order.points.get(0).y, is(2));
+    }
+
+    @Test
+    public void toObjectWithGenericTypeTest() {
+        // Arrange
+        final JsonCodec<List<Point>> codec = _mapper.getCodec(new JsonType<List<Point>>() {
+        });
+        final JsonElement element = _mapper.toElement("[[{\"X\":1,\"Y\":2},{\"X\":3,\"Y\":4}]]");
+
+        // Act
+        final List<Point> points = element.get(0).toObject(codec, null);
+
+        // Assert
+        assertThat(points.size(), is(2));
+        assertThat(points.get(1).x, is(3));
+        assertThat(points.get(1).y, is(4));
+    }
+
+    @Test
+    public void getCodecWithGenericTypeTest() {
+        // Arrange
+        // Act
+        final JsonCodec<Map<String, Point>> codec = _mapper.getCodec(new JsonType<Map<String, Point>>() {
+        });
+
+        // Assert
+        assertSame(codec, _mapper.getCodec(new JsonType<Map<String, Point>>() {
+        }));
+    }
+
+    private static final class Order {
+
+        private String symbol;
+
+        private int quantity;
+
+        private List<Point> points;
+
+        private transient String ignored;
+    }
+
+    private static final class Point {
+
+        private final int x;
+
+        private final int y;
+
+        public Point(final int x, final int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private static final class PointCodec implements JsonCodec<Point> {
+
+        @Override
+        public Point read(final JsonReader reader) {
+            int x = 0;
+            int y = 0;
+
+            reader.readBeginObject();
+            while (reader.read()) {
+                final String name = reader.getName();
+
+                if (name.equals("X")) {
+                    x = reader.readInt();
+                } else if (name.equals("Y")) {
+                    y = reader.readInt();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.readEndObject();
+
+            return new Point(x, y);
+        }
+
+        @Override
+        public void write(final JsonWriter writer, final Point point) {
+            writer.writeBeginObject();
+            writer.writeName("X");
+            writer.writeInt(point.x);
+            writer.writeName("Y");
+            writer.writeInt(point.y);
+            writer.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json.gson;
+
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonException;
+import net.signalr.client.json.JsonReader;
+import net.signalr.client.json.JsonWriter;
+
+import com.google.gson.TypeAdapter;
+
+/**
+ * Represents a GSON codec which is backed by a precompiled type adapter.
+ */
+final class GsonCodec<T> implements JsonCodec<T> {
+
+    /**
+     * The type adapter.
+     */
+    private final TypeAdapter<T> _adapter;
+
+    /**
+     * Initializes a new instance of the {@link GsonCodec} class.
+     * 
+     * @param adapter The type adapter.
+     */
+    public GsonCodec(final TypeAdapter<T> adapter) {
+        if (adapter == null) {
+            throw new IllegalArgumentException("Adapter must not be null");
+        }
+
+        _adapter = adapter;
+    }
+
+    /**
+     * Converts the specified tree into an object.
+     * 
+     * @param element The tree.
+     * @return The object.
+     */
+    public T fromTree(final com.google.gson.JsonElement element) {
+        try {
+            return _adapter.fromJsonTree(element);
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+    }
+
+    @Override
+    public T read(final JsonReader reader) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader must not be null");
+        }
+
+        if (reader instanceof GsonReader) {
+            final GsonReader gsonReader = (GsonReader) reader;
+
+            return gsonReader.readObject(_adapter);
+        }
+        // Foreign readers are bridged through their textual representation.
+        final String text = reader.readElement().toString();
+
+        try {
+            return _adapter.fromJson(text);
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+    }
+
+    @Override
+    public void write(final JsonWriter writer, final T object) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer must not be null");
+        }
+
+        if (writer instanceof GsonWriter) {
+            final GsonWriter gsonWriter = (GsonWriter) writer;
+
+            gsonWriter.writeObject(_adapter, object);
+        } else {
+            writer.writeObject(object);
+        }
+    }
+}
@@ -16,6 +16,9 @@
 
 package net.signalr.client.json.gson;
 
+import java.io.StringReader;
+
+import net.signalr.client.json.JsonCodec;
 import net.signalr.client.json.JsonElement;
 import net.signalr.client.json.JsonEmpty;
 import net.signalr.client.json.JsonException;
@@ -211,6 +214,26 @@ final class GsonElement implements JsonElement {
         }
     }
 
+    @Override
+    public <T> T toObject(final JsonCodec<T> codec, final T defaultValue) {
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec must not be null");
+        }
+
+        if (_element.isJsonNull()) {
+            return null;
+        }
+        if (codec instanceof GsonCodec) {
+            final GsonCodec<T> gsonCodec = (GsonCodec<T>) codec;
+
+            return gsonCodec.fromTree(_element);
+        }
+        final StringReader input = new StringReader(_element.toString());
+        final com.google.gson.stream.JsonReader reader = new com.google.gson.stream.JsonReader(input);
+
+        return codec.read(new GsonReader(_gson, reader));
+    }
+
     @Override
     public int hashCode() {
         return _element.hashCode();
@@ -19,12 +19,16 @@ package net.signalr.client.json.gson;
 import java.io.Reader;
 import java.io.Writer;
 
+import net.signalr.client.json.JsonCodec;
 import net.signalr.client.json.JsonException;
 import net.signalr.client.json.JsonFactory;
 import net.signalr.client.json.JsonReader;
+import net.signalr.client.json.JsonType;
 import net.signalr.client.json.JsonWriter;
 
 import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
 
 /**
  * Represents a GSON based JSON factory.
@@ -89,4 +93,40 @@ public final class GsonFactory implements JsonFactory {
 
         return new GsonWriter(_gson, writer);
     }
+
+    @Override
+    public <T> JsonCodec<T> newCodec(final Class<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        final TypeAdapter<T> adapter;
+
+        try {
+            adapter = _gson.getAdapter(type);
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+
+        return new GsonCodec<>(adapter);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> JsonCodec<T> newCodec(final JsonType<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        final TypeToken<T> typeToken = (TypeToken<T>) TypeToken.get(type.getType());
+        final TypeAdapter<T> adapter;
+
+        try {
+            adapter = _gson.getAdapter(typeToken);
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+
+        return new GsonCodec<>(adapter);
+    }
 }
@@ -17,6 +17,7 @@
 package net.signalr.client.json.gson;
 
 import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
 
 import net.signalr.client.json.JsonElement;
 import net.signalr.client.json.JsonEmpty;
@@ -126,6 +127,26 @@ final class GsonReader implements JsonReader {
         return new GsonElement(_gson, element);
     }
 
+    /**
+     * Reads an object using the specified type adapter.
+     * 
+     * @param adapter The type adapter.
+     * @return The object.
+     */
+    <T> T readObject(final TypeAdapter<T> adapter) {
+        final boolean lenient = _reader.isLenient();
+
+        // Accept top-level values the same way Gson#fromJson does.
+        _reader.setLenient(true);
+        try {
+            return adapter.read(_reader);
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        } finally {
+            _reader.setLenient(lenient);
+        }
+    }
+
     @Override
     public <T> T readObject(final Class<T> type) {
         if (type == null) {
@@ -17,6 +17,7 @@
 package net.signalr.client.json.gson;
 
 import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
 
 import net.signalr.client.json.JsonElement;
 import net.signalr.client.json.JsonException;
@@ -135,6 +136,20 @@ final class GsonWriter implements JsonWriter {
         }
     }
 
+    /**
+     * Writes an object using the specified type adapter.
+     * 
+     * @param adapter The type adapter.
+     * @param object The object.
+     */
+    <T> void writeObject(final TypeAdapter<T> adapter, final T object) {
+        try {
+            adapter.write(_writer, object);
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+    }
+
     @Override
     public void writeNull() {
         try {
@@ -77,4 +77,19 @@ public final class HubResponseTest {
         assertThat(messages[1].getMethodName(), is("update"));
         assertThat(messages[1].getArguments().toString(), is("[{\"Value\":2}]"));
     }
+
+    @Test
+    public void deserializeProgressResponseTest() {
+        // Arrange
+        final String data = "{\"P\":{\"I\":\"2\",\"D\":{\"Percent\":50}}}";
+        final JsonElement element = _mapper.toElement(data);
+
+        // Act
+        final HubResponse response = new HubResponse(element);
+
+        // Assert
+        assertNull(response.getCallbackId());
+        assertThat(response.getProgressCallbackId(), is("2"));
+        assertThat(response.getProgressData().toString(), is("{\"Percent\":50}"));
+    }
 }
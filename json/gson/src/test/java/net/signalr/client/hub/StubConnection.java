@@ -0,0 +1,133 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.signalr.client.Connection;
+import net.signalr.client.ConnectionListener;
+import net.signalr.client.InboundBuffer;
+import net.signalr.client.OutboundScheduler;
+import net.signalr.client.RateLimiter;
+import net.signalr.client.SendPriority;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.transport.Transport;
+import net.signalr.client.util.concurrent.promise.Promise;
+import net.signalr.client.util.concurrent.promise.Promises;
+
+final class StubConnection implements Connection {
+
+    private final JsonMapper _mapper;
+
+    private final List<String> _messages;
+
+    private String _connectionData;
+
+    public StubConnection(final JsonMapper mapper) {
+        _mapper = mapper;
+        _messages = new ArrayList<>();
+    }
+
+    public List<String> getMessages() {
+        return _messages;
+    }
+
+    public String getConnectionData() {
+        return _connectionData;
+    }
+
+    @Override
+    public String getProtocolVersion() {
+        return "1.4";
+    }
+
+    @Override
+    public String getUrl() {
+        return "http://localhost/signalr";
+    }
+
+    @Override
+    public Transport getTransport() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public JsonMapper getMapper() {
+        return _mapper;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return true;
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+    }
+
+    @Override
+    public void addParameter(final String name, final String value) {
+    }
+
+    @Override
+    public void addConnectionListener(final ConnectionListener listener) {
+    }
+
+    @Override
+    public void removeConnectionListener(final ConnectionListener listener) {
+    }
+
+    @Override
+    public void setInboundBuffer(final InboundBuffer inboundBuffer) {
+    }
+
+    @Override
+    public void setOutboundScheduler(final OutboundScheduler outboundScheduler) {
+    }
+
+    @Override
+    public void setRateLimiter(final RateLimiter rateLimiter) {
+    }
+
+    @Override
+    public void setConnectionData(final String connectionData) {
+        _connectionData = connectionData;
+    }
+
+    @Override
+    public Promise<Void> start() {
+        return Promises.newSuccess();
+    }
+
+    @Override
+    public Promise<Void> stop() {
+        return Promises.newSuccess();
+    }
+
+    @Override
+    public Promise<Void> send(final String message) {
+        return send(message, SendPriority.NORMAL);
+    }
+
+    @Override
+    public Promise<Void> send(final String message, final SendPriority priority) {
+        _messages.add(message);
+
+        return Promises.newSuccess();
+    }
+}
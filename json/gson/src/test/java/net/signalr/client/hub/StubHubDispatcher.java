@@ -0,0 +1,131 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import net.signalr.client.ConnectionAdapter;
+import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.util.concurrent.promise.Deferred;
+import net.signalr.client.util.concurrent.promise.Promise;
+import net.signalr.client.util.concurrent.promise.Promises;
+
+final class StubHubDispatcher extends ConnectionAdapter implements HubDispatcher {
+
+    private final JsonMapper _mapper;
+
+    private final List<String> _messages;
+
+    private final List<String> _hubNames;
+
+    private String _response;
+
+    private List<Deferred<HubResponse>> _pendingResponses;
+
+    public StubHubDispatcher(final JsonMapper mapper) {
+        _mapper = mapper;
+        _messages = new ArrayList<>();
+        _hubNames = new ArrayList<>();
+    }
+
+    public List<String> getMessages() {
+        return _messages;
+    }
+
+    public List<String> getHubNames() {
+        return _hubNames;
+    }
+
+    public void setResponse(final String response) {
+        _response = response;
+    }
+
+    public List<Deferred<HubResponse>> deferResponses() {
+        _pendingResponses = new ArrayList<>();
+
+        return _pendingResponses;
+    }
+
+    @Override
+    public JsonMapper getMapper() {
+        return _mapper;
+    }
+
+    @Override
+    public HubProxy newHubProxy(final String hubName) {
+        _hubNames.add(hubName);
+
+        return new DefaultHubProxy(hubName, this);
+    }
+
+    @Override
+    public HubProxy[] newHubProxies(final String... hubNames) {
+        final HubProxy[] proxies = new HubProxy[hubNames.length];
+
+        for (int i = 0; i < hubNames.length; i++) {
+            proxies[i] = newHubProxy(hubNames[i]);
+        }
+
+        return proxies;
+    }
+
+    @Override
+    public void applyConnectionData() {
+    }
+
+    @Override
+    public void setDispatchLanes(final Executor executor, final int laneCount, final HubLaneKey key) {
+    }
+
+    @Override
+    public void setInvocationWindow(final HubInvocationWindow invocationWindow) {
+    }
+
+    @Override
+    public Promise<HubResponse> invoke(final HubRequest request) {
+        return invoke(request, null);
+    }
+
+    @Override
+    public Promise<HubResponse> invoke(final HubRequest request, final HubCallback<JsonElement> progressCallback) {
+        request.setCallbackId(String.valueOf(_messages.size() + 1));
+        _messages.add(request.toJson(_mapper));
+        if (_pendingResponses != null) {
+            final Deferred<HubResponse> response = new Deferred<>();
+
+            _pendingResponses.add(response);
+
+            return response;
+        }
+        if (_response == null) {
+            return Promises.newFailure(new UnsupportedOperationException());
+        }
+
+        return Promises.newSuccess(new HubResponse(_mapper.toElement(_response)));
+    }
+
+    @Override
+    public Promise<Void> send(final HubRequest request) {
+        request.setCallbackId("0");
+        _messages.add(request.toJson(_mapper));
+
+        return Promises.newSuccess();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json.jackson;
+
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonException;
+import net.signalr.client.json.JsonReader;
+import net.signalr.client.json.JsonWriter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Represents a Jackson codec which is backed by a precompiled object reader and writer.
+ */
+final class JacksonCodec<T> implements JsonCodec<T> {
+
+    /**
+     * The object reader.
+     */
+    private final ObjectReader _reader;
+
+    /**
+     * The object writer.
+     */
+    private final ObjectWriter _writer;
+
+    /**
+     * Initializes a new instance of the {@link JacksonCodec} class.
+     * 
+     * @param reader The object reader.
+     * @param writer The object writer.
+     */
+    public JacksonCodec(final ObjectReader reader, final ObjectWriter writer) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader must not be null");
+        }
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer must not be null");
+        }
+
+        _reader = reader;
+        _writer = writer;
+    }
+
+    /**
+     * Converts the specified tree into an object.
+     * 
+     * @param node The tree.
+     * @return The object.
+     */
+    public T fromTree(final JsonNode node) {
+        try {
+            return _reader.readValue(node);
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+    }
+
+    @Override
+    public T read(final JsonReader reader) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader must not be null");
+        }
+
+        if (reader instanceof JacksonReader) {
+            final JacksonReader jacksonReader = (JacksonReader) reader;
+
+            return jacksonReader.readObject(_reader);
+        }
+        // Foreign readers are bridged through their textual representation.
+        final String text = reader.readElement().toString();
+
+        try {
+            return _reader.readValue(text);
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+    }
+
+    @Override
+    public void write(final JsonWriter writer, final T object) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer must not be null");
+        }
+
+        if (writer instanceof JacksonWriter) {
+            final JacksonWriter jacksonWriter = (JacksonWriter) writer;
+
+            jacksonWriter.writeObject(_writer, object);
+        } else {
+            writer.writeObject(object);
+        }
+    }
+}
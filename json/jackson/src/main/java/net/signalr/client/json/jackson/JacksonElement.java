@@ -16,10 +16,12 @@
 
 package net.signalr.client.json.jackson;
 
+import net.signalr.client.json.JsonCodec;
 import net.signalr.client.json.JsonElement;
 import net.signalr.client.json.JsonEmpty;
 import net.signalr.client.json.JsonException;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -193,6 +195,25 @@ public class JacksonElement implements JsonElement {
         }
     }
 
+    @Override
+    public <T> T toObject(final JsonCodec<T> codec, final T defaultValue) {
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec must not be null");
+        }
+
+        if (_node.isNull()) {
+            return null;
+        }
+        if (codec instanceof JacksonCodec) {
+            final JacksonCodec<T> jacksonCodec = (JacksonCodec<T>) codec;
+
+            return jacksonCodec.fromTree(_node);
+        }
+        final JsonParser parser = _node.traverse(_mapper);
+
+        return codec.read(new JacksonReader(_mapper, parser));
+    }
+
     @Override
     public int hashCode() {
         return _node.hashCode();
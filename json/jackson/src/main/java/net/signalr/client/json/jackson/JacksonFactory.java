@@ -19,14 +19,20 @@ package net.signalr.client.json.jackson;
 import java.io.Reader;
 import java.io.Writer;
 
+import net.signalr.client.json.JsonCodec;
 import net.signalr.client.json.JsonException;
 import net.signalr.client.json.JsonFactory;
 import net.signalr.client.json.JsonReader;
+import net.signalr.client.json.JsonType;
 import net.signalr.client.json.JsonWriter;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 
 /**
  * Represents a Jackson based JSON factory.
@@ -95,4 +101,30 @@ public final class JacksonFactory implements JsonFactory {
 
         return new JacksonWriter(_mapper, generator);
     }
+
+    @Override
+    public <T> JsonCodec<T> newCodec(final Class<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        final ObjectReader reader = _mapper.readerFor(type);
+        final ObjectWriter writer = _mapper.writerFor(type);
+
+        return new JacksonCodec<>(reader, writer);
+    }
+
+    @Override
+    public <T> JsonCodec<T> newCodec(final JsonType<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null");
+        }
+
+        final TypeFactory typeFactory = _mapper.getTypeFactory();
+        final JavaType javaType = typeFactory.constructType(type.getType());
+        final ObjectReader reader = _mapper.readerFor(javaType);
+        final ObjectWriter writer = _mapper.writerFor(javaType);
+
+        return new JacksonCodec<>(reader, writer);
+    }
 }
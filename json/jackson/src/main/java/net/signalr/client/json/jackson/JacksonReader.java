@@ -20,6 +20,7 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import net.signalr.client.json.JsonElement;
 import net.signalr.client.json.JsonEmpty;
@@ -182,6 +183,26 @@ final class JacksonReader implements JsonReader {
         return new JacksonElement(_mapper, node);
     }
 
+    /**
+     * Reads an object using the specified object reader.
+     * 
+     * @param objectReader The object reader.
+     * @return The object.
+     */
+    <T> T readObject(final ObjectReader objectReader) {
+        final T object;
+
+        try {
+            _parser.nextToken();
+            object = objectReader.readValue(_parser);
+            _parser.clearCurrentToken();
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+
+        return object;
+    }
+
     @Override
     public <T> T readObject(final Class<T> type) {
         if (type == null) {
@@ -19,6 +19,7 @@ package net.signalr.client.json.jackson;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import net.signalr.client.json.JsonElement;
 import net.signalr.client.json.JsonException;
@@ -135,6 +136,20 @@ final class JacksonWriter implements JsonWriter {
         }
     }
 
+    /**
+     * Writes an object using the specified object writer.
+     * 
+     * @param objectWriter The object writer.
+     * @param object The object.
+     */
+    <T> void writeObject(final ObjectWriter objectWriter, final T object) {
+        try {
+            objectWriter.writeValue(_generator, object);
+        } catch (final Exception e) {
+            throw new JsonException(e);
+        }
+    }
+
     @Override
     public void writeNull() {
         try {
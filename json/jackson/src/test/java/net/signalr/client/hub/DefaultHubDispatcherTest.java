@@ -0,0 +1,179 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import net.signalr.client.json.DefaultJsonMapper;
+import net.signalr.client.json.JsonFactory;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.jackson.JacksonFactory;
+import net.signalr.client.util.concurrent.promise.Promise;
+import net.signalr.client.util.concurrent.promise.Promises;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class DefaultHubDispatcherTest {
+
+    private StubConnection _connection;
+
+    private DefaultHubDispatcher _dispatcher;
+
+    @Before
+    public void before() {
+        final JsonFactory factory = new JacksonFactory();
+        final JsonMapper mapper = new DefaultJsonMapper(factory);
+
+        _connection = new StubConnection(mapper);
+        _dispatcher = new DefaultHubDispatcher(_connection);
+    }
+
+    @Test
+    public void invokeWithProgressTest() throws Exception {
+        // Arrange
+        final HubProxy proxy = _dispatcher.newHubProxy("hub");
+        final List<Integer> progress = new ArrayList<>();
+
+        // Act
+        final Promise<String> invoke = proxy.invoke("export", String.class, Integer.class, new HubCallback<Integer>() {
+            @Override
+            public void onInvoke(final Integer value) {
+                progress.add(value);
+            }
+        });
+
+        _dispatcher.onReceived("{\"P\":{\"I\":\"1\",\"D\":25}}");
+        _dispatcher.onReceived("{\"P\":{\"I\":\"1\",\"D\":75}}");
+        final boolean completedBeforeResult = invoke.isComplete();
+
+        _dispatcher.onReceived("{\"I\":\"1\",\"R\":\"done\"}");
+        _dispatcher.onReceived("{\"P\":{\"I\":\"1\",\"D\":100}}");
+
+        // Assert
+        assertThat(_connection.getMessages(), is(Arrays.asList("{\"H\":\"hub\",\"M\":\"export\",\"A\":[],\"I\":\"1\"}")));
+        assertFalse(completedBeforeResult);
+        assertThat(Promises.await(invoke), is("done"));
+        assertThat(progress, is(Arrays.asList(25, 75)));
+    }
+
+    @Test
+    public void invokeWithProgressMessageIdTest() throws Exception {
+        // Arrange
+        final HubProxy proxy = _dispatcher.newHubProxy("hub");
+        final List<Integer> progress = new ArrayList<>();
+
+        // Act
+        final Promise<String> invoke = proxy.invoke("export", String.class, Integer.class, new HubCallback<Integer>() {
+            @Override
+            public void onInvoke(final Integer value) {
+                progress.add(value);
+            }
+        });
+
+        _dispatcher.onReceived("{\"I\":\"P|1\",\"P\":{\"I\":\"1\",\"D\":25}}");
+        _dispatcher.onReceived("{\"I\":\"P|2\",\"P\":{\"I\":\"1\",\"D\":75}}");
+        final boolean completedBeforeResult = invoke.isComplete();
+
+        _dispatcher.onReceived("{\"I\":\"1\",\"R\":\"done\"}");
+
+        // Assert
+        assertFalse(completedBeforeResult);
+        assertThat(Promises.await(invoke), is("done"));
+        assertThat(progress, is(Arrays.asList(25, 75)));
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void invokeWithInvocationWindowTest() throws Exception {
+        // Arrange
+        final HubInvocationWindow invocationWindow = new HubInvocationWindow(1, 1024);
+        final HubProxy proxy = _dispatcher.newHubProxy("hub");
+
+        _dispatcher.setInvocationWindow(invocationWindow);
+
+        // Act
+        final Promise<String> invoke1 = proxy.invoke("get", String.class, "\u00e4");
+        final Promise<String> invoke2 = proxy.invoke("get", String.class, "b");
+        final long outstandingBytes = invocationWindow.getOutstandingBytes();
+        final int queuedInvocations = invocationWindow.getQueuedInvocations();
+
+        _dispatcher.onReconnecting();
+
+        // Assert
+        // The UTF-8 encoded "\u00e4" takes two bytes.
+        assertThat(outstandingBytes, is(_connection.getMessages().get(0).length() + 1L));
+        assertThat(queuedInvocations, is(1));
+        assertTrue(invoke1.isComplete());
+        assertTrue(invoke2.isComplete());
+        assertThat(invocationWindow.getOutstandingInvocations(), is(0));
+        assertThat(invocationWindow.getOutstandingBytes(), is(0L));
+        assertThat(invocationWindow.getQueuedInvocations(), is(0));
+        assertThat(_connection.getMessages().size(), is(1));
+        Promises.await(invoke2);
+    }
+
+    @Test
+    public void newHubProxiesTest() {
+        // Arrange
+        // Act
+        final HubProxy[] proxies = _dispatcher.newHubProxies("a", "B", "b");
+        final String connectionDataBeforeStart = _connection.getConnectionData();
+
+        _dispatcher.applyConnectionData();
+
+        // Assert
+        assertThat(proxies.length, is(3));
+        assertSame(proxies[1], proxies[2]);
+        assertSame(proxies[0], _dispatcher.newHubProxy("A"));
+        assertNull(connectionDataBeforeStart);
+        assertThat(_connection.getConnectionData(), is("[{\"name\":\"a\"},{\"name\":\"B\"}]"));
+    }
+
+    @Test
+    public void newHubProxyAfterStartTest() {
+        // Arrange
+        _dispatcher.newHubProxy("a");
+        _dispatcher.applyConnectionData();
+
+        // Act
+        _dispatcher.newHubProxy("b");
+
+        // Assert
+        assertThat(_connection.getConnectionData(), is("[{\"name\":\"a\"},{\"name\":\"b\"}]"));
+    }
+
+    @Test
+    public void newHubProxyAfterStartWithoutProxiesTest() {
+        // Arrange
+        _dispatcher.applyConnectionData();
+
+        // Act
+        _dispatcher.newHubProxy("a");
+
+        // Assert
+        assertThat(_connection.getConnectionData(), is("[{\"name\":\"a\"}]"));
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.signalr.client.json.DefaultJsonMapper;
+import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonFactory;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.jackson.JacksonFactory;
+import net.signalr.client.util.concurrent.promise.Deferred;
+import net.signalr.client.util.concurrent.promise.Promise;
+import net.signalr.client.util.concurrent.promise.Promises;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class DefaultHubProxyTest {
+
+    private JsonMapper _mapper;
+
+    private StubHubDispatcher _dispatcher;
+
+    private DefaultHubProxy _proxy;
+
+    @Before
+    public void before() {
+        final JsonFactory factory = new JacksonFactory();
+
+        _mapper = new DefaultJsonMapper(factory);
+        _dispatcher = new StubHubDispatcher(_mapper);
+        _proxy = new DefaultHubProxy("hub", _dispatcher);
+    }
+
+    private HubMessage toMessage(final String text) {
+        return new HubMessage(_mapper.toElement(text));
+    }
+
+    @Test
+    public void sendTest() {
+        // Arrange
+        // Act
+        final Promise<Void> send = _proxy.send("report", "a", 1);
+
+        // Assert
+        assertTrue(send.isComplete());
+        assertThat(_dispatcher.getMessages(), is(Arrays.asList("{\"H\":\"hub\",\"M\":\"report\",\"A\":[\"a\",1],\"I\":\"0\"}")));
+    }
+
+    @Test
+    public void singleFlightTest() throws Exception {
+        // Arrange
+        final List<Deferred<HubResponse>> responses = _dispatcher.deferResponses();
+
+        _proxy.setSingleFlight(true);
+
+        // Act
+        final Promise<String> invoke1 = _proxy.invoke("getInstrument", String.class, 1);
+        final Promise<String> invoke2 = _proxy.invoke("getInstrument", String.class, 1);
+        final Promise<String> invoke3 = _proxy.invoke("getInstrument", String.class, 2);
+
+        responses.get(0).setSuccess(new HubResponse(_mapper.toElement("{\"I\":\"1\",\"R\":\"a\"}")));
+        final Promise<String> invoke4 = _proxy.invoke("getInstrument", String.class, 1);
+
+        // Assert
+        assertThat(_dispatcher.getMessages().size(), is(3));
+        assertThat(Promises.await(invoke1), is("a"));
+        assertThat(Promises.await(invoke2), is("a"));
+        assertFalse(invoke3.isComplete());
+        assertFalse(invoke4.isComplete());
+    }
+
+    @Test
+    public void resultCacheTest() throws Exception {
+        // Arrange
+        final HubResultCache cache = new HubResultCache(10, 1, TimeUnit.MINUTES, "configChanged");
+
+        _dispatcher.setResponse("{\"I\":\"1\",\"R\":\"a\"}");
+        _proxy.setResultCache("getConfig", cache);
+
+        // Act
+        final String result1 = Promises.await(_proxy.invoke("getConfig", String.class, "x"));
+        final String result2 = Promises.await(_proxy.invoke("getConfig", String.class, "x"));
+
+        _proxy.onInvoke(toMessage("{\"H\":\"hub\",\"M\":\"configChanged\",\"A\":[]}"));
+        final String result3 = Promises.await(_proxy.invoke("getConfig", String.class, "x"));
+
+        // Assert
+        assertThat(result1, is("a"));
+        assertThat(result2, is("a"));
+        assertThat(result3, is("a"));
+        assertThat(_dispatcher.getMessages().size(), is(2));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void resultCacheWithStateTest() throws Exception {
+        // Arrange
+        final HubResultCache cache = new HubResultCache(10, 1, TimeUnit.MINUTES);
+
+        _dispatcher.setResponse("{\"I\":\"1\",\"R\":\"a\"}");
+        _proxy.setResultCache("getConfig", cache);
+        _proxy.setState("user", "x");
+
+        // Act
+        Promises.await(_proxy.invoke("getConfig", String.class, "x"));
+        _proxy.setState("user", "y");
+        Promises.await(_proxy.invoke("getConfig", String.class, "x"));
+        Promises.await(_proxy.invoke("getConfig", String.class, "x"));
+
+        // Assert
+        assertThat(_dispatcher.getMessages().size(), is(2));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void resultCacheWithEchoedStateTest() throws Exception {
+        // Arrange
+        final HubResultCache cache = new HubResultCache(10, 1, TimeUnit.MINUTES);
+
+        _dispatcher.setResponse("{\"I\":\"1\",\"R\":\"a\",\"S\":{\"count\":2,\"range\":[1,2.0]}}");
+        _proxy.setResultCache("getConfig", cache);
+        _proxy.setState("count", 2);
+        _proxy.setState("range", Arrays.asList(1, 2));
+
+        // Act
+        Promises.await(_proxy.invoke("getConfig", String.class, "x"));
+        Promises.await(_proxy.invoke("getConfig", String.class, "x"));
+
+        // Assert
+        // The echoed state decodes to other number types but does not change.
+        assertThat(_dispatcher.getMessages().size(), is(1));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(_proxy.getState("count"), is((Object) 2));
+    }
+
+    @Test
+    public void registerWithTwoArgumentsTest() {
+        // Arrange
+        final List<Object> arguments = new ArrayList<>();
+
+        _proxy.register("update", String.class, Integer.class, new HubCallback2<String, Integer>() {
+            @Override
+            public void onInvoke(final String argument1, final Integer argument2) {
+                arguments.add(argument1);
+                arguments.add(argument2);
+            }
+        });
+
+        // Act
+        _proxy.onInvoke(toMessage("{\"H\":\"hub\",\"M\":\"update\",\"A\":[\"a\",2]}"));
+
+        // Assert
+        assertThat(arguments.size(), is(2));
+        assertThat(arguments.get(0), is((Object) "a"));
+        assertThat(arguments.get(1), is((Object) 2));
+    }
+
+    @Test
+    public void registerWithArgumentTypesTest() {
+        // Arrange
+        final List<Object[]> invocations = new ArrayList<>();
+
+        _proxy.register("update", new Class<?>[] { String.class, Long.class, Boolean.class }, new HubCallback<Object[]>() {
+            @Override
+            public void onInvoke(final Object[] arguments) {
+                invocations.add(arguments);
+            }
+        });
+
+        // Act
+        _proxy.onInvoke(toMessage("{\"H\":\"hub\",\"M\":\"update\",\"A\":[\"a\",2,true]}"));
+        _proxy.onInvoke(toMessage("{\"H\":\"hub\",\"M\":\"update\",\"A\":[\"a\",2]}"));
+
+        // Assert
+        assertThat(invocations.size(), is(1));
+        assertThat(invocations.get(0), is(new Object[] { "a", 2L, true }));
+    }
+
+    @Test
+    public void registerWithReceiverTest() {
+        // Arrange
+        final UpdateReceiver receiver = new UpdateReceiver();
+
+        _proxy.register(receiver);
+
+        // Act
+        _proxy.onInvoke(toMessage("{\"H\":\"hub\",\"M\":\"Update\",\"A\":[\"a\",[1,2]]}"));
+        _proxy.onInvoke(toMessage("{\"H\":\"hub\",\"M\":\"reset\",\"A\":[]}"));
+
+        // Assert
+        assertThat(receiver.name, is("a"));
+        assertThat(receiver.values, is(Arrays.asList(1, 2)));
+        assertThat(receiver.resets, is(1));
+    }
+
+    @Test
+    public void subscribeWithMultipleSubscribersTest() {
+        // Arrange
+        final List<Object> values1 = new ArrayList<>();
+        final List<Object> values2 = new ArrayList<>();
+        final List<Object> values3 = new ArrayList<>();
+
+        _proxy.subscribe("update", Point.class, new HubCallback<Point>() {
+            @Override
+            public void onInvoke(final Point argument) {
+                values1.add(argument);
+            }
+        });
+        _proxy.subscribe("update", Point.class, new HubCallback<Point>() {
+            @Override
+            public void onInvoke(final Point argument) {
+                values2.add(argument);
+            }
+        });
+        _proxy.subscribe("update", Map.class, new HubCallback<Map>() {
+            @Override
+            public void onInvoke(final Map argument) {
+                values3.add(argument);
+            }
+        });
+
+        // Act
+        _proxy.onInvoke(toMessage("{\"H\":\"hub\",\"M\":\"update\",\"A\":[{\"x\":1,\"y\":2}]}"));
+
+        // Assert
+        assertThat(values1.size(), is(1));
+        assertThat(values2.size(), is(1));
+        assertThat(values3.size(), is(1));
+        // Subscribers of the same type share the decoded argument.
+        assertSame(values1.get(0), values2.get(0));
+        assertThat(((Point) values1.get(0)).x, is(1));
+        assertThat(values3.get(0), instanceOf(Map.class));
+    }
+
+    @Test
+    public void unsubscribeTest() {
+        // Arrange
+        final List<String> values1 = new ArrayList<>();
+        final List<String> values2 = new ArrayList<>();
+        final HubSubscription subscription = _proxy.subscribe("update", String.class, new HubCallback<String>() {
+            @Override
+            public void onInvoke(final String argument) {
+                values1.add(argument);
+            }
+        });
+
+        _proxy.subscribe("update", String.class, new HubCallback<String>() {
+            @Override
+            public void onInvoke(final String argument) {
+                values2.add(argument);
+            }
+        });
+
+        // Act
+        subscription.unsubscribe();
+        subscription.unsubscribe();
+        _proxy.onInvoke(toMessage("{\"H\":\"hub\",\"M\":\"update\",\"A\":[\"a\"]}"));
+
+        // Assert
+        assertThat(values1.size(), is(0));
+        assertThat(values2, is(Arrays.asList("a")));
+    }
+
+    @Test
+    public void unregisterTest() {
+        // Arrange
+        final UpdateReceiver receiver = new UpdateReceiver();
+
+        _proxy.register(receiver);
+        _proxy.unregister("reset");
+
+        // Act
+        _proxy.onInvoke(toMessage("{\"H\":\"hub\",\"M\":\"reset\",\"A\":[]}"));
+
+        // Assert
+        assertThat(receiver.resets, is(0));
+    }
+
+    @Test
+    public void registerKeepsSubscribersTest() {
+        // Arrange
+        final List<String> registered1 = new ArrayList<>();
+        final List<String> registered2 = new ArrayList<>();
+        final List<String> subscribed = new ArrayList<>();
+
+        _proxy.subscribe("update", String.class, new HubCallback<String>() {
+            @Override
+            public void onInvoke(final String argument) {
+                subscribed.add(argument);
+            }
+        });
+        _proxy.register("update", String.class, new HubCallback<String>() {
+            @Override
+            public void onInvoke(final String argument) {
+                registered1.add(argument);
+            }
+        });
+
+        // Act
+        _proxy.register("update", String.class, new HubCallback<String>() {
+            @Override
+            public void onInvoke(final String argument) {
+                registered2.add(argument);
+            }
+        });
+        _proxy.onInvoke(toMessage("{\"H\":\"hub\",\"M\":\"update\",\"A\":[\"a\"]}"));
+
+        // Assert
+        assertThat(registered1.size(), is(0));
+        assertThat(registered2, is(Arrays.asList("a")));
+        assertThat(subscribed, is(Arrays.asList("a")));
+    }
+
+    @Test
+    public void unregisterKeepsSubscribersTest() {
+        // Arrange
+        final UpdateReceiver receiver = new UpdateReceiver();
+        final List<JsonElement> subscribed = new ArrayList<>();
+
+        _proxy.register(receiver);
+        _proxy.subscribe("reset", new HubCallback<JsonElement>() {
+            @Override
+            public void onInvoke(final JsonElement arguments) {
+                subscribed.add(arguments);
+            }
+        });
+
+        // Act
+        _proxy.unregister("reset");
+        _proxy.unregister("reset");
+        _proxy.onInvoke(toMessage("{\"H\":\"hub\",\"M\":\"reset\",\"A\":[]}"));
+
+        // Assert
+        assertThat(receiver.resets, is(0));
+        assertThat(subscribed.size(), is(1));
+    }
+
+    @Test
+    public void registerWithFailingCallbackTest() {
+        // Arrange
+        final List<String> values = new ArrayList<>();
+
+        _proxy.register("update", String.class, new HubCallback<String>() {
+            @Override
+            public void onInvoke(final String argument) {
+                values.add(argument);
+                throw new IllegalStateException(argument);
+            }
+        });
+
+        // Act
+        _proxy.onInvoke(toMessage("{\"H\":\"hub\",\"M\":\"update\",\"A\":[\"a\"]}"));
+        _proxy.onInvoke(toMessage("{\"H\":\"hub\",\"M\":\"update\",\"A\":[\"b\"]}"));
+
+        // Assert
+        assertThat(values, is(Arrays.asList("a", "b")));
+    }
+
+    @Test
+    public void stateTest() throws Exception {
+        // Arrange
+        _dispatcher.setResponse("{\"I\":\"1\",\"R\":\"a\",\"S\":{\"count\":\"2\"}}");
+        _proxy.setState("user", "x");
+
+        // Act
+        Promises.await(_proxy.invoke("getName", String.class));
+        Promises.await(_proxy.invoke("getName", String.class));
+        _proxy.onInvoke(toMessage("{\"H\":\"hub\",\"M\":\"update\",\"A\":[],\"S\":{\"user\":\"y\"}}"));
+
+        // Assert
+        assertThat(_dispatcher.getMessages(), is(Arrays.asList("{\"H\":\"hub\",\"M\":\"getName\",\"A\":[],\"I\":\"1\",\"S\":{\"user\":\"x\"}}",
+                "{\"H\":\"hub\",\"M\":\"getName\",\"A\":[],\"I\":\"2\",\"S\":{\"user\":\"x\",\"count\":\"2\"}}")));
+        assertThat(_proxy.getState("count"), is((Object) "2"));
+        assertThat(_proxy.getState("user"), is((Object) "y"));
+    }
+
+    public static final class UpdateReceiver {
+
+        private String name;
+
+        private List<Integer> values;
+
+        private int resets;
+
+        @HubMethod("update")
+        public void update(final String name, final List<Integer> values) {
+            this.name = name;
+            this.values = values;
+        }
+
+        @HubMethod("reset")
+        public void reset() {
+            resets++;
+        }
+    }
+
+    public static final class Point {
+
+        public int x;
+
+        public int y;
+    }
+}
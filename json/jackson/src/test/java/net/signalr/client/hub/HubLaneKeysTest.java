@@ -0,0 +1,87 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import net.signalr.client.json.DefaultJsonMapper;
+import net.signalr.client.json.JsonFactory;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.jackson.JacksonFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class HubLaneKeysTest {
+
+    private JsonMapper _mapper;
+
+    @Before
+    public void before() {
+        final JsonFactory factory = new JacksonFactory();
+
+        _mapper = new DefaultJsonMapper(factory);
+    }
+
+    private int hash(final HubLaneKey key, final String arguments) {
+        return key.hash("hub", "update", _mapper.toElement(arguments));
+    }
+
+    @Test
+    public void byArgumentWithNumericKeysTest() {
+        // Arrange
+        final HubLaneKey key = HubLaneKeys.byArgument(0);
+
+        // Act
+        final int hash1 = hash(key, "[1,\"a\"]");
+        final int hash2 = hash(key, "[2,\"a\"]");
+        final int hash3 = hash(key, "[1,\"b\"]");
+
+        // Assert
+        assertThat(hash1, is(not(hash2)));
+        assertThat(hash1, is(hash3));
+    }
+
+    @Test
+    public void byArgumentWithBooleanKeysTest() {
+        // Arrange
+        final HubLaneKey key = HubLaneKeys.byArgument(0);
+
+        // Act
+        final int hash1 = hash(key, "[true]");
+        final int hash2 = hash(key, "[false]");
+
+        // Assert
+        assertThat(hash1, is(not(hash2)));
+    }
+
+    @Test
+    public void byArgumentWithMissingArgumentTest() {
+        // Arrange
+        final HubLaneKey key = HubLaneKeys.byArgument(1);
+
+        // Act
+        final int hash = hash(key, "[1]");
+
+        // Assert
+        assertThat(hash, is(HubLaneKeys.byMethodName().hash("hub", "update", _mapper.toElement("[1]"))));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.hub;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import net.signalr.client.json.DefaultJsonMapper;
+import net.signalr.client.json.JsonFactory;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.jackson.JacksonFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class HubStateStoreTest {
+
+    private JsonMapper _mapper;
+
+    private StubHubDispatcher _dispatcher;
+
+    private DefaultHubProxy _proxy;
+
+    private HubStateStore<String, Instrument> _store;
+
+    @Before
+    public void before() {
+        final JsonFactory factory = new JacksonFactory();
+
+        _mapper = new DefaultJsonMapper(factory);
+        _dispatcher = new StubHubDispatcher(_mapper);
+        _proxy = new DefaultHubProxy("hub", _dispatcher);
+        _store = new HubStateStore<>(_proxy, String.class, Instrument.class, new HubStateIndexer<String, Instrument>() {
+            @Override
+            public String getKey(final Instrument value) {
+                return value.id;
+            }
+        }, "snapshot", "upsert", "remove", "resync");
+        _store.addIndex("exchange", new HubStateIndexer<String, Instrument>() {
+            @Override
+            public String getKey(final Instrument value) {
+                return value.exchange;
+            }
+        });
+    }
+
+    private void onInvoke(final String text) {
+        _proxy.onInvoke(new HubMessage(_mapper.toElement(text)));
+    }
+
+    @Test
+    public void snapshotTest() {
+        // Arrange
+        // Act
+        onInvoke("{\"H\":\"hub\",\"M\":\"snapshot\",\"A\":[[{\"id\":\"a\",\"exchange\":\"x\"},{\"id\":\"b\",\"exchange\":\"y\"},{\"id\":\"c\",\"exchange\":\"x\"}],5]}");
+
+        // Assert
+        assertThat(_store.size(), is(3));
+        assertThat(_store.getVersion(), is(5L));
+        assertThat(_store.get("b").exchange, is("y"));
+        assertThat(_store.getRange("a", "c").keySet(), is((Set<String>) new TreeSet<>(Arrays.asList("a", "b"))));
+        assertThat(_store.getByIndex("exchange", "x").size(), is(2));
+    }
+
+    @Test
+    public void deltaTest() {
+        // Arrange
+        onInvoke("{\"H\":\"hub\",\"M\":\"snapshot\",\"A\":[[{\"id\":\"a\",\"exchange\":\"x\"}],1]}");
+
+        // Act
+        onInvoke("{\"H\":\"hub\",\"M\":\"upsert\",\"A\":[{\"id\":\"a\",\"exchange\":\"y\"},2]}");
+        onInvoke("{\"H\":\"hub\",\"M\":\"upsert\",\"A\":[{\"id\":\"b\",\"exchange\":\"y\"},3]}");
+        onInvoke("{\"H\":\"hub\",\"M\":\"remove\",\"A\":[\"b\",4]}");
+        onInvoke("{\"H\":\"hub\",\"M\":\"upsert\",\"A\":[{\"id\":\"c\",\"exchange\":\"y\"},4]}");
+
+        // Assert
+        assertThat(_store.size(), is(1));
+        assertThat(_store.getVersion(), is(4L));
+        assertThat(_store.getByIndex("exchange", "x").size(), is(0));
+        assertThat(_store.getByIndex("exchange", "y").size(), is(1));
+        assertNull(_store.get("c"));
+    }
+
+    @Test
+    public void resyncOnReconnectedTest() {
+        // Arrange
+        onInvoke("{\"H\":\"hub\",\"M\":\"snapshot\",\"A\":[[],7]}");
+
+        // Act
+        _store.onReconnected();
+
+        // Assert
+        assertThat(_dispatcher.getMessages(), is(Arrays.asList("{\"H\":\"hub\",\"M\":\"resync\",\"A\":[7],\"I\":\"1\"}")));
+    }
+
+    @Test
+    public void resyncOnVersionGapTest() {
+        // Arrange
+        onInvoke("{\"H\":\"hub\",\"M\":\"snapshot\",\"A\":[[{\"id\":\"a\",\"exchange\":\"x\"}],1]}");
+
+        // Act
+        onInvoke("{\"H\":\"hub\",\"M\":\"upsert\",\"A\":[{\"id\":\"b\",\"exchange\":\"y\"},3]}");
+        onInvoke("{\"H\":\"hub\",\"M\":\"remove\",\"A\":[\"a\",4]}");
+
+        // Assert
+        assertThat(_store.size(), is(1));
+        assertThat(_store.getVersion(), is(1L));
+        assertNull(_store.get("b"));
+        // One resync per applied version.
+        assertThat(_dispatcher.getMessages(), is(Arrays.asList("{\"H\":\"hub\",\"M\":\"resync\",\"A\":[1],\"I\":\"1\"}")));
+    }
+
+    @Test
+    public void snapshotAfterOvertakingUpsertTest() {
+        // Arrange
+        onInvoke("{\"H\":\"hub\",\"M\":\"upsert\",\"A\":[{\"id\":\"b\",\"exchange\":\"y\"},6]}");
+
+        // Act
+        onInvoke("{\"H\":\"hub\",\"M\":\"snapshot\",\"A\":[[{\"id\":\"a\",\"exchange\":\"x\"}],5]}");
+        onInvoke("{\"H\":\"hub\",\"M\":\"upsert\",\"A\":[{\"id\":\"b\",\"exchange\":\"y\"},6]}");
+
+        // Assert
+        assertThat(_store.size(), is(2));
+        assertThat(_store.getVersion(), is(6L));
+        assertThat(_store.getByIndex("exchange", "x").size(), is(1));
+        assertThat(_dispatcher.getMessages(), is(Arrays.asList("{\"H\":\"hub\",\"M\":\"resync\",\"A\":[0],\"I\":\"1\"}")));
+    }
+
+    public static final class Instrument {
+
+        public String id;
+
+        public String exchange;
+    }
+}
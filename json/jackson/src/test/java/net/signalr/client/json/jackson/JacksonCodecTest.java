@@ -0,0 +1,181 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.json.jackson;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import net.signalr.client.json.DefaultJsonMapper;
+import net.signalr.client.json.JsonCodec;
+import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonFactory;
+import net.signalr.client.json.JsonMapper;
+import net.signalr.client.json.JsonReader;
+import net.signalr.client.json.JsonType;
+import net.signalr.client.json.JsonWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class JacksonCodecTest {
+
+    private JsonFactory _factory;
+
+    private JsonMapper _mapper;
+
+    @Before
+    public void before() {
+        _factory = new JacksonFactory();
+        _mapper = new DefaultJsonMapper(_factory);
+    }
+
+    @Test
+    public void getCodecTest() {
+        // Arrange
+        // Act
+        final JsonCodec<Point> codec = _mapper.getCodec(Point.class);
+
+        // Assert
+        assertNotNull(codec);
+        assertSame(codec, _mapper.getCodec(Point.class));
+    }
+
+    @Test
+    public void readTest() {
+        // Arrange
+        final JsonCodec<Point> codec = _mapper.getCodec(Point.class);
+        final JsonReader reader = _factory.newReader(new StringReader("[{\"x\":1,\"y\":2}]"));
+
+        // Act
+        reader.readBeginArray();
+        final Point point = codec.read(reader);
+        reader.readEndArray();
+
+        // Assert
+        assertThat(point.x, is(1));
+        assertThat(point.y, is(2));
+    }
+
+    @Test
+    public void writeTest() {
+        // Arrange
+        final JsonCodec<Point> codec = _mapper.getCodec(Point.class);
+        final StringWriter output = new StringWriter();
+        final JsonWriter writer = _factory.newWriter(output);
+
+        // Act
+        writer.writeBeginArray();
+        codec.write(writer, new Point(1, 2));
+        writer.writeEndArray();
+        writer.close();
+
+        // Assert
+        assertThat(output.toString(), is("[{\"x\":1,\"y\":2}]"));
+    }
+
+    @Test
+    public void toObjectWithLazyElementTest() {
+        // Arrange
+        final JsonCodec<Point> codec = _mapper.getCodec(Point.class);
+        final JsonElement element = _mapper.toElement("{\"A\":[{\"x\":3,\"y\":4}]}");
+
+        // Act
+        final Point point = element.get("A").get(0).toObject(codec, null);
+
+        // Assert
+        assertThat(point.x, is(3));
+        assertThat(point.y, is(4));
+    }
+
+    @Test
+    public void toObjectWithTreeElementTest() {
+        // Arrange
+        final JsonCodec<Point> codec = _mapper.getCodec(Point.class);
+        final JsonReader reader = _factory.newReader(new StringReader("{\"x\":5,\"y\":6}"));
+        final JsonElement element = reader.readElement();
+
+        // Act
+        final Point point = element.toObject(codec, null);
+
+        // Assert
+        assertThat(point.x, is(5));
+        assertThat(point.y, is(6));
+    }
+
+    @Test
+    public void toObjectWithValueTest() {
+        // Arrange
+        final JsonCodec<Integer> codec = _mapper.getCodec(Integer.class);
+        final JsonElement element = _mapper.toElement("[7,null]");
+
+        // Act
+        // Assert
+        assertThat(element.get(0).toObject(codec, null), is(7));
+        assertNull(element.get(1).toObject(codec, 8));
+    }
+
+    @Test
+    public void toObjectWithGenericTypeTest() {
+        // Arrange
+        final JsonCodec<List<Point>> codec = _mapper.getCodec(new JsonType<List<Point>>() {
+        });
+        final JsonElement element = _mapper.toElement("[[{\"x\":1,\"y\":2},{\"x\":3,\"y\":4}]]");
+
+        // Act
+        final List<Point> points = element.get(0).toObject(codec, null);
+
+        // Assert
+        assertThat(points.size(), is(2));
+        assertThat(points.get(1).x, is(3));
+        assertThat(points.get(1).y, is(4));
+    }
+
+    @Test
+    public void getCodecWithGenericTypeTest() {
+        // Arrange
+        // Act
+        final JsonCodec<Map<String, Point>> codec = _mapper.getCodec(new JsonType<Map<String, Point>>() {
+        });
+
+        // Assert
+        assertSame(codec, _mapper.getCodec(new JsonType<Map<String, Point>>() {
+        }));
+    }
+
+    public static final class Point {
+
+        public int x;
+
+        public int y;
+
+        public Point() {
+        }
+
+        public Point(final int x, final int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+}
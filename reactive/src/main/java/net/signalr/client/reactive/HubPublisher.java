@@ -0,0 +1,452 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.reactive;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import net.signalr.client.hub.HubCallback;
+import net.signalr.client.hub.HubProxy;
+import net.signalr.client.hub.HubSubscription;
+import net.signalr.client.json.JsonType;
+
+/**
+ * Represents a publisher of the events of a client side hub method. The
+ * publisher supports one subscriber at a time and buffers up to a limited
+ * number of events which have not been requested yet.
+ * 
+ * @param <T> The element type.
+ */
+public final class HubPublisher<T> implements Publisher<T> {
+
+    /**
+     * The hub proxy.
+     */
+    private final HubProxy _proxy;
+
+    /**
+     * The method name.
+     */
+    private final String _methodName;
+
+    /**
+     * The argument type.
+     */
+    private final JsonType<T> _argumentType;
+
+    /**
+     * The buffer limit.
+     */
+    private final int _bufferLimit;
+
+    /**
+     * The overflow policy.
+     */
+    private final OverflowPolicy _overflowPolicy;
+
+    /**
+     * The time the dispatching thread blocks for demand in nanoseconds.
+     */
+    private final long _blockTimeout;
+
+    /**
+     * The active subscription.
+     */
+    private final AtomicReference<PublisherSubscription> _subscription;
+
+    /**
+     * The default time the dispatching thread blocks for demand in milliseconds.
+     */
+    public static final long DEFAULT_BLOCK_TIMEOUT = 1000;
+
+    /**
+     * Initializes a new instance of the {@link HubPublisher} class.
+     * 
+     * @param proxy The hub proxy.
+     * @param methodName The method name.
+     * @param argumentType The argument type.
+     * @param bufferLimit The buffer limit.
+     * @param overflowPolicy The overflow policy.
+     */
+    public HubPublisher(final HubProxy proxy, final String methodName, final Class<T> argumentType, final int bufferLimit, final OverflowPolicy overflowPolicy) {
+        this(proxy, methodName, argumentType, bufferLimit, overflowPolicy, DEFAULT_BLOCK_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Initializes a new instance of the {@link HubPublisher} class.
+     * 
+     * @param proxy The hub proxy.
+     * @param methodName The method name.
+     * @param argumentType The argument type.
+     * @param bufferLimit The buffer limit.
+     * @param overflowPolicy The overflow policy.
+     * @param blockTimeout The time the dispatching thread blocks for demand under {@link OverflowPolicy#BLOCK}.
+     * @param unit The time unit.
+     */
+    @SuppressWarnings("unchecked")
+    public HubPublisher(final HubProxy proxy, final String methodName, final Class<T> argumentType, final int bufferLimit, final OverflowPolicy overflowPolicy, final long blockTimeout, final TimeUnit unit) {
+        this(proxy, methodName, (argumentType == null) ? null : (JsonType<T>) JsonType.get(argumentType), bufferLimit, overflowPolicy, blockTimeout, unit);
+    }
+
+    /**
+     * Initializes a new instance of the {@link HubPublisher} class.
+     * 
+     * @param proxy The hub proxy.
+     * @param methodName The method name.
+     * @param argumentType The generic argument type.
+     * @param bufferLimit The buffer limit.
+     * @param overflowPolicy The overflow policy.
+     */
+    public HubPublisher(final HubProxy proxy, final String methodName, final JsonType<T> argumentType, final int bufferLimit, final OverflowPolicy overflowPolicy) {
+        this(proxy, methodName, argumentType, bufferLimit, overflowPolicy, DEFAULT_BLOCK_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Initializes a new instance of the {@link HubPublisher} class.
+     * 
+     * @param proxy The hub proxy.
+     * @param methodName The method name.
+     * @param argumentType The generic argument type.
+     * @param bufferLimit The buffer limit.
+     * @param overflowPolicy The overflow policy.
+     * @param blockTimeout The time the dispatching thread blocks for demand under {@link OverflowPolicy#BLOCK}.
+     * @param unit The time unit.
+     */
+    public HubPublisher(final HubProxy proxy, final String methodName, final JsonType<T> argumentType, final int bufferLimit, final OverflowPolicy overflowPolicy, final long blockTimeout, final TimeUnit unit) {
+        if (proxy == null) {
+            throw new IllegalArgumentException("Proxy must not be null");
+        }
+        if (methodName == null) {
+            throw new IllegalArgumentException("Method name must not be null");
+        }
+        if (argumentType == null) {
+            throw new IllegalArgumentException("Argument type must not be null");
+        }
+        if (bufferLimit < 1) {
+            throw new IllegalArgumentException("Buffer limit must be greater than zero");
+        }
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("Overflow policy must not be null");
+        }
+        if (blockTimeout < 0) {
+            throw new IllegalArgumentException("Block timeout must not be negative");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("Unit must not be null");
+        }
+
+        _proxy = proxy;
+        _methodName = methodName;
+        _argumentType = argumentType;
+        _bufferLimit = bufferLimit;
+        _overflowPolicy = overflowPolicy;
+        _blockTimeout = unit.toNanos(blockTimeout);
+
+        _subscription = new AtomicReference<>();
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must not be null");
+        }
+
+        final PublisherSubscription subscription = new PublisherSubscription(subscriber);
+
+        if (!_subscription.compareAndSet(null, subscription)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(final long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Publisher supports only one subscriber at a time"));
+            return;
+        }
+        subscription.setHandle(_proxy.subscribe(_methodName, _argumentType, subscription));
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Represents the subscription of a subscriber which is fed by the hub callback.
+     */
+    private final class PublisherSubscription implements Subscription, HubCallback<T> {
+
+        /**
+         * The subscriber.
+         */
+        private final Subscriber<? super T> _subscriber;
+
+        /**
+         * The lock which guards the buffer.
+         */
+        private final ReentrantLock _lock;
+
+        /**
+         * The condition which is signaled when the buffer has room.
+         */
+        private final Condition _notFull;
+
+        /**
+         * The buffered elements.
+         */
+        private final Deque<T> _buffer;
+
+        /**
+         * The outstanding demand.
+         */
+        private final AtomicLong _requested;
+
+        /**
+         * The number of pending drain requests.
+         */
+        private final AtomicInteger _drains;
+
+        /**
+         * The terminal error or <code>null</code>.
+         */
+        private volatile Throwable _error;
+
+        /**
+         * A value indicating whether the subscription has been cancelled.
+         */
+        private volatile boolean _cancelled;
+
+        /**
+         * A value indicating whether the subscriber has been terminated.
+         */
+        private boolean _terminated;
+
+        /**
+         * The hub subscription.
+         */
+        private volatile HubSubscription _handle;
+
+        /**
+         * Initializes a new instance of the {@link PublisherSubscription} class.
+         * 
+         * @param subscriber The subscriber.
+         */
+        public PublisherSubscription(final Subscriber<? super T> subscriber) {
+            _subscriber = subscriber;
+
+            _lock = new ReentrantLock();
+            _notFull = _lock.newCondition();
+            _buffer = new ArrayDeque<>();
+            _requested = new AtomicLong(0);
+            _drains = new AtomicInteger(0);
+        }
+
+        /**
+         * Sets the hub subscription which feeds the subscription.
+         * 
+         * @param handle The hub subscription.
+         */
+        public void setHandle(final HubSubscription handle) {
+            _handle = handle;
+            if (_cancelled) {
+                handle.unsubscribe();
+            }
+        }
+
+        @Override
+        public void onInvoke(final T argument) {
+            if (argument == null) {
+                // Reactive streams do not permit null elements.
+                return;
+            }
+            _lock.lock();
+            try {
+                if (!offer(argument)) {
+                    return;
+                }
+            } finally {
+                _lock.unlock();
+            }
+            drain();
+        }
+
+        /**
+         * Adds the specified element to the buffer according to the overflow policy.
+         * 
+         * @param element The element.
+         * @return A value indicating whether the subscriber must be drained.
+         */
+        private boolean offer(final T element) {
+            if (_cancelled) {
+                return false;
+            }
+            if (_buffer.size() >= _bufferLimit) {
+                switch (_overflowPolicy) {
+                case BLOCK:
+                    if (!await()) {
+                        return false;
+                    }
+                    if (_buffer.size() >= _bufferLimit) {
+                        // Fails like ERROR instead of stalling the dispatching thread for good.
+                        _error = new IllegalStateException("Buffer limit of " + _bufferLimit + " elements exceeded without demand within the block timeout");
+                        terminate();
+                        return true;
+                    }
+                    break;
+                case DROP:
+                    return false;
+                case LATEST:
+                    _buffer.pollFirst();
+                    break;
+                case ERROR:
+                    _error = new IllegalStateException("Buffer limit of " + _bufferLimit + " elements exceeded");
+                    terminate();
+                    return true;
+                }
+            }
+            _buffer.offerLast(element);
+
+            return true;
+        }
+
+        /**
+         * Waits until the buffer has room or the block timeout elapses.
+         * 
+         * @return A value indicating whether the subscription is still active.
+         */
+        private boolean await() {
+            long nanos = _blockTimeout;
+
+            while ((_buffer.size() >= _bufferLimit) && !_cancelled && (nanos > 0)) {
+                try {
+                    nanos = _notFull.awaitNanos(nanos);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            return !_cancelled;
+        }
+
+        /**
+         * Emits buffered elements as long as there is demand.
+         */
+        private void drain() {
+            if (_drains.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+
+            do {
+                final Throwable error = _error;
+
+                if ((error != null) && !_terminated) {
+                    _terminated = true;
+                    _subscriber.onError(error);
+                }
+                while (!_cancelled && (_requested.get() > 0)) {
+                    final T element = poll();
+
+                    if (element == null) {
+                        break;
+                    }
+                    if (_requested.get() != Long.MAX_VALUE) {
+                        _requested.decrementAndGet();
+                    }
+                    _subscriber.onNext(element);
+                }
+                missed = _drains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Removes the oldest element from the buffer.
+         * 
+         * @return The element or <code>null</code>.
+         */
+        private T poll() {
+            _lock.lock();
+            try {
+                final T element = _buffer.pollFirst();
+
+                if (element != null) {
+                    _notFull.signal();
+                }
+
+                return element;
+            } finally {
+                _lock.unlock();
+            }
+        }
+
+        /**
+         * Releases the hub callback and any blocked dispatching thread.
+         */
+        private void terminate() {
+            _lock.lock();
+            try {
+                _cancelled = true;
+                _buffer.clear();
+                _notFull.signalAll();
+            } finally {
+                _lock.unlock();
+            }
+            _subscription.compareAndSet(this, null);
+            final HubSubscription handle = _handle;
+
+            if (handle != null) {
+                handle.unsubscribe();
+            }
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                _error = new IllegalArgumentException("Requested number of elements must be positive, but was " + n);
+                terminate();
+                drain();
+                return;
+            }
+            long requested;
+            long newRequested;
+
+            do {
+                requested = _requested.get();
+                newRequested = requested + n;
+                if (newRequested < 0) {
+                    newRequested = Long.MAX_VALUE;
+                }
+            } while (!_requested.compareAndSet(requested, newRequested));
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            terminate();
+        }
+    }
+}
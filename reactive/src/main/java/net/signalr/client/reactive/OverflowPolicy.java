@@ -0,0 +1,47 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.reactive;
+
+/**
+ * Defines the policies which apply when the buffer of a hub publisher is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Blocks the dispatching thread until the subscriber requests more
+     * elements, which stops reading from the transport. When no demand arrives
+     * within the block timeout of the publisher, the subscription fails like
+     * under {@link #ERROR}. Hub connections with dispatch lanes only block the
+     * lane of the message instead of every hub.
+     */
+    BLOCK,
+
+    /**
+     * Drops the new element.
+     */
+    DROP,
+
+    /**
+     * Drops the oldest buffered element in favor of the new element.
+     */
+    LATEST,
+
+    /**
+     * Cancels the subscription and signals an error to the subscriber.
+     */
+    ERROR
+}
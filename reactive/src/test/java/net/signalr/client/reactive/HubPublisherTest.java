@@ -0,0 +1,333 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.reactive;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import net.signalr.client.SendPriority;
+import net.signalr.client.hub.HubCallback;
+import net.signalr.client.hub.HubCallback2;
+import net.signalr.client.hub.HubProxy;
+import net.signalr.client.hub.HubResultCache;
+import net.signalr.client.hub.HubSubscription;
+import net.signalr.client.json.JsonElement;
+import net.signalr.client.json.JsonType;
+import net.signalr.client.util.concurrent.promise.Promise;
+
+@RunWith(JUnit4.class)
+public final class HubPublisherTest {
+
+    @Test
+    public void subscribeEmitsOnDemandTest() {
+        // Arrange
+        final StubHubProxy proxy = new StubHubProxy();
+        final HubPublisher<String> publisher = new HubPublisher<>(proxy, "update", String.class, 4, OverflowPolicy.DROP);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        publisher.subscribe(subscriber);
+
+        // Act
+        proxy.invoke("a");
+        proxy.invoke("b");
+        proxy.invoke("c");
+        subscriber.request(2);
+
+        // Assert
+        assertThat(subscriber._elements, is(Arrays.asList("a", "b")));
+        subscriber.request(1);
+        assertThat(subscriber._elements, is(Arrays.asList("a", "b", "c")));
+    }
+
+    @Test
+    public void subscribeWithDropTest() {
+        // Arrange
+        final StubHubProxy proxy = new StubHubProxy();
+        final HubPublisher<String> publisher = new HubPublisher<>(proxy, "update", String.class, 2, OverflowPolicy.DROP);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        publisher.subscribe(subscriber);
+
+        // Act
+        proxy.invoke("a");
+        proxy.invoke("b");
+        proxy.invoke("c");
+        subscriber.request(10);
+
+        // Assert
+        assertThat(subscriber._elements, is(Arrays.asList("a", "b")));
+    }
+
+    @Test
+    public void subscribeWithLatestTest() {
+        // Arrange
+        final StubHubProxy proxy = new StubHubProxy();
+        final HubPublisher<String> publisher = new HubPublisher<>(proxy, "update", String.class, 2, OverflowPolicy.LATEST);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        publisher.subscribe(subscriber);
+
+        // Act
+        proxy.invoke("a");
+        proxy.invoke("b");
+        proxy.invoke("c");
+        subscriber.request(10);
+
+        // Assert
+        assertThat(subscriber._elements, is(Arrays.asList("b", "c")));
+    }
+
+    @Test
+    public void subscribeWithErrorTest() {
+        // Arrange
+        final StubHubProxy proxy = new StubHubProxy();
+        final HubPublisher<String> publisher = new HubPublisher<>(proxy, "update", String.class, 1, OverflowPolicy.ERROR);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        publisher.subscribe(subscriber);
+
+        // Act
+        proxy.invoke("a");
+        proxy.invoke("b");
+
+        // Assert
+        assertThat(subscriber._error, instanceOf(IllegalStateException.class));
+        assertNull(proxy._callback);
+    }
+
+    @Test
+    public void subscribeWithBlockTimeoutTest() {
+        // Arrange
+        final StubHubProxy proxy = new StubHubProxy();
+        final HubPublisher<String> publisher = new HubPublisher<>(proxy, "update", String.class, 1, OverflowPolicy.BLOCK, 10, TimeUnit.MILLISECONDS);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        publisher.subscribe(subscriber);
+
+        // Act
+        proxy.invoke("a");
+        proxy.invoke("b");
+
+        // Assert
+        assertThat(subscriber._error, instanceOf(IllegalStateException.class));
+        assertNull(proxy._callback);
+    }
+
+    @Test
+    public void cancelUnregistersCallbackTest() {
+        // Arrange
+        final StubHubProxy proxy = new StubHubProxy();
+        final HubPublisher<String> publisher = new HubPublisher<>(proxy, "update", String.class, 1, OverflowPolicy.BLOCK);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        publisher.subscribe(subscriber);
+
+        // Act
+        subscriber._subscription.cancel();
+
+        // Assert
+        assertNull(proxy._callback);
+    }
+
+    @Test
+    public void subscribeTwiceTest() {
+        // Arrange
+        final StubHubProxy proxy = new StubHubProxy();
+        final HubPublisher<String> publisher = new HubPublisher<>(proxy, "update", String.class, 1, OverflowPolicy.DROP);
+        final RecordingSubscriber subscriber1 = new RecordingSubscriber();
+        final RecordingSubscriber subscriber2 = new RecordingSubscriber();
+
+        publisher.subscribe(subscriber1);
+
+        // Act
+        publisher.subscribe(subscriber2);
+
+        // Assert
+        assertNull(subscriber1._error);
+        assertThat(subscriber2._error, instanceOf(IllegalStateException.class));
+    }
+
+    private static final class RecordingSubscriber implements Subscriber<String> {
+
+        private final List<String> _elements = new ArrayList<>();
+
+        private Subscription _subscription;
+
+        private Throwable _error;
+
+        public void request(final long n) {
+            _subscription.request(n);
+        }
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            _subscription = subscription;
+        }
+
+        @Override
+        public void onNext(final String element) {
+            _elements.add(element);
+        }
+
+        @Override
+        public void onError(final Throwable error) {
+            _error = error;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    private static final class StubHubProxy implements HubProxy {
+
+        private HubCallback<Object> _callback;
+
+        public void invoke(final Object argument) {
+            _callback.onInvoke(argument);
+        }
+
+        @Override
+        public <R> Promise<R> invoke(final String methodName, final Class<R> returnType, final Object... arguments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <R> Promise<R> invoke(final String methodName, final JsonType<R> returnType, final Object... arguments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <R> Promise<R> invoke(final String methodName, final SendPriority priority, final Class<R> returnType, final Object... arguments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <P, R> Promise<R> invoke(final String methodName, final Class<R> returnType, final Class<P> progressType, final HubCallback<P> progressCallback, final Object... arguments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Promise<Void> send(final String methodName, final Object... arguments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Promise<Void> send(final String methodName, final SendPriority priority, final Object... arguments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setSingleFlight(final boolean singleFlight) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setResultCache(final String methodName, final HubResultCache cache) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object getState(final String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setState(final String name, final Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void removeState(final String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void register(final String methodName, final HubCallback<JsonElement> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> void register(final String methodName, final Class<T> argumentType, final HubCallback<T> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> void register(final String methodName, final JsonType<T> argumentType, final HubCallback<T> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <A, B> void register(final String methodName, final Class<A> argumentType1, final Class<B> argumentType2, final HubCallback2<A, B> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void register(final String methodName, final Class<?>[] argumentTypes, final HubCallback<Object[]> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void register(final Object receiver) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HubSubscription subscribe(final String methodName, final HubCallback<JsonElement> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> HubSubscription subscribe(final String methodName, final Class<T> argumentType, final HubCallback<T> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> HubSubscription subscribe(final String methodName, final JsonType<T> argumentType, final HubCallback<T> callback) {
+            _callback = (HubCallback<Object>) callback;
+
+            return new HubSubscription() {
+                @Override
+                public void unsubscribe() {
+                    _callback = null;
+                }
+            };
+        }
+
+        @Override
+        public HubSubscription subscribe(final String methodName, final Class<?>[] argumentTypes, final HubCallback<Object[]> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void unregister(final String methodName) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -16,10 +16,30 @@
 
 package net.signalr.client.transport.asynchttpclient;
 
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.jboss.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ning.http.client.providers.netty.NettyWebSocket;
 import com.ning.http.client.websocket.WebSocket;
 
 import net.signalr.client.transport.Channel;
 import net.signalr.client.transport.ChannelHandler;
+import net.signalr.client.util.concurrent.promise.Deferred;
 import net.signalr.client.util.concurrent.promise.Promise;
 import net.signalr.client.util.concurrent.promise.Promises;
 
@@ -28,6 +48,33 @@ import net.signalr.client.util.concurrent.promise.Promises;
  */
 final class WebSocketChannel implements Channel {
 
+    /**
+     * The private logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketChannel.class);
+
+    /**
+     * The name of the writability handler within the Netty pipeline.
+     */
+    private static final String WRITABILITY_HANDLER_NAME = "signalr-writability";
+
+    /**
+     * The Maven properties of AsyncHttpClient, which carry its version.
+     */
+    private static final String VERSION_RESOURCE_NAME = "/META-INF/maven/com.ning/async-http-client/pom.properties";
+
+    /**
+     * The prefix of the AsyncHttpClient versions whose {@link NettyWebSocket}
+     * keeps the Netty channel in its private <code>channel</code> field.
+     */
+    private static final String SUPPORTED_VERSION_PREFIX = "1.7.";
+
+    /**
+     * The <code>channel</code> field of {@link NettyWebSocket} or
+     * <code>null</code> if the AsyncHttpClient version is not supported.
+     */
+    private static final Field CHANNEL_FIELD = getChannelField(getVersion());
+
     /**
      * The channel handler.
      */
@@ -38,6 +85,36 @@ final class WebSocketChannel implements Channel {
      */
     private final WebSocket _webSocket;
 
+    /**
+     * The underlying Netty channel or <code>null</code> if write completion cannot be observed.
+     */
+    private final org.jboss.netty.channel.Channel _nettyChannel;
+
+    /**
+     * The maximum number of outstanding characters.
+     */
+    private final long _maxOutstandingSize;
+
+    /**
+     * The number of characters which have been sent but not yet written.
+     */
+    private final AtomicLong _outstandingSize;
+
+    /**
+     * The pending writes.
+     */
+    private final Queue<PendingWrite> _pendingWrites;
+
+    /**
+     * The number of pending drain requests.
+     */
+    private final AtomicInteger _drains;
+
+    /**
+     * A value indicating whether the channel is closed.
+     */
+    private final AtomicBoolean _closed;
+
     /**
      * Initializes a new instance of the {@link WebSocketChannel} class.
      * 
@@ -45,32 +122,271 @@ final class WebSocketChannel implements Channel {
      * @param webSocket The web socket.
      */
     public WebSocketChannel(final ChannelHandler handler, final WebSocket webSocket) {
+        this(handler, webSocket, Long.MAX_VALUE);
+    }
+
+    /**
+     * Initializes a new instance of the {@link WebSocketChannel} class.
+     * 
+     * @param handler The channel handler.
+     * @param webSocket The web socket.
+     * @param maxOutstandingSize The maximum number of outstanding characters.
+     */
+    public WebSocketChannel(final ChannelHandler handler, final WebSocket webSocket, final long maxOutstandingSize) {
+        this(handler, webSocket, maxOutstandingSize, getNettyChannel(webSocket));
+    }
+
+    /**
+     * Initializes a new instance of the {@link WebSocketChannel} class.
+     * 
+     * @param handler The channel handler.
+     * @param webSocket The web socket.
+     * @param maxOutstandingSize The maximum number of outstanding characters.
+     * @param nettyChannel The Netty channel of the web socket or <code>null</code> to fall back.
+     */
+    WebSocketChannel(final ChannelHandler handler, final WebSocket webSocket, final long maxOutstandingSize, final org.jboss.netty.channel.Channel nettyChannel) {
         if (handler == null) {
             throw new IllegalArgumentException("Handler must not be null");
         }
         if (webSocket == null) {
             throw new IllegalArgumentException("WebSocket must not be null");
         }
+        if (maxOutstandingSize < 1) {
+            throw new IllegalArgumentException("Max outstanding size must be greater than zero");
+        }
 
         _handler = handler;
         _webSocket = webSocket;
+        _maxOutstandingSize = maxOutstandingSize;
+
+        _nettyChannel = nettyChannel;
+        _outstandingSize = new AtomicLong(0);
+        _pendingWrites = new ConcurrentLinkedQueue<>();
+        _drains = new AtomicInteger(0);
+        _closed = new AtomicBoolean(false);
+
+        if (_nettyChannel != null) {
+            _nettyChannel.getPipeline().addFirst(WRITABILITY_HANDLER_NAME, new WritabilityHandler());
+        }
+    }
+
+    /**
+     * Returns the version of AsyncHttpClient on the class path.
+     * 
+     * @return The version or <code>null</code> if it is unknown.
+     */
+    static String getVersion() {
+        try (final InputStream input = NettyWebSocket.class.getResourceAsStream(VERSION_RESOURCE_NAME)) {
+            if (input == null) {
+                return null;
+            }
+            final Properties properties = new Properties();
+
+            properties.load(input);
+
+            return properties.getProperty("version");
+        } catch (final Throwable t) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the private <code>channel</code> field of {@link NettyWebSocket}
+     * if the specified AsyncHttpClient version is known to declare it.
+     * AsyncHttpClient does not expose the Netty channel of a web socket, hence
+     * the field is only read for the versions it has been verified with.
+     * 
+     * @param version The AsyncHttpClient version or <code>null</code>.
+     * @return The field or <code>null</code> to fall back.
+     */
+    static Field getChannelField(final String version) {
+        if ((version == null) || !version.startsWith(SUPPORTED_VERSION_PREFIX)) {
+            LOGGER.info("AsyncHttpClient version {} is not supported, write completion cannot be observed", version);
+
+            return null;
+        }
+        try {
+            final Field field = NettyWebSocket.class.getDeclaredField("channel");
+
+            if (field.getType() != org.jboss.netty.channel.Channel.class) {
+                LOGGER.warn("Unexpected Netty channel field type {}, write completion cannot be observed", field.getType());
+
+                return null;
+            }
+            field.setAccessible(true);
+
+            return field;
+        } catch (final Throwable t) {
+            LOGGER.warn("Failed to access Netty channel, write completion cannot be observed", t);
+
+            return null;
+        }
+    }
+
+    /**
+     * Returns the Netty channel of the specified web socket. If the web socket
+     * is provided by another provider or the channel field is not available,
+     * e.g. because of an unsupported AsyncHttpClient version or a security
+     * manager, the web socket channel falls back to
+     * {@link WebSocket#sendTextMessage(String)}, which neither observes write
+     * completion nor queues writes while the Netty channel is not writable.
+     * 
+     * @param webSocket The web socket.
+     * @return The Netty channel or <code>null</code> to fall back.
+     */
+    static org.jboss.netty.channel.Channel getNettyChannel(final WebSocket webSocket) {
+        return getNettyChannel(webSocket, CHANNEL_FIELD);
+    }
+
+    /**
+     * Returns the Netty channel of the specified web socket using the specified channel field.
+     * 
+     * @param webSocket The web socket.
+     * @param field The channel field or <code>null</code>.
+     * @return The Netty channel or <code>null</code> to fall back.
+     */
+    static org.jboss.netty.channel.Channel getNettyChannel(final WebSocket webSocket, final Field field) {
+        if ((field == null) || !(webSocket instanceof NettyWebSocket)) {
+            return null;
+        }
+        try {
+            return (org.jboss.netty.channel.Channel) field.get(webSocket);
+        } catch (final Throwable t) {
+            LOGGER.warn("Failed to access Netty channel, write completion cannot be observed", t);
+
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of characters which have been sent but not yet written.
+     * 
+     * @return The outstanding size.
+     */
+    public long getOutstandingSize() {
+        return _outstandingSize.get();
+    }
+
+    /**
+     * Tries to reserve the specified number of outstanding characters. A
+     * single message is always admitted regardless of its size.
+     * 
+     * @param size The size.
+     * @return A value indicating whether the size has been reserved.
+     */
+    private boolean tryReserve(final int size) {
+        while (true) {
+            final long outstandingSize = _outstandingSize.get();
+
+            if ((outstandingSize > 0) && ((outstandingSize + size) > _maxOutstandingSize)) {
+                return false;
+            }
+            if (_outstandingSize.compareAndSet(outstandingSize, outstandingSize + size)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Writes the pending writes in order as long as the Netty channel is writable.
+     */
+    private void drain() {
+        if (_drains.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+
+        do {
+            while (_nettyChannel.isWritable()) {
+                final PendingWrite pendingWrite = _pendingWrites.poll();
+
+                if (pendingWrite == null) {
+                    break;
+                }
+                write(pendingWrite);
+            }
+            missed = _drains.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Fails the pending writes which have not been written yet.
+     */
+    private void failPendingWrites() {
+        PendingWrite pendingWrite;
+
+        while ((pendingWrite = _pendingWrites.poll()) != null) {
+            _outstandingSize.addAndGet(-pendingWrite._message.length());
+            pendingWrite._deferred.setFailure(new IllegalStateException("Channel is closed"));
+        }
+    }
+
+    /**
+     * Writes the specified pending write and completes it once written.
+     * 
+     * @param pendingWrite The pending write.
+     */
+    private void write(final PendingWrite pendingWrite) {
+        final ChannelFuture future;
+
+        try {
+            future = _nettyChannel.write(new TextWebSocketFrame(pendingWrite._message));
+        } catch (final Throwable t) {
+            _outstandingSize.addAndGet(-pendingWrite._message.length());
+            pendingWrite._deferred.setFailure(t);
+            return;
+        }
+        future.addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(final ChannelFuture future) throws Exception {
+                _outstandingSize.addAndGet(-pendingWrite._message.length());
+                if (future.isSuccess()) {
+                    pendingWrite._deferred.setSuccess(null);
+                } else {
+                    pendingWrite._deferred.setFailure(future.getCause());
+                }
+                drain();
+            }
+        });
     }
 
     @Override
     public Promise<Void> send(final String message) {
         _handler.handleMessageSending(message);
 
-        try {
-            _webSocket.sendTextMessage(message);
-        } catch (final Throwable t) {
-            return Promises.newFailure(t);
+        if (_nettyChannel == null) {
+            try {
+                _webSocket.sendTextMessage(message);
+            } catch (final Throwable t) {
+                return Promises.newFailure(t);
+            }
+
+            return Promises.newSuccess();
+        }
+        if (_closed.get()) {
+            return Promises.newFailure(new IllegalStateException("Channel is closed"));
+        }
+        if (!tryReserve(message.length())) {
+            return Promises.newFailure(new IllegalStateException("Channel is not writable, more than " + _maxOutstandingSize + " characters are outstanding"));
         }
+        final Deferred<Void> deferred = new Deferred<>();
 
-        return Promises.newSuccess();
+        // Writes are queued while the channel is not writable and released as earlier writes complete.
+        _pendingWrites.offer(new PendingWrite(message, deferred));
+        // Fails the write if the channel has been closed concurrently.
+        if (_closed.get()) {
+            failPendingWrites();
+        } else {
+            drain();
+        }
+
+        return deferred;
     }
 
     @Override
     public Promise<Void> close() {
+        _closed.set(true);
+        failPendingWrites();
         try {
             _webSocket.close();
         } catch (final Throwable t) {
@@ -79,4 +395,51 @@ final class WebSocketChannel implements Channel {
 
         return Promises.newSuccess();
     }
+
+    /**
+     * Represents the Netty handler which writes the pending writes as soon as
+     * the Netty channel becomes writable and fails them once it is closed.
+     */
+    private final class WritabilityHandler extends SimpleChannelUpstreamHandler {
+
+        @Override
+        public void channelInterestChanged(final ChannelHandlerContext context, final ChannelStateEvent event) throws Exception {
+            drain();
+            super.channelInterestChanged(context, event);
+        }
+
+        @Override
+        public void channelClosed(final ChannelHandlerContext context, final ChannelStateEvent event) throws Exception {
+            _closed.set(true);
+            failPendingWrites();
+            super.channelClosed(context, event);
+        }
+    }
+
+    /**
+     * Represents a pending write.
+     */
+    private static final class PendingWrite {
+
+        /**
+         * The message.
+         */
+        private final String _message;
+
+        /**
+         * The deferred send result.
+         */
+        private final Deferred<Void> _deferred;
+
+        /**
+         * Initializes a new instance of the {@link PendingWrite} class.
+         * 
+         * @param message The message.
+         * @param deferred The deferred send result.
+         */
+        public PendingWrite(final String message, final Deferred<Void> deferred) {
+            _message = message;
+            _deferred = deferred;
+        }
+    }
 }
@@ -34,6 +34,11 @@ final class WebSocketTextListenerAdapter implements WebSocketTextListener {
      */
     private final ChannelHandler _handler;
 
+    /**
+     * The maximum number of outstanding characters.
+     */
+    private final long _maxOutstandingSize;
+
     /**
      * The channel.
      */
@@ -45,11 +50,22 @@ final class WebSocketTextListenerAdapter implements WebSocketTextListener {
      * @param handler The channel handler.
      */
     public WebSocketTextListenerAdapter(final ChannelHandler handler) {
+        this(handler, Long.MAX_VALUE);
+    }
+
+    /**
+     * Initializes a new instance of the {@link WebSocketTextListenerAdapter} class.
+     * 
+     * @param handler The channel handler.
+     * @param maxOutstandingSize The maximum number of outstanding characters.
+     */
+    public WebSocketTextListenerAdapter(final ChannelHandler handler, final long maxOutstandingSize) {
         if (handler == null) {
             throw new IllegalArgumentException("Handler must not be null");
         }
 
         _handler = handler;
+        _maxOutstandingSize = maxOutstandingSize;
         _channel = new Deferred<>();
     }
 
@@ -64,7 +80,7 @@ final class WebSocketTextListenerAdapter implements WebSocketTextListener {
 
     @Override
     public void onOpen(final WebSocket webSocket) {
-        final Channel channel = new WebSocketChannel(_handler, webSocket);
+        final Channel channel = new WebSocketChannel(_handler, webSocket, _maxOutstandingSize);
 
         if (_channel.trySuccess(channel)) {
             _handler.handleChannelOpened();
@@ -37,6 +37,11 @@ import net.signalr.client.util.concurrent.promise.Promises;
  */
 public final class WebSocketTransport extends AbstractTransport {
 
+    /**
+     * The maximum number of outstanding characters per channel.
+     */
+    private volatile long _maxOutstandingSize;
+
     /**
      * Initializes a new instance of the {@link WebSocketTransport} class.
      */
@@ -51,6 +56,23 @@ public final class WebSocketTransport extends AbstractTransport {
      */
     public WebSocketTransport(final String httpProviderClass) {
         super(httpProviderClass);
+
+        _maxOutstandingSize = Long.MAX_VALUE;
+    }
+
+    /**
+     * Sets the maximum number of characters which may be sent but not yet
+     * written per channel. Sends beyond the limit fail immediately, while
+     * sends within the limit are queued as long as the channel is not writable.
+     * 
+     * @param maxOutstandingSize The maximum number of outstanding characters.
+     */
+    public void setMaxOutstandingSize(final long maxOutstandingSize) {
+        if (maxOutstandingSize < 1) {
+            throw new IllegalArgumentException("Max outstanding size must be greater than zero");
+        }
+
+        _maxOutstandingSize = maxOutstandingSize;
     }
 
     @Override
@@ -82,7 +104,7 @@ public final class WebSocketTransport extends AbstractTransport {
 
         // Send request.
         final WebSocketUpgradeHandler.Builder builder = new WebSocketUpgradeHandler.Builder();
-        final WebSocketTextListenerAdapter listener = new WebSocketTextListenerAdapter(handler);
+        final WebSocketTextListenerAdapter listener = new WebSocketTextListenerAdapter(handler, _maxOutstandingSize);
 
         builder.addWebSocketListener(listener);
 
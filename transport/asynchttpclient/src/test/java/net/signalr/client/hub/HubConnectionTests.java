@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.util.concurrent.ExecutionException;
 
 import net.signalr.client.ConnectionListener;
+import net.signalr.client.json.JsonElement;
 import net.signalr.client.json.gson.GsonFactory;
 import net.signalr.client.transport.asynchttpclient.WebSocketTransport;
 import net.signalr.client.util.concurrent.promise.Compose;
@@ -78,6 +79,11 @@ public final class HubConnectionTests {
                 LOGGER.info("onReceived: {}", message);
             }
 
+            @Override
+            public void onReceived(final String message, final JsonElement element) {
+                onReceived(message);
+            }
+
             @Override
             public void onError(final Throwable cause) {
                 LOGGER.info("onError: {}", cause);
@@ -0,0 +1,252 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.transport.asynchttpclient;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelState;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.DefaultChannelFuture;
+import org.jboss.netty.channel.UpstreamChannelStateEvent;
+import org.jboss.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.ning.http.client.providers.netty.NettyWebSocket;
+import com.ning.http.client.websocket.WebSocket;
+
+import net.signalr.client.transport.ChannelHandler;
+import net.signalr.client.util.concurrent.promise.Promise;
+import net.signalr.client.util.concurrent.promise.Promises;
+
+@RunWith(JUnit4.class)
+public final class WebSocketChannelTest {
+
+    private StubNettyChannel _nettyChannel;
+
+    private ChannelHandler _handler;
+
+    @Before
+    public void before() {
+        _nettyChannel = new StubNettyChannel();
+        _handler = newStub(ChannelHandler.class, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] arguments) {
+                return null;
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T newStub(final Class<T> type, final InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    @Test
+    public void getNettyChannelTest() {
+        // Arrange
+        final WebSocket webSocket = new NettyWebSocket(_nettyChannel._channel);
+
+        // Act
+        final Channel nettyChannel = WebSocketChannel.getNettyChannel(webSocket);
+
+        // Assert
+        assertSame(_nettyChannel._channel, nettyChannel);
+    }
+
+    @Test
+    public void sendWithoutNettyChannelTest() {
+        // Arrange
+        final List<String> messages = new ArrayList<>();
+        final WebSocket webSocket = newStub(WebSocket.class, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] arguments) {
+                if (method.getName().equals("sendTextMessage")) {
+                    messages.add((String) arguments[0]);
+                }
+
+                return proxy;
+            }
+        });
+        final WebSocketChannel channel = new WebSocketChannel(_handler, webSocket);
+
+        // Act
+        final Promise<Void> send = channel.send("a");
+
+        // Assert
+        assertNull(WebSocketChannel.getNettyChannel(webSocket));
+        assertTrue(send.isComplete());
+        assertThat(messages, is(Arrays.asList("a")));
+    }
+
+    @Test
+    public void getChannelFieldTest() {
+        // Act
+        final String version = WebSocketChannel.getVersion();
+
+        // Assert
+        assertThat(version, is(notNullValue()));
+        assertThat(WebSocketChannel.getChannelField(version), is(notNullValue()));
+    }
+
+    @Test
+    public void getChannelFieldWithUnsupportedVersionTest() {
+        // Arrange
+        final WebSocket webSocket = new NettyWebSocket(_nettyChannel._channel);
+
+        // Act
+        final Field field = WebSocketChannel.getChannelField("1.9.0");
+
+        // Assert
+        assertNull(field);
+        assertNull(WebSocketChannel.getChannelField(null));
+        assertNull(WebSocketChannel.getNettyChannel(webSocket, field));
+    }
+
+    @Test
+    public void sendWithUnsupportedVersionTest() {
+        // Arrange
+        final WebSocket webSocket = new NettyWebSocket(_nettyChannel._channel);
+        final WebSocketChannel channel = new WebSocketChannel(_handler, webSocket, Long.MAX_VALUE, WebSocketChannel.getNettyChannel(webSocket, null));
+
+        _nettyChannel._writable = false;
+
+        // Act
+        final Promise<Void> send = channel.send("a");
+
+        // Assert
+        // The fallback neither queues writes nor observes their completion.
+        assertTrue(send.isComplete());
+        assertThat(_nettyChannel._messages, is(Arrays.asList("a")));
+        assertThat(channel.getOutstandingSize(), is(0L));
+    }
+
+    @Test
+    public void sendWhenWritableTest() {
+        // Arrange
+        final WebSocketChannel channel = new WebSocketChannel(_handler, new NettyWebSocket(_nettyChannel._channel));
+
+        _nettyChannel._writable = false;
+
+        // Act
+        final Promise<Void> send = channel.send("a");
+        final List<String> messagesBeforeWritable = new ArrayList<>(_nettyChannel._messages);
+
+        _nettyChannel.setWritable();
+        _nettyChannel.completeWrites();
+
+        // Assert
+        assertThat(messagesBeforeWritable.size(), is(0));
+        assertThat(_nettyChannel._messages, is(Arrays.asList("a")));
+        assertTrue(send.isComplete());
+        assertThat(channel.getOutstandingSize(), is(0L));
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void closeFailsPendingWritesTest() throws Exception {
+        // Arrange
+        final WebSocketChannel channel = new WebSocketChannel(_handler, new NettyWebSocket(_nettyChannel._channel));
+
+        _nettyChannel._writable = false;
+        final Promise<Void> send = channel.send("a");
+
+        // Act
+        channel.close();
+
+        // Assert
+        assertTrue(send.isComplete());
+        assertThat(channel.getOutstandingSize(), is(0L));
+        assertTrue(channel.send("b").isComplete());
+        assertThat(_nettyChannel._messages.size(), is(0));
+        Promises.await(send);
+    }
+
+    private static final class StubNettyChannel implements InvocationHandler {
+
+        private final Channel _channel;
+
+        private final ChannelPipeline _pipeline;
+
+        private final List<String> _messages;
+
+        private final List<ChannelFuture> _writes;
+
+        private boolean _writable;
+
+        public StubNettyChannel() {
+            _channel = newStub(Channel.class, this);
+            _pipeline = Channels.pipeline();
+            _messages = new ArrayList<>();
+            _writes = new ArrayList<>();
+            _writable = true;
+        }
+
+        public void setWritable() {
+            _writable = true;
+            _pipeline.sendUpstream(new UpstreamChannelStateEvent(_channel, ChannelState.INTEREST_OPS, Channel.OP_READ));
+        }
+
+        public void completeWrites() {
+            for (final ChannelFuture write : _writes) {
+                write.setSuccess();
+            }
+            _writes.clear();
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] arguments) {
+            switch (method.getName()) {
+            case "getPipeline":
+                return _pipeline;
+            case "isWritable":
+                return _writable;
+            case "isOpen":
+                return true;
+            case "write":
+                final ChannelFuture write = new DefaultChannelFuture(_channel, false);
+
+                _messages.add(((TextWebSocketFrame) arguments[0]).getText());
+                _writes.add(write);
+
+                return write;
+            case "close":
+                return Channels.succeededFuture(_channel);
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return (proxy == arguments[0]);
+            default:
+                return null;
+            }
+        }
+    }
+}
@@ -16,11 +16,22 @@
 
 package net.signalr.client.transport.jetty;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jetty.websocket.api.BatchMode;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.common.WebSocketRemoteEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import net.signalr.client.transport.Channel;
 import net.signalr.client.transport.ChannelHandler;
+import net.signalr.client.util.concurrent.Job;
+import net.signalr.client.util.concurrent.Schedulable;
+import net.signalr.client.util.concurrent.Scheduler;
 import net.signalr.client.util.concurrent.promise.Deferred;
 import net.signalr.client.util.concurrent.promise.Promise;
 import net.signalr.client.util.concurrent.promise.Promises;
@@ -30,6 +41,11 @@ import net.signalr.client.util.concurrent.promise.Promises;
  */
 final class WebSocketChannel implements Channel {
 
+    /**
+     * The private logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketChannel.class);
+
     /**
      * The channel handler.
      */
@@ -40,6 +56,21 @@ final class WebSocketChannel implements Channel {
      */
     private final Session _session;
 
+    /**
+     * The batch size in characters or <code>0</code> if batching is disabled.
+     */
+    private final int _batchSize;
+
+    /**
+     * The number of characters sent since the last flush.
+     */
+    private final AtomicLong _pendingSize;
+
+    /**
+     * The job which periodically flushes the batch or <code>null</code>.
+     */
+    private volatile Job _flushJob;
+
     /**
      * Initializes a new instance of the {@link WebSocketChannel} class.
      * 
@@ -47,6 +78,20 @@ final class WebSocketChannel implements Channel {
      * @param session The session.
      */
     public WebSocketChannel(final ChannelHandler handler, final Session session) {
+        this(handler, session, null, 0, 0);
+    }
+
+    /**
+     * Initializes a new instance of the {@link WebSocketChannel} class which
+     * batches outbound messages.
+     * 
+     * @param handler The channel handler.
+     * @param session The session.
+     * @param scheduler The scheduler which runs the periodic flush.
+     * @param batchWindow The batch window in milliseconds or <code>0</code> to disable batching.
+     * @param batchSize The batch size in characters.
+     */
+    public WebSocketChannel(final ChannelHandler handler, final Session session, final Scheduler scheduler, final long batchWindow, final int batchSize) {
         if (handler == null) {
             throw new IllegalArgumentException("Handler must not be null");
         }
@@ -56,6 +101,45 @@ final class WebSocketChannel implements Channel {
 
         _handler = handler;
         _session = session;
+
+        _pendingSize = new AtomicLong(0);
+        final RemoteEndpoint remote = session.getRemote();
+
+        if ((scheduler != null) && (batchWindow > 0) && (remote instanceof WebSocketRemoteEndpoint)) {
+            // Frames are aggregated until the batch is flushed explicitly.
+            ((WebSocketRemoteEndpoint) remote).setBatchMode(BatchMode.ON);
+            _batchSize = Math.max(batchSize, 1);
+            _flushJob = scheduler.scheduleJob(new Schedulable() {
+                @Override
+                public void onScheduled() {
+                }
+
+                @Override
+                public void onCancelled() {
+                }
+
+                @Override
+                public void run() {
+                    flush();
+                }
+            }, batchWindow, TimeUnit.MILLISECONDS);
+        } else {
+            _batchSize = 0;
+        }
+    }
+
+    /**
+     * Flushes the batched messages if any.
+     */
+    private void flush() {
+        if (_pendingSize.getAndSet(0) == 0) {
+            return;
+        }
+        try {
+            _session.getRemote().flush();
+        } catch (final Throwable t) {
+            LOGGER.warn("Failed to flush batched messages", t);
+        }
     }
 
     @Override
@@ -74,12 +158,30 @@ final class WebSocketChannel implements Channel {
                 deferred.setFailure(cause);
             }
         });
+        if ((_batchSize > 0) && (_pendingSize.addAndGet(message.length()) >= _batchSize)) {
+            flush();
+        }
 
         return deferred;
     }
 
+    /**
+     * Stops batching after flushing the batched messages.
+     */
+    void stopBatching() {
+        final Job flushJob = _flushJob;
+
+        if (flushJob == null) {
+            return;
+        }
+        _flushJob = null;
+        flushJob.cancel();
+        flush();
+    }
+
     @Override
     public Promise<Void> close() {
+        stopBatching();
         try {
             _session.close();
         } catch (final Throwable t) {
@@ -18,6 +18,7 @@ package net.signalr.client.transport.jetty;
 
 import net.signalr.client.transport.Channel;
 import net.signalr.client.transport.ChannelHandler;
+import net.signalr.client.util.concurrent.Scheduler;
 import net.signalr.client.util.concurrent.promise.Deferred;
 import net.signalr.client.util.concurrent.promise.Promise;
 
@@ -34,22 +35,57 @@ final class WebSocketListenerAdapter implements WebSocketListener {
      */
     private final ChannelHandler _handler;
 
+    /**
+     * The scheduler which runs the periodic flush or <code>null</code>.
+     */
+    private final Scheduler _scheduler;
+
+    /**
+     * The batch window in milliseconds.
+     */
+    private final long _batchWindow;
+
+    /**
+     * The batch size in characters.
+     */
+    private final int _batchSize;
+
     /**
      * The channel.
      */
     private final Deferred<Channel> _channel;
 
+    /**
+     * The opened WebSocket channel.
+     */
+    private volatile WebSocketChannel _webSocketChannel;
+
     /**
      * Initializes a new instance of the {@link WebSocketListenerAdapter} class.
      * 
      * @param handler The channel handler.
      */
     public WebSocketListenerAdapter(final ChannelHandler handler) {
+        this(handler, null, 0, 0);
+    }
+
+    /**
+     * Initializes a new instance of the {@link WebSocketListenerAdapter} class.
+     * 
+     * @param handler The channel handler.
+     * @param scheduler The scheduler which runs the periodic flush.
+     * @param batchWindow The batch window in milliseconds or <code>0</code> to disable batching.
+     * @param batchSize The batch size in characters.
+     */
+    public WebSocketListenerAdapter(final ChannelHandler handler, final Scheduler scheduler, final long batchWindow, final int batchSize) {
         if (handler == null) {
             throw new IllegalArgumentException("Handler must not be null");
         }
 
         _handler = handler;
+        _scheduler = scheduler;
+        _batchWindow = batchWindow;
+        _batchSize = batchSize;
 
         _channel = new Deferred<>();
     }
@@ -69,13 +105,19 @@ final class WebSocketListenerAdapter implements WebSocketListener {
 
     @Override
     public void onWebSocketClose(final int statusCode, final String reason) {
+        final WebSocketChannel channel = _webSocketChannel;
+
+        if (channel != null) {
+            channel.stopBatching();
+        }
         _handler.handleChannelClosed();
     }
 
     @Override
     public void onWebSocketConnect(final Session session) {
-        final WebSocketChannel channel = new WebSocketChannel(_handler, session);
+        final WebSocketChannel channel = new WebSocketChannel(_handler, session, _scheduler, _batchWindow, _batchSize);
 
+        _webSocketChannel = channel;
         if (_channel.trySuccess(channel)) {
             _handler.handleChannelOpened();
         }
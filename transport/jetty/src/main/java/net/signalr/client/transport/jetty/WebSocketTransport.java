@@ -19,6 +19,7 @@ package net.signalr.client.transport.jetty;
 import java.net.URI;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
@@ -43,6 +44,16 @@ public final class WebSocketTransport extends AbstractTransport {
      */
     private final WebSocketClient _webSocketClient;
 
+    /**
+     * The batch window in milliseconds or <code>0</code> if batching is disabled.
+     */
+    private volatile long _batchWindow;
+
+    /**
+     * The batch size in characters.
+     */
+    private volatile int _batchSize;
+
     /**
      * Initializes a new instance of the {@link WebSocketTransport} class.
      */
@@ -75,6 +86,31 @@ public final class WebSocketTransport extends AbstractTransport {
         _webSocketClient = webSocketClient;
     }
 
+    /**
+     * Enables batching of outbound messages for subsequently connected
+     * channels. Messages are flushed together once the batch window elapses
+     * or the batch size is reached, while the send result of each message
+     * still completes individually.
+     * 
+     * @param batchWindow The batch window or <code>0</code> to disable batching.
+     * @param timeUnit The time unit.
+     * @param batchSize The batch size in characters.
+     */
+    public void setBatching(final long batchWindow, final TimeUnit timeUnit, final int batchSize) {
+        if (batchWindow < 0) {
+            throw new IllegalArgumentException("Batch window must not be negative");
+        }
+        if (timeUnit == null) {
+            throw new IllegalArgumentException("Time unit must not be null");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be greater than zero");
+        }
+
+        _batchWindow = timeUnit.toMillis(batchWindow);
+        _batchSize = batchSize;
+    }
+
     @Override
     public String getName() {
         return Transports.WEB_SOCKETS;
@@ -110,7 +146,7 @@ public final class WebSocketTransport extends AbstractTransport {
         request.setHeader("User-Agent", USER_AGENT);
 
         // Send request.
-        final WebSocketListenerAdapter listener = new WebSocketListenerAdapter(handler);
+        final WebSocketListenerAdapter listener = new WebSocketListenerAdapter(handler, context.getScheduler(), _batchWindow, _batchSize);
 
         try {
             _webSocketClient.connect(listener, uri, request);
@@ -0,0 +1,224 @@
+/*
+ * Copyright © Martin Tamme
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.signalr.client.transport.jetty;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.websocket.api.BatchMode;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.api.extensions.OutgoingFrames;
+import org.eclipse.jetty.websocket.common.LogicalConnection;
+import org.eclipse.jetty.websocket.common.WebSocketRemoteEndpoint;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import net.signalr.client.transport.ChannelHandler;
+import net.signalr.client.util.concurrent.Job;
+import net.signalr.client.util.concurrent.Schedulable;
+import net.signalr.client.util.concurrent.Scheduler;
+
+@RunWith(JUnit4.class)
+public final class WebSocketChannelTest {
+
+    private ChannelHandler _handler;
+
+    private StubRemoteEndpoint _remote;
+
+    private StubSession _session;
+
+    private StubScheduler _scheduler;
+
+    @Before
+    public void before() {
+        final InvocationHandler nothing = new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] arguments) {
+                return null;
+            }
+        };
+
+        _handler = newStub(ChannelHandler.class, nothing);
+        _remote = new StubRemoteEndpoint(newStub(LogicalConnection.class, nothing), newStub(OutgoingFrames.class, nothing));
+        _session = new StubSession(_remote);
+        _scheduler = new StubScheduler();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T newStub(final Class<T> type, final InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    @Test
+    public void sendWithoutBatchingTest() {
+        // Arrange
+        final WebSocketChannel channel = new WebSocketChannel(_handler, _session._session);
+
+        // Act
+        channel.send("a");
+
+        // Assert
+        assertThat(_remote.getBatchMode(), is(BatchMode.AUTO));
+        assertNull(_scheduler._schedulable);
+        assertThat(_remote._messages, is(Arrays.asList("a")));
+        assertThat(_remote._flushes, is(0));
+    }
+
+    @Test
+    public void sendFlushesOnBatchSizeTest() {
+        // Arrange
+        final WebSocketChannel channel = new WebSocketChannel(_handler, _session._session, _scheduler, 50, 3);
+
+        // Act
+        channel.send("ab");
+        final int flushesBelowBatchSize = _remote._flushes;
+
+        channel.send("cd");
+
+        // Assert
+        assertThat(_remote.getBatchMode(), is(BatchMode.ON));
+        assertThat(_scheduler._period, is(50L));
+        assertThat(_remote._messages, is(Arrays.asList("ab", "cd")));
+        assertThat(flushesBelowBatchSize, is(0));
+        assertThat(_remote._flushes, is(1));
+    }
+
+    @Test
+    public void sendFlushesOnBatchWindowTest() {
+        // Arrange
+        final WebSocketChannel channel = new WebSocketChannel(_handler, _session._session, _scheduler, 50, 100);
+
+        channel.send("a");
+
+        // Act
+        _scheduler._schedulable.run();
+        final int flushesAfterSend = _remote._flushes;
+
+        _scheduler._schedulable.run();
+
+        // Assert
+        assertThat(flushesAfterSend, is(1));
+        // Empty batches are not flushed.
+        assertThat(_remote._flushes, is(1));
+    }
+
+    @Test
+    public void closeFlushesBatchTest() {
+        // Arrange
+        final WebSocketChannel channel = new WebSocketChannel(_handler, _session._session, _scheduler, 50, 100);
+
+        channel.send("a");
+
+        // Act
+        channel.close();
+
+        // Assert
+        assertThat(_remote._flushes, is(1));
+        assertTrue(_scheduler._cancelled);
+        assertTrue(_session._closed);
+    }
+
+    private static final class StubRemoteEndpoint extends WebSocketRemoteEndpoint {
+
+        private final List<String> _messages;
+
+        private int _flushes;
+
+        public StubRemoteEndpoint(final LogicalConnection connection, final OutgoingFrames outgoing) {
+            super(connection, outgoing, BatchMode.AUTO);
+
+            _messages = new ArrayList<>();
+        }
+
+        @Override
+        public void sendString(final String text, final WriteCallback callback) {
+            _messages.add(text);
+            callback.writeSuccess();
+        }
+
+        @Override
+        public void flush() {
+            _flushes++;
+        }
+    }
+
+    private static final class StubSession implements InvocationHandler {
+
+        private final Session _session;
+
+        private final StubRemoteEndpoint _remote;
+
+        private boolean _closed;
+
+        public StubSession(final StubRemoteEndpoint remote) {
+            _session = newStub(Session.class, this);
+            _remote = remote;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] arguments) {
+            switch (method.getName()) {
+            case "getRemote":
+                return _remote;
+            case "close":
+                _closed = true;
+                return null;
+            default:
+                return null;
+            }
+        }
+    }
+
+    private static final class StubScheduler implements Scheduler {
+
+        private Schedulable _schedulable;
+
+        private long _period;
+
+        private boolean _cancelled;
+
+        @Override
+        public Job scheduleJob(final Schedulable schedulable, final long period, final TimeUnit timeUnit) {
+            _schedulable = schedulable;
+            _period = timeUnit.toMillis(period);
+
+            return new Job() {
+                @Override
+                public boolean cancel() {
+                    _cancelled = true;
+
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}